@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import static org.eclipse.xtext.ui.testing.util.IResourcesSetupUtil.*;
+
+import java.util.Collections;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.xtext.builder.BuilderStateLocation;
+import org.eclipse.xtext.builder.DerivedResourcesIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+
+public class DerivedResourcesIndexTest extends Assert {
+
+	private static final String GENERATOR = "generator";
+
+	private static final String SOURCE = "platform:/resource/test/src/a.mydsl";
+
+	private IProject project;
+	private IFile first;
+	private IFile second;
+	private DerivedResourcesIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		project = createProject("test");
+		first = createFile("test/src-gen/A.java", "");
+		second = createFile("test/src-gen/B.java", "");
+		index = Guice.createInjector(new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(IWorkspace.class).toInstance(ResourcesPlugin.getWorkspace());
+				bind(BuilderStateLocation.class).to(BuilderStateLocation.Transient.class);
+			}
+		}).getInstance(DerivedResourcesIndex.class);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		cleanWorkspace();
+	}
+
+	@Test
+	public void testLookup() {
+		assertFalse(index.isInitialized(project, GENERATOR));
+		initialize();
+		assertTrue(index.isInitialized(project, GENERATOR));
+		assertEquals(Collections.singleton(first), index.getDerivedResources(project, GENERATOR, SOURCE));
+		assertTrue(index.getDerivedResources(project, "other", SOURCE).isEmpty());
+		assertTrue(index.getDerivedResources(project, GENERATOR, "platform:/resource/test/src/b.mydsl").isEmpty());
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		initialize();
+		index.add(project, GENERATOR, SOURCE, second);
+		assertEquals(2, index.getDerivedResources(project, GENERATOR, SOURCE).size());
+		index.remove(project, GENERATOR, SOURCE, first);
+		assertEquals(Collections.singleton(second), index.getDerivedResources(project, GENERATOR, SOURCE));
+		index.removeFile(project, GENERATOR, second);
+		assertTrue(index.getDerivedResources(project, GENERATOR, SOURCE).isEmpty());
+	}
+
+	@Test
+	public void testDeletedFileIsDropped() throws Exception {
+		initialize();
+		first.delete(true, null);
+		assertTrue(index.getDerivedResources(project, GENERATOR, SOURCE).isEmpty());
+	}
+
+	@Test
+	public void testClear() {
+		initialize();
+		// a clean or recovery build clears the index of the project
+		index.clear(project, GENERATOR);
+		assertFalse(index.isInitialized(project, GENERATOR));
+		assertTrue(index.getDerivedResources(project, GENERATOR, SOURCE).isEmpty());
+	}
+
+	@Test
+	public void testRenamedProject() throws Exception {
+		initialize();
+		project.move(new Path("renamed"), true, null);
+		assertFalse(index.isInitialized(project, GENERATOR));
+		IProject renamed = root().getProject("renamed");
+		assertFalse(index.isInitialized(renamed, GENERATOR));
+	}
+
+	@Test
+	public void testDeletedProject() throws Exception {
+		initialize();
+		project.delete(true, null);
+		assertFalse(index.isInitialized(project, GENERATOR));
+	}
+
+	private void initialize() {
+		SetMultimap<String, IFile> derivedResources = HashMultimap.create();
+		derivedResources.put(SOURCE, first);
+		index.initialize(project, GENERATOR, derivedResources);
+	}
+
+}
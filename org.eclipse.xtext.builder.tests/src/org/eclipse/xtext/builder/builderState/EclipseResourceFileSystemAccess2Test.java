@@ -96,5 +96,51 @@ public class EclipseResourceFileSystemAccess2Test extends Assert {
 		assertTrue(file.exists());
 		assertEquals("foo", fsa.readTextFile("tmp/bar"));
 	}
+
+	@Test
+	public void testModifiedAfterGeneration() throws Exception {
+		fsa.generateFile("tmp/X", "XX");
+		IFile file = project.getFolder("src-gen/tmp").getFile("X");
+		file.setContents(new StringInputStream("YY"), true, false, null);
+		fsa.generateFile("tmp/X", "XX");
+		assertEquals("XX", fsa.readTextFile("tmp/X"));
+	}
+
+	@Test
+	public void testChangedContentsWritten() throws Exception {
+		fsa.generateFile("tmp/X", "XX");
+		fsa.generateFile("tmp/X", "XX");
+		fsa.generateFile("tmp/X", "XY");
+		assertEquals("XY", fsa.readTextFile("tmp/X"));
+	}
+
+	@Test
+	public void testHasContentsChangedForUnknownFile() throws Exception {
+		IFolder dir = project.getFolder("src-gen/tmp");
+		dir.create(true, true, null);
+		IFile file = dir.getFile("X");
+		file.create(new StringInputStream("XX"), true, null);
+		Injector injector = Activator.getInstance().getInjector(
+				Activator.ORG_ECLIPSE_XTEXT_BUILDER_TESTS_BUILDERTESTLANGUAGE);
+		CountingFileSystemAccess counting = injector.getInstance(CountingFileSystemAccess.class);
+		counting.setProject(project);
+		counting.setOutputPath("src-gen");
+		counting.setMonitor(new NullProgressMonitor());
+		counting.generateFile("tmp/X", "XX");
+		assertEquals(1, counting.comparisons);
+		// the file is known once it was generated
+		counting.generateFile("tmp/X", "XX");
+		assertEquals(1, counting.comparisons);
+	}
+
+	public static class CountingFileSystemAccess extends EclipseResourceFileSystemAccess2 {
+		private int comparisons;
+
+		@Override
+		protected boolean hasContentsChanged(IFile file, InputStream newContent) {
+			comparisons++;
+			return super.hasContentsChanged(file, newContent);
+		}
+	}
 	
 }
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.builder.builderState.impl.EObjectDescriptionImpl;
+import org.eclipse.xtext.builder.builderState.impl.ResourceDescriptionImpl;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class ExportedObjectsIndexTest {
+
+	private URI a = URI.createURI("platform:/resource/p/a.ecore");
+	private URI b = URI.createURI("platform:/resource/p/b.ecore");
+
+	@Test public void testByName() {
+		ExportedObjectsIndex index = new ExportedObjectsIndex(Lists.<IResourceDescription>newArrayList(
+				description(a, "Foo", EcorePackage.Literals.ECLASS),
+				description(b, "foo", EcorePackage.Literals.EDATA_TYPE)));
+		QualifiedName name = QualifiedName.create("Foo");
+		assertEquals(1, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EOBJECT, name, false)));
+		assertEquals(2, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EOBJECT, name, true)));
+		assertEquals(1, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EDATA_TYPE, name, true)));
+		assertTrue(Iterables.isEmpty(index.getExportedObjects(EcorePackage.Literals.EDATA_TYPE, name, false)));
+	}
+
+	@Test public void testByType() {
+		ExportedObjectsIndex index = new ExportedObjectsIndex(Lists.<IResourceDescription>newArrayList(
+				description(a, "Foo", EcorePackage.Literals.ECLASS),
+				description(b, "Bar", EcorePackage.Literals.EDATA_TYPE)));
+		assertEquals(1, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.ECLASS)));
+		assertEquals(2, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER)));
+		assertEquals(2, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+		assertTrue(Iterables.isEmpty(index.getExportedObjectsByType(EcorePackage.Literals.EPACKAGE)));
+	}
+
+	@Test public void testUpdateDoesNotChangeOriginal() {
+		ExportedObjectsIndex index = new ExportedObjectsIndex(Collections.<IResourceDescription>singletonList(
+				description(a, "Foo", EcorePackage.Literals.ECLASS)));
+		ExportedObjectsIndex copy = index.update(
+				Collections.<URI, IResourceDescription>singletonMap(a, description(a, "Bar", EcorePackage.Literals.ECLASS)));
+		List<IEObjectDescription> original = Lists.newArrayList(index.getExportedObjectsByType(EcorePackage.Literals.ECLASS));
+		assertEquals(1, original.size());
+		assertEquals(QualifiedName.create("Foo"), original.get(0).getName());
+		List<IEObjectDescription> updated = Lists.newArrayList(copy.getExportedObjectsByType(EcorePackage.Literals.ECLASS));
+		assertEquals(1, updated.size());
+		assertEquals(QualifiedName.create("Bar"), updated.get(0).getName());
+		assertTrue(Iterables.isEmpty(copy.getExportedObjects(EcorePackage.Literals.EOBJECT, QualifiedName.create("foo"), true)));
+	}
+
+	@Test public void testRemove() {
+		ExportedObjectsIndex index = new ExportedObjectsIndex(Lists.<IResourceDescription>newArrayList(
+				description(a, "Foo", EcorePackage.Literals.ECLASS),
+				description(b, "Foo", EcorePackage.Literals.ECLASS)));
+		index = index.update(Collections.<URI, IResourceDescription>singletonMap(a, null));
+		List<IEObjectDescription> found = Lists.newArrayList(index.getExportedObjects(EcorePackage.Literals.ECLASS, QualifiedName.create("Foo"), false));
+		assertEquals(1, found.size());
+		assertEquals(b, found.get(0).getEObjectURI().trimFragment());
+	}
+
+	@Test public void testUpdateChangedResource() {
+		ExportedObjectsIndex index = new ExportedObjectsIndex(Lists.<IResourceDescription>newArrayList(
+				description(a, "Foo", EcorePackage.Literals.ECLASS),
+				description(b, "Foo", EcorePackage.Literals.ECLASS)));
+		index = index.update(Collections.<URI, IResourceDescription>singletonMap(a, description(a, "Bar", EcorePackage.Literals.ECLASS)));
+		index = index.update(Collections.<URI, IResourceDescription>singletonMap(a, description(a, "Baz", EcorePackage.Literals.EDATA_TYPE)));
+		assertEquals(1, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EOBJECT, QualifiedName.create("Foo"), false)));
+		assertTrue(Iterables.isEmpty(index.getExportedObjects(EcorePackage.Literals.EOBJECT, QualifiedName.create("Bar"), false)));
+		assertEquals(1, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EOBJECT, QualifiedName.create("baz"), true)));
+		assertEquals(1, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.ECLASS)));
+		assertEquals(2, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+	}
+
+	@Test public void testUpdateManyResources() {
+		ExportedObjectsIndex index = new ExportedObjectsIndex(Lists.<IResourceDescription>newArrayList(
+				description(a, "Foo", EcorePackage.Literals.ECLASS),
+				description(b, "Foo", EcorePackage.Literals.ECLASS)));
+		// enough changed resources to merge the changes into new postings
+		int count = 2000;
+		for (int i = 0; i < count; i++) {
+			URI uri = URI.createURI("platform:/resource/p/" + i + ".ecore");
+			index = index.update(Collections.<URI, IResourceDescription>singletonMap(uri, description(uri, "Foo", EcorePackage.Literals.EDATA_TYPE)));
+		}
+		index = index.update(Collections.<URI, IResourceDescription>singletonMap(a, null));
+		QualifiedName name = QualifiedName.create("Foo");
+		assertEquals(count + 1, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EOBJECT, name, false)));
+		assertEquals(count, Iterables.size(index.getExportedObjects(EcorePackage.Literals.EDATA_TYPE, name, false)));
+		assertEquals(count + 1, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER)));
+		assertEquals(count + 1, Iterables.size(index.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+		List<IEObjectDescription> classes = Lists.newArrayList(index.getExportedObjectsByType(EcorePackage.Literals.ECLASS));
+		assertEquals(1, classes.size());
+		assertEquals(b, classes.get(0).getEObjectURI().trimFragment());
+	}
+
+	private IResourceDescription description(URI uri, String name, EClass type) {
+		ResourceDescriptionImpl result = (ResourceDescriptionImpl) BuilderStateFactory.eINSTANCE.createResourceDescription();
+		result.setURI(uri);
+		EObjectDescriptionImpl exported = (EObjectDescriptionImpl) BuilderStateFactory.eINSTANCE.createEObjectDescription();
+		exported.setName(QualifiedName.create(name));
+		exported.setEClass(type);
+		exported.setFragment("/0");
+		result.getExportedObjects().add(exported);
+		return result;
+	}
+
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import static org.eclipse.xtext.ui.testing.util.IResourcesSetupUtil.*;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.xtext.builder.BuilderStateLocation;
+import org.eclipse.xtext.builder.GeneratedContentHashes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+
+public class GeneratedContentHashesTest extends Assert {
+
+	private static final byte[] CONTENTS = "class A {}".getBytes();
+
+	/**
+	 * Tells whether a hash is recorded for a file, even if the file no longer exists.
+	 */
+	public static class InspectableHashes extends GeneratedContentHashes {
+		public boolean contains(IFile file) {
+			return getEntries().containsKey(getKey(file));
+		}
+	}
+
+	private IProject project;
+	private IFile generated;
+	private IFile nested;
+	private IFile source;
+	private InspectableHashes hashes;
+
+	@Before
+	public void setUp() throws Exception {
+		project = createProject("test");
+		generated = createFile("test/src-gen/A.java", "class A {}");
+		nested = createFile("test/src-gen/a/B.java", "class A {}");
+		source = createFile("test/src/C.java", "class A {}");
+		hashes = Guice.createInjector(new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(IWorkspace.class).toInstance(ResourcesPlugin.getWorkspace());
+				bind(BuilderStateLocation.class).to(BuilderStateLocation.Transient.class);
+			}
+		}).getInstance(InspectableHashes.class);
+		put(generated);
+		put(nested);
+		put(source);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		cleanWorkspace();
+	}
+
+	@Test
+	public void testUnchanged() {
+		assertEquals(Boolean.FALSE, hasChanged(generated));
+		assertEquals(Boolean.TRUE, hashes.hasChanged(generated, "class B {}".getBytes(), hashes.hash("class B {}".getBytes())));
+	}
+
+	@Test
+	public void testRemoveFile() {
+		hashes.remove(generated);
+		assertFalse(hashes.contains(generated));
+		assertNull(hasChanged(generated));
+		assertTrue(hashes.contains(nested));
+	}
+
+	@Test
+	public void testCleanedOutput() throws Exception {
+		// a clean deletes the members of the output folder
+		for (IResource member : project.getFolder("src-gen").members()) {
+			member.delete(true, null);
+			hashes.remove(member);
+		}
+		assertFalse(hashes.contains(generated));
+		assertFalse(hashes.contains(nested));
+		assertTrue(hashes.contains(source));
+	}
+
+	@Test
+	public void testClosedProject() throws Exception {
+		createProject("other");
+		IFile other = createFile("other/src-gen/A.java", "class A {}");
+		put(other);
+		project.close(null);
+		assertFalse(hashes.contains(generated));
+		assertFalse(hashes.contains(source));
+		assertTrue(hashes.contains(other));
+	}
+
+	@Test
+	public void testDeletedProject() throws Exception {
+		createProject("other");
+		IFile other = createFile("other/src-gen/A.java", "class A {}");
+		put(other);
+		project.delete(true, null);
+		assertFalse(hashes.contains(generated));
+		assertFalse(hashes.contains(nested));
+		assertTrue(hashes.contains(other));
+	}
+
+	private void put(IFile file) {
+		hashes.put(file, CONTENTS, hashes.hash(CONTENTS));
+	}
+
+	private Boolean hasChanged(IFile file) {
+		return hashes.hasChanged(file, CONTENTS, hashes.hash(CONTENTS));
+	}
+
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.xtext.builder.builderState.impl.EObjectDescriptionImpl;
+import org.eclipse.xtext.builder.builderState.impl.ReferenceDescriptionImpl;
+import org.eclipse.xtext.builder.builderState.impl.ResourceDescriptionImpl;
+import org.eclipse.xtext.junit4.TemporaryFolder;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class MemoryMappedPersisterTest extends Assert {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private MemoryMappedPersister persister;
+	private File directory;
+	private List<IResourceDescription> descriptions;
+	private int saveParticipants;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = temporaryFolder.newFolder();
+		persister = createPersister();
+		descriptions = Lists.newArrayList(
+				createResourceDescription(1),
+				createResourceDescription(2),
+				createResourceDescription(3)
+		);
+	}
+
+	@Test public void testSaveAndReload() throws Exception {
+		persister.save(descriptions);
+		List<IResourceDescription> loaded = Lists.newArrayList(persister.load());
+		checkEquals(loaded);
+	}
+
+	@Test public void testSaveAndReloadTwice() throws Exception {
+		persister.save(descriptions);
+		List<IResourceDescription> loaded = Lists.newArrayList(persister.load());
+		// one unchanged record is copied, one is encoded again
+		loaded.set(1, createResourceDescription(2));
+		persister.save(loaded);
+		loaded = Lists.newArrayList(persister.load());
+		checkEquals(loaded);
+	}
+
+	@Test public void testLoadedTwice() throws Exception {
+		persister.save(descriptions);
+		assertEquals(3, Iterables.size(persister.load()));
+		assertEquals(3, Iterables.size(persister.load()));
+		assertEquals(1, saveParticipants);
+	}
+
+	@Test public void testUnknownEClass() throws Exception {
+		EPackage unknownPackage = EcoreFactory.eINSTANCE.createEPackage();
+		unknownPackage.setNsURI("http://www.eclipse.org/xtext/unknown");
+		EClass unknownClass = EcoreFactory.eINSTANCE.createEClass();
+		unknownClass.setName("Unknown");
+		unknownPackage.getEClassifiers().add(unknownClass);
+		ResourceDescriptionImpl description = (ResourceDescriptionImpl) createResourceDescription(1);
+		((EObjectDescriptionImpl) description.getExportedObjects().get(0)).setEClass(unknownClass);
+		persister.save(Collections.<IResourceDescription> singletonList(description));
+		IEObjectDescription loaded = persister.load().iterator().next().getExportedObjects().iterator().next();
+		EObject proxy = loaded.getEObjectOrProxy();
+		assertNotNull(proxy);
+		assertTrue(proxy.eIsProxy());
+		assertEquals(loaded.getEObjectURI(), ((InternalEObject) proxy).eProxyURI());
+	}
+
+	@Test public void testJournalReplayed() throws Exception {
+		persister.save(descriptions);
+		persister.load();
+		Map<URI, IResourceDescription> changes = Maps.newLinkedHashMap();
+		IResourceDescription added = createResourceDescription(4);
+		changes.put(added.getURI(), added);
+		changes.put(descriptions.get(0).getURI(), null);
+		persister.appendToJournal(changes);
+		persister.closeJournal();
+		descriptions.remove(0);
+		descriptions.add(added);
+		checkEquals(Lists.newArrayList(createPersister().load()));
+	}
+
+	@Test public void testIncompleteJournalTruncated() throws Exception {
+		persister.save(descriptions);
+		persister.load();
+		IResourceDescription added = createResourceDescription(4);
+		persister.appendToJournal(Collections.singletonMap(added.getURI(), added));
+		persister.closeJournal();
+		File journal = null;
+		for (File file : directory.listFiles()) {
+			if (file.getName().startsWith("builder.journal."))
+				journal = file;
+		}
+		long length = journal.length();
+		RandomAccessFile randomAccessFile = new RandomAccessFile(journal, "rw");
+		try {
+			randomAccessFile.setLength(length - 1);
+		} finally {
+			randomAccessFile.close();
+		}
+		checkEquals(Lists.newArrayList(createPersister().load()));
+		assertEquals(0, journal.length());
+	}
+
+	@Test public void testOlderGenerationsDeleted() throws Exception {
+		persister.save(descriptions);
+		persister.save(persister.load());
+		persister.load();
+		// the snapshot and its journal
+		assertEquals(2, directory.listFiles().length);
+	}
+
+	private MemoryMappedPersister createPersister() {
+		return new MemoryMappedPersister() {
+			@Override
+			protected File getBuilderStateLocation() {
+				return directory;
+			}
+			@Override
+			protected void scheduleRecoveryBuild() {
+				// do nothing
+			}
+			@Override
+			protected void addSaveParticipant() throws CoreException {
+				saveParticipants++;
+			}
+		};
+	}
+
+	private void checkEquals(List<IResourceDescription> loaded) {
+		assertEquals(descriptions.size(), loaded.size());
+		for (int i = 0; i < descriptions.size(); i++) {
+			IResourceDescription expected = descriptions.get(i);
+			IResourceDescription actual = loaded.get(i);
+			assertEquals(expected.getURI(), actual.getURI());
+			assertEquals(Lists.newArrayList(expected.getImportedNames()), Lists.newArrayList(actual.getImportedNames()));
+			List<IEObjectDescription> expectedObjects = Lists.newArrayList(expected.getExportedObjects());
+			List<IEObjectDescription> actualObjects = Lists.newArrayList(actual.getExportedObjects());
+			assertEquals(expectedObjects.size(), actualObjects.size());
+			for (int j = 0; j < expectedObjects.size(); j++) {
+				assertEquals(expectedObjects.get(j).getName(), actualObjects.get(j).getName());
+				assertEquals(expectedObjects.get(j).getEObjectURI(), actualObjects.get(j).getEObjectURI());
+				assertSame(expectedObjects.get(j).getEClass(), actualObjects.get(j).getEClass());
+				assertEquals("value", actualObjects.get(j).getUserData("key"));
+			}
+			List<IReferenceDescription> expectedReferences = Lists.newArrayList(expected.getReferenceDescriptions());
+			List<IReferenceDescription> actualReferences = Lists.newArrayList(actual.getReferenceDescriptions());
+			assertEquals(expectedReferences.size(), actualReferences.size());
+			for (int j = 0; j < expectedReferences.size(); j++) {
+				assertEquals(expectedReferences.get(j).getSourceEObjectUri(), actualReferences.get(j).getSourceEObjectUri());
+				assertEquals(expectedReferences.get(j).getTargetEObjectUri(), actualReferences.get(j).getTargetEObjectUri());
+				assertNull(actualReferences.get(j).getContainerEObjectURI());
+				assertSame(expectedReferences.get(j).getEReference(), actualReferences.get(j).getEReference());
+				assertEquals(expectedReferences.get(j).getIndexInList(), actualReferences.get(j).getIndexInList());
+			}
+		}
+	}
+
+	public IResourceDescription createResourceDescription(int idx) {
+		ResourceDescriptionImpl result = (ResourceDescriptionImpl) BuilderStateFactory.eINSTANCE.createResourceDescription();
+		result.setURI(URI.createPlatformResourceURI(idx + ".uri", true));
+		result.getExportedObjects().add(createObjectDescription(1));
+		result.getExportedObjects().add(createObjectDescription(2));
+		result.getReferenceDescriptions().add(createReferenceDescription(1));
+		result.getReferenceDescriptions().add(createReferenceDescription(2));
+		result.getImportedNames().add(QualifiedName.create("name1"));
+		result.getImportedNames().add(QualifiedName.create("a", "b", "ü"));
+		return result;
+	}
+
+	public IEObjectDescription createObjectDescription(int idx) {
+		EObjectDescriptionImpl result = (EObjectDescriptionImpl) BuilderStateFactory.eINSTANCE.createEObjectDescription();
+		result.setEClass(EcorePackage.Literals.ECLASS);
+		result.setFragment("newFragment" + idx);
+		result.setName(QualifiedName.create("name" + idx));
+		result.getUserData().put("key", "value");
+		return result;
+	}
+
+	public IReferenceDescription createReferenceDescription(int idx) {
+		ReferenceDescriptionImpl result = (ReferenceDescriptionImpl) BuilderStateFactory.eINSTANCE.createReferenceDescription();
+		result.setIndexInList(idx);
+		result.setReference(EcorePackage.Literals.ECLASS__ESUPER_TYPES);
+		result.setSourceEObjectUri(URI.createFileURI(idx + "source.uri"));
+		result.setTargetEObjectUri(URI.createFileURI(idx + "target.uri"));
+		return result;
+	}
+
+}
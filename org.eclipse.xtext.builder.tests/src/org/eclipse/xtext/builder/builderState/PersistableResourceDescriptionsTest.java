@@ -10,6 +10,7 @@ package org.eclipse.xtext.builder.builderState;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,12 +25,15 @@ import org.eclipse.xtext.builder.impl.BuildData;
 import org.eclipse.xtext.builder.impl.QueuedBuildData;
 import org.eclipse.xtext.builder.impl.ToBeBuilt;
 import org.eclipse.xtext.builder.tests.BuilderTestLanguageStandaloneSetup;
+import org.eclipse.xtext.builder.tests.builderTestLanguage.BuilderTestLanguagePackage;
 import org.eclipse.xtext.junit4.AbstractXtextTests;
 import org.eclipse.xtext.junit4.util.URIBasedTestResourceDescription;
+import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescription.Delta;
 import org.eclipse.xtext.resource.containers.DelegatingIAllContainerAdapter;
 import org.eclipse.xtext.resource.containers.IAllContainersState;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.ui.shared.internal.SharedModule;
 import org.eclipse.xtext.util.StringInputStream;
 import org.junit.Test;
@@ -254,6 +258,53 @@ public class PersistableResourceDescriptionsTest extends AbstractXtextTests {
 		assertNull(builderState.getResourceDescription(uri3));
 	}
 	
+	@Test public void testSetResourceDescriptionsData() throws Exception {
+		PublishingBuilderState publishingState = builderInjector.getInstance(PublishingBuilderState.class);
+		builderState = publishingState;
+		addToFileSystem("bar", "namespace bar { object B }");
+		addToFileSystem("foo", "namespace foo { object A references bar.B}");
+		update(uris("foo", "bar"), null);
+		QualifiedName name = QualifiedName.create("bar", "B");
+		assertEquals(1, Lists.newArrayList(builderState.getExportedObjects(BuilderTestLanguagePackage.Literals.ELEMENT, name, false)).size());
+		assertEquals(Collections.singleton(uri("foo")), builderState.getReferencingResources(uris("bar")));
+
+		publishingState.publish(new ResourceDescriptionsData(Lists.newArrayList(builderState.getResourceDescription(uri("foo")))));
+		assertNull(builderState.getResourceDescription(uri("bar")));
+		assertTrue(Lists.newArrayList(builderState.getExportedObjects(BuilderTestLanguagePackage.Literals.ELEMENT, name, false)).isEmpty());
+		assertEquals(Collections.singleton(uri("foo")), builderState.getReferencingResources(uris("bar")));
+
+		publishingState.publish(new ResourceDescriptionsData(Collections.<IResourceDescription> emptyList()));
+		assertTrue(builderState.getReferencingResources(uris("bar")).isEmpty());
+	}
+
+	@Test public void testSetResourceDescriptionsDataResetsReverseDependencies() throws Exception {
+		PublishingBuilderState publishingState = builderInjector.getInstance(PublishingBuilderState.class);
+		addToFileSystem("bar", "namespace bar { object B }");
+		addToFileSystem("foo", "namespace foo { object A references bar.B}");
+		builderState = publishingState;
+		update(uris("bar"), null);
+
+		// foo is unknown to the reverse dependencies of the publishing state until its data is replaced
+		builderState = builderInjector.getInstance(ClusteringBuilderState.class);
+		update(uris("foo", "bar"), null);
+		List<IResourceDescription> descriptions = Lists.newArrayList(builderState.getAllResourceDescriptions());
+		builderState = publishingState;
+		publishingState.publish(new ResourceDescriptionsData(descriptions));
+
+		addToFileSystem("bar", "namespace bar { object C }");
+		addToFileSystem("foo", "namespace foo { object X references bar.B}");
+		Map<URI, Delta> reload = update(uris("bar"), null);
+		assertEquals(Sets.newHashSet(uri("foo"), uri("bar")), reload.keySet());
+	}
+
+	public static class PublishingBuilderState extends ClusteringBuilderState {
+
+		public void publish(ResourceDescriptionsData newData) {
+			setResourceDescriptionsData(newData);
+		}
+
+	}
+
 	public static class ListBasedPersister implements PersistedStateProvider {
 
 		public List<IResourceDescription> descriptions = Lists.newArrayList();
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.builder.builderState.impl.ReferenceDescriptionImpl;
+import org.eclipse.xtext.builder.builderState.impl.ResourceDescriptionImpl;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class ReferencingResourcesIndexTest {
+
+	private URI a = URI.createURI("platform:/resource/p/a.ext");
+	private URI b = URI.createURI("platform:/resource/p/b.ext");
+	private URI c = URI.createURI("platform:/resource/p/c.ext");
+
+	@Test public void testReferencingResources() {
+		ReferencingResourcesIndex index = new ReferencingResourcesIndex(Arrays.<IResourceDescription> asList(
+				description(a, a), description(b, a, c), description(c, b)));
+		assertEquals(Collections.singleton(b), index.getReferencingResources(Collections.singleton(a)));
+		assertEquals(Sets.newHashSet(b, c), index.getReferencingResources(Arrays.asList(b, c)));
+		assertTrue(index.getReferencingResources(Collections.singleton(URI.createURI("platform:/resource/p/d.ext"))).isEmpty());
+	}
+
+	@Test public void testUpdateCopy() {
+		ReferencingResourcesIndex index = new ReferencingResourcesIndex(Arrays.<IResourceDescription> asList(
+				description(b, a), description(c, a)));
+		Map<URI, IResourceDescription> newDescriptions = Maps.newLinkedHashMap();
+		newDescriptions.put(b, description(b, c));
+		newDescriptions.put(c, null);
+		ReferencingResourcesIndex copy = index.update(newDescriptions);
+		assertTrue(copy.getReferencingResources(Collections.singleton(a)).isEmpty());
+		assertEquals(Collections.singleton(b), copy.getReferencingResources(Collections.singleton(c)));
+		assertEquals(Sets.newHashSet(b, c), index.getReferencingResources(Collections.singleton(a)));
+		assertTrue(index.getReferencingResources(Collections.singleton(c)).isEmpty());
+	}
+
+	@Test public void testUpdateTwice() {
+		ReferencingResourcesIndex index = new ReferencingResourcesIndex(Arrays.<IResourceDescription> asList(
+				description(b, a), description(c, a)));
+		index = index.update(Collections.<URI, IResourceDescription> singletonMap(b, description(b, c)));
+		index = index.update(Collections.<URI, IResourceDescription> singletonMap(b, description(b, a)));
+		assertEquals(Sets.newHashSet(b, c), index.getReferencingResources(Collections.singleton(a)));
+		assertTrue(index.getReferencingResources(Collections.singleton(c)).isEmpty());
+		assertEquals(Sets.newHashSet(b, c), index.getReferencingResources(Arrays.asList(a, c)));
+	}
+
+	@Test public void testUpdateManyResources() {
+		ReferencingResourcesIndex index = new ReferencingResourcesIndex(Arrays.<IResourceDescription> asList(
+				description(b, a), description(c, a)));
+		// enough changed resources to merge the changes into a new base
+		int count = 2000;
+		for (int i = 0; i < count; i++) {
+			URI uri = URI.createURI("platform:/resource/p/" + i + ".ext");
+			index = index.update(Collections.<URI, IResourceDescription> singletonMap(uri, description(uri, a, b)));
+		}
+		index = index.update(Collections.<URI, IResourceDescription> singletonMap(c, null));
+		Set<URI> referencing = index.getReferencingResources(Collections.singleton(a));
+		assertEquals(count + 1, referencing.size());
+		assertTrue(referencing.contains(b));
+		assertFalse(referencing.contains(c));
+		assertEquals(count, index.getReferencingResources(Collections.singleton(b)).size());
+	}
+
+	private ResourceDescriptionImpl description(URI uri, URI... targets) {
+		ResourceDescriptionImpl result = (ResourceDescriptionImpl) BuilderStateFactory.eINSTANCE.createResourceDescription();
+		result.setURI(uri);
+		for (URI target : targets) {
+			ReferenceDescriptionImpl reference = (ReferenceDescriptionImpl) BuilderStateFactory.eINSTANCE.createReferenceDescription();
+			reference.setSourceEObjectUri(uri.appendFragment("/0"));
+			reference.setTargetEObjectUri(target.appendFragment("/1"));
+			result.getReferenceDescriptions().add(reference);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.clustering;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ExtensibleURIConverterImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.builder.builderState.PersistableResourceDescriptionsTest.ListBasedPersister;
+import org.eclipse.xtext.builder.impl.BuildData;
+import org.eclipse.xtext.builder.impl.QueuedBuildData;
+import org.eclipse.xtext.builder.impl.ToBeBuilt;
+import org.eclipse.xtext.builder.tests.BuilderTestLanguageRuntimeModule;
+import org.eclipse.xtext.builder.tests.BuilderTestLanguageStandaloneSetup;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.containers.DelegatingIAllContainerAdapter;
+import org.eclipse.xtext.resource.containers.IAllContainersState;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsProvider;
+import org.eclipse.xtext.ui.shared.internal.SharedModule;
+import org.eclipse.xtext.util.StringInputStream;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.inject.Binder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.name.Names;
+
+/**
+ * Builds the same resources with clusters that are processed in parallel and on the builder thread.
+ */
+public class ParallelClusterProcessingTest extends AbstractXtextTests {
+
+	private static final String FILE_EXT = ".buildertestlanguage";
+
+	/**
+	 * Processes every resource in a cluster of its own and counts the rounds.
+	 */
+	public static class ParallelBuilderState extends ClusteringBuilderState {
+		private Provider<ResourceSet> clusterResourceSets;
+		private final Set<ResourceSet> usedResourceSets = Sets.newConcurrentHashSet();
+		private final List<URI> validated = Lists.newArrayList();
+		private Thread builderThread;
+		private ResourceSet lastValidatedResourceSet;
+		private int rounds;
+
+		@Override
+		protected boolean isParallelClusterProcessing() {
+			return true;
+		}
+
+		@Override
+		protected List<List<URI>> pollClusters(Queue<URI> queue, Set<URI> toBeDeleted, ResourceSet resourceSet,
+				int maxClusters) {
+			List<List<URI>> result = Lists.newArrayList();
+			while (!queue.isEmpty() && result.size() < maxClusters) {
+				URI uri = queue.poll();
+				if (!toBeDeleted.contains(uri)) {
+					result.add(Collections.singletonList(uri));
+				}
+			}
+			rounds++;
+			return result;
+		}
+
+		@Override
+		protected ResourceSet createClusterResourceSet(ResourceSet buildResourceSet, IProject project) {
+			ResourceSet result = clusterResourceSets.get();
+			usedResourceSets.add(result);
+			return result;
+		}
+
+		@Override
+		protected void updateMarkers(Delta delta, ResourceSet resourceSet, IProgressMonitor monitor) {
+			assertSame(builderThread, Thread.currentThread());
+			assertTrue(usedResourceSets.contains(resourceSet));
+			assertNotNull(resourceSet.getResource(delta.getUri(), false));
+			if (lastValidatedResourceSet != null && lastValidatedResourceSet != resourceSet) {
+				// the previous cluster was released before this one is validated
+				assertTrue(lastValidatedResourceSet.getResources().isEmpty());
+			}
+			lastValidatedResourceSet = resourceSet;
+			validated.add(delta.getUri());
+			super.updateMarkers(delta, resourceSet, monitor);
+		}
+	}
+
+	private Map<String, String> fileSystem = Maps.newHashMap();
+
+	private ExtensibleURIConverterImpl uriConverter;
+
+	private Injector builderInjector;
+
+	private ParallelBuilderState parallelState;
+
+	private ClusteringBuilderState sequentialState;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		// link against the index of the build like the language's UI module does, since the clusters do not share a
+		// resource set
+		with(new BuilderTestLanguageStandaloneSetup() {
+			@Override
+			public Injector createInjector() {
+				return Guice.createInjector(new BuilderTestLanguageRuntimeModule() {
+					public void configureIResourceDescriptionsBuilderScope(Binder binder) {
+						binder.bind(IResourceDescriptions.class)
+								.annotatedWith(Names.named(ResourceDescriptionsProvider.NAMED_BUILDER_SCOPE))
+								.to(CurrentDescriptions.ResourceSetAware.class);
+					}
+				});
+			}
+		});
+		builderInjector = Guice.createInjector(new SharedModule(null));
+		uriConverter = new ExtensibleURIConverterImpl() {
+			@Override
+			public InputStream createInputStream(URI uri, Map<?, ?> options) throws IOException {
+				return new StringInputStream(fileSystem.get(uri.toString()));
+			}
+		};
+		parallelState = builderInjector.getInstance(ParallelBuilderState.class);
+		parallelState.setPersister(new ListBasedPersister());
+		parallelState.builderThread = Thread.currentThread();
+		parallelState.clusterResourceSets = new Provider<ResourceSet>() {
+			@Override
+			public ResourceSet get() {
+				return createResourceSet();
+			}
+		};
+		sequentialState = builderInjector.getInstance(ClusteringBuilderState.class);
+		sequentialState.setPersister(new ListBasedPersister());
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		builderInjector = null;
+		parallelState = null;
+		sequentialState = null;
+		super.tearDown();
+	}
+
+	@Test
+	public void testLinkedLikeSequentialBuild() {
+		addToFileSystem("foo", "namespace foo { object A }");
+		addToFileSystem("bar", "namespace bar { object B references foo.A }");
+		addToFileSystem("baz", "namespace baz { object C references bar.B otherRefs foo.A, bar.B }");
+		Map<URI, Delta> parallel = update(parallelState, uris("foo", "bar", "baz"), null);
+		Map<URI, Delta> sequential = update(sequentialState, uris("foo", "bar", "baz"), null);
+		assertEquals(sequential.keySet(), parallel.keySet());
+		for (URI uri : sequential.keySet()) {
+			assertEquals(references(sequential.get(uri).getNew()), references(parallel.get(uri).getNew()));
+		}
+		assertEquals(1, references(parallel.get(uri("bar")).getNew()).size());
+		assertEquals(uri("foo"), referencedResource(parallel.get(uri("bar")).getNew()));
+		// every resource was linked in a resource set of its own
+		assertEquals(3, parallelState.usedResourceSets.size());
+		for (ResourceSet resourceSet : parallelState.usedResourceSets) {
+			assertTrue(resourceSet.getResources().isEmpty());
+		}
+	}
+
+	@Test
+	public void testMarkersUpdatedOnBuilderThread() {
+		addToFileSystem("foo", "namespace foo { object A }");
+		addToFileSystem("bar", "namespace bar { object B references foo.A }");
+		update(parallelState, uris("foo", "bar"), null);
+		assertEquals(Sets.newHashSet(uri("foo"), uri("bar")), Sets.newHashSet(parallelState.validated));
+		for (ResourceSet resourceSet : parallelState.usedResourceSets) {
+			assertTrue(resourceSet.getResources().isEmpty());
+		}
+	}
+
+	@Test
+	public void testAffectedResourcesInNextRound() {
+		addToFileSystem("foo", "namespace foo { object A }");
+		addToFileSystem("bar", "namespace bar { object B references foo.A }");
+		addToFileSystem("baz", "namespace baz { object C }");
+		update(parallelState, uris("foo", "bar", "baz"), null);
+
+		addToFileSystem("foo", "namespace foo { object X }");
+		addToFileSystem("bar", "namespace bar { object B references foo.X }");
+		parallelState.rounds = 0;
+		// foo is processed first, bar is queued as affected by the changed export of foo
+		Map<URI, Delta> reload = update(parallelState, uris("foo"), null);
+		assertEquals(Sets.newHashSet(uri("foo"), uri("bar")), reload.keySet());
+		assertEquals(2, parallelState.rounds);
+		assertEquals(uri("foo"), referencedResource(reload.get(uri("bar")).getNew()));
+	}
+
+	@Test
+	public void testAffectedByClusterOfSameRound() {
+		addToFileSystem("foo", "namespace foo { object A }");
+		addToFileSystem("bar", "namespace bar { object B references foo.A }");
+		update(parallelState, uris("foo", "bar"), null);
+
+		addToFileSystem("foo", "namespace foo { object X }");
+		addToFileSystem("bar", "namespace bar { object B references foo.X }");
+		parallelState.rounds = 0;
+		// bar is linked in the same round as foo and is processed again with the delta of foo
+		Map<URI, Delta> reload = update(parallelState, uris("foo", "bar"), null);
+		assertEquals(Sets.newHashSet(uri("foo"), uri("bar")), reload.keySet());
+		assertEquals(2, parallelState.rounds);
+		assertEquals(uri("foo"), referencedResource(reload.get(uri("bar")).getNew()));
+	}
+
+	@Test
+	public void testDelete() {
+		addToFileSystem("bar", "namespace bar { object B }");
+		addToFileSystem("foo", "namespace foo { object A references bar.B }");
+		update(parallelState, uris("foo", "bar"), null);
+
+		Map<URI, Delta> reload = update(parallelState, null, uris("bar"));
+		assertNotNull(reload.get(uri("bar")).getOld());
+		assertNull(reload.get(uri("bar")).getNew());
+		assertNotNull(reload.get(uri("foo")).getNew());
+		assertTrue(references(reload.get(uri("foo")).getNew()).isEmpty());
+	}
+
+	private ResourceSet createResourceSet() {
+		ResourceSetImpl resourceSet = new ResourceSetImpl();
+		resourceSet.setURIConverter(uriConverter);
+		resourceSet.getLoadOptions().put(ResourceDescriptionsProvider.NAMED_BUILDER_SCOPE, Boolean.TRUE);
+		resourceSet.eAdapters().add(new DelegatingIAllContainerAdapter(new IAllContainersState() {
+			@Override
+			public List<String> getVisibleContainerHandles(String handle) {
+				return null;
+			}
+
+			@Override
+			public Collection<URI> getContainedURIs(String containerHandle) {
+				return null;
+			}
+
+			@Override
+			public String getContainerHandle(URI uri) {
+				return null;
+			}
+
+			@Override
+			public boolean isEmpty(String containerHandle) {
+				return true;
+			}
+		}));
+		return resourceSet;
+	}
+
+	private List<String> references(IResourceDescription description) {
+		List<String> result = Lists.newArrayList();
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			result.add(reference.getTargetEObjectUri().toString());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	private URI referencedResource(IResourceDescription description) {
+		IReferenceDescription reference = description.getReferenceDescriptions().iterator().next();
+		return reference.getTargetEObjectUri().trimFragment();
+	}
+
+	private void addToFileSystem(String uri, String contents) {
+		fileSystem.put(uri + FILE_EXT, contents);
+	}
+
+	private URI uri(String name) {
+		return URI.createURI(name + FILE_EXT);
+	}
+
+	private Set<URI> uris(String... urisAsStrings) {
+		Set<URI> result = Sets.newHashSet();
+		for (String string : urisAsStrings) {
+			result.add(uri(string));
+		}
+		return result;
+	}
+
+	private Map<URI, Delta> update(ClusteringBuilderState builderState, Set<URI> toBeUpdated, Set<URI> toBeDeleted) {
+		ResourceSet resourceSet = createResourceSet();
+		try {
+			ToBeBuilt toBeBuilt = new ToBeBuilt();
+			if (toBeDeleted != null)
+				toBeBuilt.getToBeDeleted().addAll(toBeDeleted);
+			if (toBeUpdated != null)
+				toBeBuilt.getToBeUpdated().addAll(toBeUpdated);
+			BuildData buildData = new BuildData("", resourceSet, toBeBuilt,
+					builderInjector.getInstance(QueuedBuildData.class));
+			return Maps.uniqueIndex(builderState.update(buildData, new NullProgressMonitor()),
+					new Function<Delta, URI>() {
+						@Override
+						public URI apply(Delta from) {
+							return from.getUri();
+						}
+					});
+		} finally {
+			resourceSet.getResources().clear();
+		}
+	}
+
+}
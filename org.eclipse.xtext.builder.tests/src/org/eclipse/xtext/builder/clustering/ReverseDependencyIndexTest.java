@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.builder.builderState.BuilderStateFactory;
+import org.eclipse.xtext.builder.builderState.impl.EObjectDescriptionImpl;
+import org.eclipse.xtext.builder.builderState.impl.ReferenceDescriptionImpl;
+import org.eclipse.xtext.builder.builderState.impl.ResourceDescriptionImpl;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class ReverseDependencyIndexTest {
+
+	private URI a = URI.createURI("platform:/resource/p/a.ext");
+	private URI b = URI.createURI("platform:/resource/p/b.ext");
+	private URI c = URI.createURI("platform:/resource/p/c.ext");
+	private Set<URI> all = Sets.newHashSet(a, b, c);
+
+	@Test public void testImportedName() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.add(description(a, "x"));
+		index.add(importing(b, "X"));
+		index.add(importing(c, "y"));
+		Set<URI> candidates = index.getCandidates(Collections.singleton(changed(a, "x")), all);
+		assertEquals(Collections.singleton(b), candidates);
+	}
+
+	@Test public void testReferencedResource() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.add(description(a, "x"));
+		ResourceDescriptionImpl referencing = description(b);
+		ReferenceDescriptionImpl reference = (ReferenceDescriptionImpl) BuilderStateFactory.eINSTANCE.createReferenceDescription();
+		reference.setTargetEObjectUri(a.appendFragment("/0"));
+		referencing.getReferenceDescriptions().add(reference);
+		index.add(referencing);
+		Set<URI> candidates = index.getCandidates(Collections.singleton(changed(a)), all);
+		assertEquals(Collections.singleton(b), candidates);
+	}
+
+	@Test public void testRemainingOnly() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.add(importing(b, "x"));
+		Set<URI> candidates = index.getCandidates(Collections.singleton(changed(a, "x")), Collections.singleton(c));
+		assertTrue(candidates.isEmpty());
+	}
+
+	@Test public void testUnindexedAlwaysCandidate() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.addUnindexed(c);
+		Set<URI> candidates = index.getCandidates(Collections.<Delta>emptyList(), all);
+		assertEquals(Collections.singleton(c), candidates);
+	}
+
+	@Test public void testRemove() {
+		ReverseDependencyIndex index = new ReverseDependencyIndex();
+		index.add(importing(b, "x"));
+		index.remove(b);
+		assertTrue(index.getCandidates(Collections.singleton(changed(a, "x")), all).isEmpty());
+		index.add(importing(b, "x"));
+		index.add(importing(b, "y"));
+		assertTrue(index.getCandidates(Collections.singleton(changed(a, "x")), all).isEmpty());
+		assertEquals(Collections.singleton(b), index.getCandidates(Collections.singleton(changed(a, "y")), all));
+	}
+
+	private Delta changed(URI uri, String... names) {
+		return new DefaultResourceDescriptionDelta(description(uri), description(uri, names));
+	}
+
+	private ResourceDescriptionImpl importing(URI uri, String name) {
+		ResourceDescriptionImpl result = description(uri);
+		result.getImportedNames().add(QualifiedName.create(name));
+		return result;
+	}
+
+	private ResourceDescriptionImpl description(URI uri, String... names) {
+		ResourceDescriptionImpl result = (ResourceDescriptionImpl) BuilderStateFactory.eINSTANCE.createResourceDescription();
+		result.setURI(uri);
+		for (String name : names) {
+			EObjectDescriptionImpl exported = (EObjectDescriptionImpl) BuilderStateFactory.eINSTANCE.createEObjectDescription();
+			exported.setName(QualifiedName.create(name));
+			exported.setFragment("/" + result.getExportedObjects().size());
+			result.getExportedObjects().add(exported);
+		}
+		return result;
+	}
+
+}
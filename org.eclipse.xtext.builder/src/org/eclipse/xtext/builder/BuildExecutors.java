@@ -7,35 +7,126 @@
  *******************************************************************************/
 package org.eclipse.xtext.builder;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
+import org.eclipse.xtext.builder.internal.Activator;
+import org.eclipse.xtext.builder.preferences.BuilderPreferenceAccess;
 
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Singleton;
 
 /**
- * Provides access to an executor service that can be used for parallel building.
+ * Provides access to an executor service that can be used for parallel building. It is backed by a work stealing
+ * {@link ForkJoinPool} whose parallelism is configured by the {@link BuilderPreferenceAccess#PREF_BUILD_THREADS}
+ * preference of the builder bundle.
+ * 
+ * The instance that is bound in the shared injector is used by all languages, see
+ * <code>SharedStateModule.provideBuildExecutors()</code>, and is shut down when the shared bundle stops. Tasks that
+ * wait for other threads should do so in {@link ForkJoinPool#managedBlock(java.util.concurrent.ForkJoinPool.ManagedBlocker)
+ * ForkJoinPool.managedBlock}, such that the pool can compensate for the blocked worker.
  * 
  * @author Sebastian Zarnekow - Initial contribution and API
  * @since 2.9
- * 
- * TODO this should be shared accross all languages
  */
 @Singleton
 public class BuildExecutors {
 
-	// TODO shutdown on workspace shutdown
-	private final ListeningExecutorService sharedService;
+	private final static Logger log = Logger.getLogger(BuildExecutors.class);
+
+	private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
 
-	public BuildExecutors() {
-		int nProcessors = Runtime.getRuntime().availableProcessors();
-		int nThreads = Math.max(2, Math.min(4, nProcessors));
-		sharedService = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(nThreads, new ThreadFactoryBuilder().setNameFormat("ParallelGenerator-%d").build()));
+	private ForkJoinPool pool;
+
+	private ListeningExecutorService sharedService;
+
+	private boolean shutdown;
+
+	/**
+	 * The pool is created when it is first used, such that a shutdown of an unused instance does not start threads.
+	 */
+	private synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(getParallelism(), new ForkJoinWorkerThreadFactory() {
+				@Override
+				public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+					ForkJoinWorkerThread result = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+					result.setName("ParallelGenerator-" + result.getPoolIndex());
+					return result;
+				}
+			}, null, false);
+			if (shutdown) {
+				pool.shutdown();
+			}
+			sharedService = MoreExecutors.listeningDecorator(pool);
+		}
+		return pool;
 	}
-	
-	public ListeningExecutorService getExecutor() {
+
+	/**
+	 * @return the configured number of threads or, if it is not configured, the number of available processors.
+	 * @since 2.13
+	 */
+	protected int getParallelism() {
+		int configured = 0;
+		try {
+			IPreferencesService preferences = Platform.getPreferencesService();
+			if (preferences != null) {
+				configured = preferences.getInt(Activator.PLUGIN_ID, BuilderPreferenceAccess.PREF_BUILD_THREADS, 0, null);
+			}
+		} catch (RuntimeException e) {
+			// not running in an OSGi environment
+			log.debug(e.getMessage(), e);
+		}
+		if (configured > 0) {
+			return configured;
+		}
+		return Math.max(2, Runtime.getRuntime().availableProcessors());
+	}
+
+	public synchronized ListeningExecutorService getExecutor() {
+		getPool();
 		return sharedService;
 	}
-	
+
+	/**
+	 * @return the number of tasks that the executor runs at the same time.
+	 * @since 2.13
+	 */
+	public int getThreadCount() {
+		return getPool().getParallelism();
+	}
+
+	/**
+	 * Stops accepting new tasks and waits a short time for running tasks to complete. Does nothing if the executor was
+	 * never used.
+	 * 
+	 * @since 2.13
+	 */
+	public void shutdown() {
+		ForkJoinPool pool;
+		synchronized (this) {
+			shutdown = true;
+			pool = this.pool;
+		}
+		if (pool == null) {
+			return;
+		}
+		pool.shutdown();
+		try {
+			if (!pool.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				pool.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			pool.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
 }
@@ -26,6 +26,7 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IStorage;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
@@ -102,6 +103,12 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 	@Inject
 	private IShouldGenerate shouldGenerate;
 
+	@Inject
+	private DerivedResourcesIndex derivedResourcesIndex;
+
+	@Inject
+	private GeneratedContentHashes contentHashes;
+
 	private EclipseOutputConfigurationProvider outputConfigurationProvider;
 	private BuilderPreferenceAccess builderPreferenceAccess;
 	
@@ -180,6 +187,43 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 	 */
 	protected Map<OutputConfiguration, Iterable<IMarker>> getGeneratorMarkers(IProject builtProject,
 			Collection<OutputConfiguration> outputConfigurations) throws CoreException {
+		return buildGeneratorMarkersReverseLookupMap(findGeneratorMarkers(builtProject, outputConfigurations));
+	}
+
+	/**
+	 * Returns a lookup map that is backed by the {@link DerivedResourcesIndex}. The derived resource markers are only
+	 * {@link #getGeneratorMarkers(IProject, Collection) scanned} if the index does not know the project yet.
+	 * 
+	 * @since 2.13
+	 */
+	protected Map<OutputConfiguration, Iterable<IMarker>> getIndexedGeneratorMarkers(IProject builtProject,
+			Collection<OutputConfiguration> outputConfigurations) throws CoreException {
+		String generator = generatorIdProvider.getGeneratorIdentifier();
+		if (!derivedResourcesIndex.isInitialized(builtProject, generator)) {
+			Map<OutputConfiguration, Iterable<IMarker>> lookupMap = getGeneratorMarkers(builtProject, outputConfigurations);
+			if (!(lookupMap instanceof DerivedResourcesLookupMap)) {
+				return lookupMap;
+			}
+			derivedResourcesIndex.initialize(builtProject, generator, ((DerivedResourcesLookupMap) lookupMap).getReverseLookupMap());
+		}
+		List<IPath> cleanedOutputs = Lists.newArrayList();
+		for (OutputConfiguration config : outputConfigurations) {
+			if (config.isCleanUpDerivedResources()) {
+				for (IContainer container : getOutputs(builtProject, config)) {
+					cleanedOutputs.add(container.getFullPath());
+				}
+			}
+		}
+		return new DerivedResourcesIndex.LookupMap(derivedResourcesIndex, builtProject, generator, cleanedOutputs);
+	}
+
+	/**
+	 * Scans the output folders for the derived resource markers of this generator.
+	 * 
+	 * @since 2.13
+	 */
+	protected Map<OutputConfiguration, Iterable<IMarker>> findGeneratorMarkers(IProject builtProject,
+			Collection<OutputConfiguration> outputConfigurations) throws CoreException {
 		Map<OutputConfiguration, Iterable<IMarker>> generatorMarkers = newHashMap();
 		for (OutputConfiguration config : outputConfigurations) {
 			if (config.isCleanUpDerivedResources()) {
@@ -193,7 +237,7 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 				generatorMarkers.put(config, markers);
 			}
 		}
-		return buildGeneratorMarkersReverseLookupMap(generatorMarkers);
+		return generatorMarkers;
 	}
 
 	/**
@@ -249,10 +293,11 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 				for (OutputConfiguration config : outputConfigurations.values()) {
 					cleanOutput(context, config, access, cleanMonitor.newChild(1));
 				}
+				derivedResourcesIndex.clear(builtProject, generatorIdProvider.getGeneratorIdentifier());
 				if (context.getBuildType() == BuildType.CLEAN)
 					return;
 			}
-			Map<OutputConfiguration, Iterable<IMarker>> generatorMarkers = getGeneratorMarkers(builtProject, outputConfigurations.values());
+			Map<OutputConfiguration, Iterable<IMarker>> generatorMarkers = getIndexedGeneratorMarkers(builtProject, outputConfigurations.values());
 			if (subMonitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
@@ -368,6 +413,7 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 			IMarker marker = derivedResourceMarkers.findDerivedResourceMarker(iFile, uri);
 			if (marker != null)
 				marker.delete();
+			derivedResourcesIndex.remove(context.getBuiltProject(), generatorIdProvider.getGeneratorIdentifier(), uri, iFile);
 			if (derivedResourceMarkers.findDerivedResourceMarkers(iFile).length == 0) {
 				access.deleteFile(iFile, deleteMonitor);
 				context.needRebuild();
@@ -386,6 +432,7 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 			@Override
 			public boolean beforeFileDeletion(IFile file) {
 				derivedResources.remove(file);
+				derivedResourcesIndex.removeFile(context.getBuiltProject(), generatorIdProvider.getGeneratorIdentifier(), file);
 				context.needRebuild();
 				return true;
 			}
@@ -404,6 +451,7 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 				try {
 					derivedResources.remove(file);
 					derivedResourceMarkers.installMarker(file, uri);
+					derivedResourcesIndex.add(context.getBuiltProject(), generatorIdProvider.getGeneratorIdentifier(), uri, file);
 					context.needRebuild();
 				} catch (CoreException e) {
 					throw new RuntimeException(e);
@@ -494,6 +542,7 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 						} else {
 							delete(resource, config, access, monitor);
 						}
+						contentHashes.remove(resource);
 					} catch (ResourceException e) {
 						logger.warn("Couldn't delete "+resource.getLocation()+". "+e.getMessage());
 					}
@@ -509,6 +558,7 @@ public class BuilderParticipant implements IXtextBuilderParticipant {
 							access.deleteFile(iFile, config.getName(), monitor);
 						} else {
 							iFile.delete(true, config.isKeepLocalHistory(), monitor);
+							contentHashes.remove(iFile);
 						}
 					} catch (ResourceException e) {
 						logger.warn("Couldn't delete "+iFile.getLocation()+". "+e.getMessage());
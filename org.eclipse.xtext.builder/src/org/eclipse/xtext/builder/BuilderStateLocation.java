@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder;
+
+import java.io.File;
+
+import org.eclipse.xtext.builder.internal.Activator;
+
+/**
+ * Locates the files in which the builder keeps state between sessions, e.g. the {@link GeneratedContentHashes}. By
+ * default they live in the state location of the builder bundle. Bind {@link Transient} to keep the state in memory.
+ *
+ * @since 2.13
+ */
+public class BuilderStateLocation {
+
+	/**
+	 * @return whether the state is loaded and saved when the workspace is saved.
+	 */
+	public boolean isPersisted() {
+		return Activator.getDefault() != null;
+	}
+
+	/**
+	 * @return the file with the given name or <code>null</code> if the state is not persisted.
+	 */
+	public File getFile(String fileName) {
+		Activator activator = Activator.getDefault();
+		if (activator == null)
+			return null;
+		return activator.getStateLocation().append(fileName).toFile();
+	}
+
+	/**
+	 * Neither loads nor saves the state. Instances that use it do not register a save participant, so they do not
+	 * replace the one of the shared instance.
+	 */
+	public static class Transient extends BuilderStateLocation {
+
+		@Override
+		public boolean isPersisted() {
+			return false;
+		}
+
+		@Override
+		public File getFile(String fileName) {
+			return null;
+		}
+	}
+
+}
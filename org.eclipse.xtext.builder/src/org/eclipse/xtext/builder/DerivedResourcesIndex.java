@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.xtext.builder.internal.Activator;
+import org.eclipse.xtext.generator.OutputConfiguration;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * An index from source URIs to the files that were generated from them, per project and generator. It mirrors the
+ * {@link DerivedResourceMarkers derived resource markers} and is kept up to date by the {@link BuilderParticipant}
+ * whenever it installs or deletes such a marker, so a build only has to look at the entries of the sources that are
+ * built. The markers of a project are only scanned if the index does not know the project yet.
+ *
+ * The index is saved to the state location of the builder bundle when the workspace is saved. The saved index is
+ * deleted when it is loaded, so the projects are scanned again after a crash. The entries of projects that are
+ * removed, added or renamed are dropped, since they are keyed by the project name. The instance that is bound in the
+ * shared injector is used by all languages.
+ *
+ * @since 2.13
+ */
+@Singleton
+public class DerivedResourcesIndex {
+
+	private final static Logger log = Logger.getLogger(DerivedResourcesIndex.class);
+
+	private static final String FILE_NAME = "derived.index";
+
+	private static final String SAVE_PARTICIPANT_ID = Activator.PLUGIN_ID + ".derivedResourcesIndex";
+
+	private static final int MAGIC = 0x58544449;
+
+	private static final int VERSION = 1;
+
+	protected static class Entry {
+		private final SetMultimap<String, String> filesBySource = HashMultimap.create();
+		private final SetMultimap<String, String> sourcesByFile = HashMultimap.create();
+
+		private void add(String source, String file) {
+			filesBySource.put(source, file);
+			sourcesByFile.put(file, source);
+		}
+
+		private void remove(String source, String file) {
+			filesBySource.remove(source, file);
+			sourcesByFile.remove(file, source);
+		}
+
+		private void removeFile(String file) {
+			for (String source : sourcesByFile.removeAll(file)) {
+				filesBySource.remove(source, file);
+			}
+		}
+	}
+
+	/**
+	 * A lookup map that answers the derived resources of a source from the index.
+	 */
+	public static class LookupMap extends DerivedResourcesLookupMap {
+
+		private final DerivedResourcesIndex index;
+		private final IProject project;
+		private final String generator;
+		private final List<IPath> cleanedOutputs;
+
+		/**
+		 * @param cleanedOutputs
+		 *            the paths of the output folders whose derived resources are cleaned up.
+		 */
+		public LookupMap(DerivedResourcesIndex index, IProject project, String generator, List<IPath> cleanedOutputs) {
+			super(Collections.<OutputConfiguration, Iterable<IMarker>> emptyMap(), ImmutableSetMultimap.<String, IFile> of());
+			this.index = index;
+			this.project = project;
+			this.generator = generator;
+			this.cleanedOutputs = cleanedOutputs;
+		}
+
+		@Override
+		public Set<IFile> getDerivedResources(String uri) {
+			Set<IFile> result = index.getDerivedResources(project, generator, uri);
+			for (Iterator<IFile> i = result.iterator(); i.hasNext();) {
+				if (!isCleanedOutput(i.next().getFullPath())) {
+					i.remove();
+				}
+			}
+			return result;
+		}
+
+		private boolean isCleanedOutput(IPath path) {
+			for (IPath output : cleanedOutputs) {
+				if (output.isPrefixOf(path)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	@Inject(optional = true)
+	private IWorkspace workspace;
+
+	@Inject
+	private BuilderStateLocation stateLocation;
+
+	private Map<String, Entry> entries;
+
+	private final IResourceChangeListener projectListener = new IResourceChangeListener() {
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if (delta == null)
+				return;
+			// a renamed project is removed under its old name and added under its new one
+			for (IResourceDelta projectDelta : delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED)) {
+				clear(projectDelta.getResource().getName());
+			}
+		}
+	};
+
+	public synchronized boolean isInitialized(IProject project, String generator) {
+		return getEntries().containsKey(getKey(project, generator));
+	}
+
+	/**
+	 * Replaces the entries of the given project and generator.
+	 *
+	 * @param derivedResources
+	 *            the derived resources by source URI, usually obtained from the derived resource markers.
+	 */
+	public synchronized void initialize(IProject project, String generator, SetMultimap<String, IFile> derivedResources) {
+		Entry entry = new Entry();
+		for (Map.Entry<String, IFile> derived : derivedResources.entries()) {
+			entry.add(derived.getKey(), derived.getValue().getFullPath().toString());
+		}
+		getEntries().put(getKey(project, generator), entry);
+	}
+
+	/**
+	 * Forgets the given project and generator such that it is initialized again on the next build.
+	 */
+	public synchronized void clear(IProject project, String generator) {
+		getEntries().remove(getKey(project, generator));
+	}
+
+	/**
+	 * Forgets the given project for all generators.
+	 */
+	protected synchronized void clear(String projectName) {
+		if (entries == null)
+			return;
+		String prefix = projectName + '/';
+		for (Iterator<String> i = entries.keySet().iterator(); i.hasNext();) {
+			if (i.next().startsWith(prefix)) {
+				i.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return a modifiable copy of the existing files that were generated from the given source.
+	 */
+	public synchronized Set<IFile> getDerivedResources(IProject project, String generator, String source) {
+		Entry entry = getEntries().get(getKey(project, generator));
+		if (entry == null) {
+			return Sets.newLinkedHashSet();
+		}
+		IWorkspaceRoot root = project.getWorkspace().getRoot();
+		Set<IFile> result = Sets.newLinkedHashSet();
+		for (String path : Lists.newArrayList(entry.filesBySource.get(source))) {
+			IFile file = root.getFile(new Path(path));
+			if (file.exists()) {
+				result.add(file);
+			} else {
+				entry.removeFile(path);
+			}
+		}
+		return result;
+	}
+
+	public synchronized void add(IProject project, String generator, String source, IFile file) {
+		Entry entry = getEntries().get(getKey(project, generator));
+		if (entry != null) {
+			entry.add(source, file.getFullPath().toString());
+		}
+	}
+
+	public synchronized void remove(IProject project, String generator, String source, IFile file) {
+		Entry entry = getEntries().get(getKey(project, generator));
+		if (entry != null) {
+			entry.remove(source, file.getFullPath().toString());
+		}
+	}
+
+	public synchronized void removeFile(IProject project, String generator, IFile file) {
+		Entry entry = getEntries().get(getKey(project, generator));
+		if (entry != null) {
+			entry.removeFile(file.getFullPath().toString());
+		}
+	}
+
+	protected String getKey(IProject project, String generator) {
+		return project.getName() + '/' + generator;
+	}
+
+	protected Map<String, Entry> getEntries() {
+		if (entries == null) {
+			entries = load();
+			addSaveParticipant();
+			addResourceChangeListener();
+		}
+		return entries;
+	}
+
+	protected Map<String, Entry> load() {
+		Map<String, Entry> result = Maps.newHashMap();
+		File file = getFile();
+		if (file == null || !file.exists())
+			return result;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+			try {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+					return result;
+				}
+				int entryCount = in.readInt();
+				for (int i = 0; i < entryCount; i++) {
+					String key = in.readUTF();
+					Entry entry = new Entry();
+					int sourceCount = in.readInt();
+					for (int j = 0; j < sourceCount; j++) {
+						String source = in.readUTF();
+						int fileCount = in.readInt();
+						for (int k = 0; k < fileCount; k++) {
+							entry.add(source, in.readUTF());
+						}
+					}
+					result.put(key, entry);
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			log.warn("Error loading the index of derived resources. The derived resource markers will be scanned instead.", e);
+			result.clear();
+		}
+		// changes after this point are not recorded unless the index is saved again
+		file.delete();
+		return result;
+	}
+
+	public synchronized void save() {
+		File file = getFile();
+		if (entries == null || file == null)
+			return;
+		File temporary = new File(file.getPath() + ".tmp");
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+					out.writeUTF(entry.getKey());
+					Map<String, Collection<String>> filesBySource = entry.getValue().filesBySource.asMap();
+					out.writeInt(filesBySource.size());
+					for (Map.Entry<String, Collection<String>> files : filesBySource.entrySet()) {
+						out.writeUTF(files.getKey());
+						out.writeInt(files.getValue().size());
+						for (String path : files.getValue()) {
+							out.writeUTF(path);
+						}
+					}
+				}
+			} finally {
+				out.close();
+			}
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.error("Error saving the index of derived resources", e);
+			temporary.delete();
+		}
+	}
+
+	/**
+	 * @return the file that holds the index or <code>null</code> if it should not be persisted.
+	 */
+	protected File getFile() {
+		return stateLocation.getFile(FILE_NAME);
+	}
+
+	protected void addResourceChangeListener() {
+		if (workspace != null) {
+			workspace.addResourceChangeListener(projectListener, IResourceChangeEvent.POST_CHANGE);
+		}
+	}
+
+	protected void addSaveParticipant() {
+		if (workspace == null || !stateLocation.isPersisted())
+			return;
+		try {
+			workspace.addSaveParticipant(SAVE_PARTICIPANT_ID, new FullSaveParticipant() {
+				@Override
+				protected void save() {
+					DerivedResourcesIndex.this.save();
+				}
+			});
+		} catch (CoreException e) {
+			log.error("Error adding the save participant for the index of derived resources", e);
+		}
+	}
+
+}
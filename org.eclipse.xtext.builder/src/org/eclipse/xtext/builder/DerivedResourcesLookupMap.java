@@ -39,6 +39,13 @@ public class DerivedResourcesLookupMap extends ForwardingMap<OutputConfiguration
 		
 	}
 
+	/**
+	 * @since 2.13
+	 */
+	public SetMultimap<String, IFile> getReverseLookupMap() {
+		return reverseLookupMap;
+	}
+
 	public Set<IFile> getDerivedResources(String uri) {
 		if (reverseLookupMap.containsKey(uri)) {
 			return reverseLookupMap.get(uri);
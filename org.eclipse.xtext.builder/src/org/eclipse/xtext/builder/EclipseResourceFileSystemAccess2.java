@@ -15,6 +15,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
@@ -50,6 +51,7 @@ import org.eclipse.xtext.util.Strings;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.hash.HashCode;
 import com.google.common.io.ByteStreams;
 import com.google.inject.Inject;
 
@@ -96,6 +98,9 @@ public class EclipseResourceFileSystemAccess2 extends AbstractFileSystemAccess2
 	
 	@Inject
 	private ProjectByResourceProvider projectProvider;
+
+	@Inject
+	private GeneratedContentHashes contentHashes;
 	
 	private Multimap<SourceRelativeURI, IPath> sourceTraces;
 
@@ -249,19 +254,15 @@ public class EclipseResourceFileSystemAccess2 extends AbstractFileSystemAccess2
 		try {
 			if (file.exists()) {
 				if (outputConfig.isOverrideExistingResources()) {
-					if (!content.markSupported()) {
-						// The stream should be read only once
-						byte[] bytes = ByteStreams.toByteArray(content);
-						content = new ByteArrayInputStream(bytes);
-					}
-					if (hasContentsChanged(file, content)) {
-						// Reset to offset zero allows to reuse internal byte[]
-						// no need to convert the string twice
-						content.reset();
-						file.setContents(content, true, outputConfig.isKeepLocalHistory(), monitor);
+					// The stream should be read only once
+					byte[] bytes = ByteStreams.toByteArray(content);
+					HashCode hash = contentHashes.hash(bytes);
+					if (hasContentsChanged(file, bytes, hash)) {
+						file.setContents(new ByteArrayInputStream(bytes), true, outputConfig.isKeepLocalHistory(), monitor);
 					} else {
 						file.touch(monitor);
 					}
+					contentHashes.put(file, bytes, hash);
 					if (file.isDerived() != outputConfig.isSetDerivedProperty()) {
 						setDerived(file, outputConfig.isSetDerivedProperty());
 					}
@@ -272,7 +273,9 @@ public class EclipseResourceFileSystemAccess2 extends AbstractFileSystemAccess2
 				}
 			} else {
 				ensureParentExists(file);
-				file.create(content, true, monitor);
+				byte[] bytes = ByteStreams.toByteArray(content);
+				file.create(new ByteArrayInputStream(bytes), true, monitor);
+				contentHashes.put(file, bytes, contentHashes.hash(bytes));
 				if (outputConfig.isSetDerivedProperty()) {
 					setDerived(file, true);
 				}
@@ -377,21 +380,14 @@ public class EclipseResourceFileSystemAccess2 extends AbstractFileSystemAccess2
 	 * @since 2.4
 	 */
 	protected boolean hasContentsChanged(IFile file, InputStream newContent) {
-		boolean contentChanged = false;
-		BufferedInputStream oldContent = null;
+		InputStream oldContent = null;
 		try {
-			oldContent = new BufferedInputStream(file.getContents());
-			int newByte = newContent.read();
-			int oldByte = oldContent.read();
-			while (newByte != -1 && oldByte != -1 && newByte == oldByte) {
-				newByte = newContent.read();
-				oldByte = oldContent.read();
-			}
-			contentChanged = newByte != oldByte;
+			oldContent = file.getContents();
+			return !Arrays.equals(ByteStreams.toByteArray(oldContent), ByteStreams.toByteArray(newContent));
 		} catch (CoreException e) {
-			contentChanged = true;
+			return true;
 		} catch (IOException e) {
-			contentChanged = true;
+			return true;
 		} finally {
 			if (oldContent != null) {
 				try {
@@ -401,7 +397,20 @@ public class EclipseResourceFileSystemAccess2 extends AbstractFileSystemAccess2
 				}
 			}
 		}
-		return contentChanged;
+	}
+
+	/**
+	 * Uses the recorded hash of the file if it was not modified since it was generated. Otherwise the decision is
+	 * left to {@link #hasContentsChanged(IFile, InputStream)}.
+	 * 
+	 * @since 2.13
+	 */
+	protected boolean hasContentsChanged(IFile file, byte[] newContent, HashCode newHash) {
+		Boolean changed = contentHashes.hasChanged(file, newContent, newHash);
+		if (changed != null) {
+			return changed;
+		}
+		return hasContentsChanged(file, new ByteArrayInputStream(newContent));
 	}
 
 	/**
@@ -565,6 +574,7 @@ public class EclipseResourceFileSystemAccess2 extends AbstractFileSystemAccess2
 		if ((callBack == null || callBack.beforeFileDeletion(file)) && file.exists() && !isTraceFile(file)) {
 			IFile traceFile = getTraceFile(file);
 			file.delete(true, outputConfig.isKeepLocalHistory(), monitor);
+			contentHashes.remove(file);
 			if (traceFile != null && traceFile.exists()) {
 				traceFile.delete(IResource.FORCE, monitor);
 			}
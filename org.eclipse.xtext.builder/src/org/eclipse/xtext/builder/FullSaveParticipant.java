@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder;
+
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+
+/**
+ * A save participant that saves some state of the builder when the whole workspace is saved and ignores snapshots and
+ * project saves.
+ *
+ * @since 2.13
+ */
+public abstract class FullSaveParticipant implements ISaveParticipant {
+
+	@Override
+	public void prepareToSave(ISaveContext context) {
+	}
+
+	@Override
+	public void saving(ISaveContext context) {
+		if (context.getKind() == ISaveContext.FULL_SAVE)
+			save();
+	}
+
+	@Override
+	public void doneSaving(ISaveContext context) {
+	}
+
+	@Override
+	public void rollback(ISaveContext context) {
+	}
+
+	protected abstract void save();
+
+}
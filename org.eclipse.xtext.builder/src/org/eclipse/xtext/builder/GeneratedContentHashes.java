@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.xtext.builder.internal.Activator;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Remembers a hash of the contents of generated files, keyed by the full path and the modification stamp of the file.
+ * As long as a file was not modified since it was generated, the {@link EclipseResourceFileSystemAccess2} can decide
+ * whether newly generated contents differ from the file without reading it.
+ *
+ * The table is saved to the state location of the builder bundle when the workspace is saved. The hashes of removed and
+ * closed projects are dropped. The instance that is bound in the shared injector is used by all languages.
+ *
+ * @since 2.13
+ */
+@Singleton
+public class GeneratedContentHashes {
+
+	private final static Logger log = Logger.getLogger(GeneratedContentHashes.class);
+
+	private static final String FILE_NAME = "generated.hashes";
+
+	private static final String SAVE_PARTICIPANT_ID = Activator.PLUGIN_ID + ".generatedContentHashes";
+
+	private static final int MAGIC = 0x58544748;
+
+	private static final int VERSION = 1;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	protected static class Entry {
+		private final long modificationStamp;
+		private final int length;
+		private final HashCode hash;
+
+		protected Entry(long modificationStamp, int length, HashCode hash) {
+			this.modificationStamp = modificationStamp;
+			this.length = length;
+			this.hash = hash;
+		}
+	}
+
+	@Inject(optional = true)
+	private IWorkspace workspace;
+
+	@Inject
+	private BuilderStateLocation stateLocation;
+
+	private volatile Map<String, Entry> entries;
+
+	private final IResourceChangeListener projectListener = new IResourceChangeListener() {
+		@Override
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if (delta == null)
+				return;
+			for (IResourceDelta projectDelta : delta.getAffectedChildren(IResourceDelta.REMOVED | IResourceDelta.CHANGED)) {
+				IProject project = (IProject) projectDelta.getResource();
+				if (projectDelta.getKind() == IResourceDelta.REMOVED
+						|| (projectDelta.getFlags() & IResourceDelta.OPEN) != 0 && !project.isOpen()) {
+					remove(project);
+				}
+			}
+		}
+	};
+
+	public HashCode hash(byte[] contents) {
+		return HASH_FUNCTION.hashBytes(contents);
+	}
+
+	/**
+	 * @return {@link Boolean#FALSE} if the file was not modified since it was generated with the same contents,
+	 *         {@link Boolean#TRUE} if the contents differ and <code>null</code> if this is not known.
+	 */
+	public Boolean hasChanged(IFile file, byte[] newContents, HashCode newHash) {
+		Entry entry = getEntries().get(getKey(file));
+		if (entry == null || entry.modificationStamp != file.getModificationStamp()) {
+			return null;
+		}
+		return entry.length != newContents.length || !entry.hash.equals(newHash);
+	}
+
+	/**
+	 * Records the hash of the current contents of the given file. Has to be called after the file was written.
+	 */
+	public void put(IFile file, byte[] contents, HashCode hash) {
+		getEntries().put(getKey(file), new Entry(file.getModificationStamp(), contents.length, hash));
+	}
+
+	/**
+	 * Forgets the hash of the given file or the hashes of all files within the given container.
+	 */
+	public void remove(IResource resource) {
+		if (resource instanceof IFile) {
+			getEntries().remove(getKey((IFile) resource));
+		} else if (resource instanceof IContainer) {
+			String prefix = resource.getFullPath().addTrailingSeparator().toString();
+			Iterator<String> keys = getEntries().keySet().iterator();
+			while (keys.hasNext()) {
+				if (keys.next().startsWith(prefix)) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	protected String getKey(IFile file) {
+		return file.getFullPath().toString();
+	}
+
+	protected Map<String, Entry> getEntries() {
+		Map<String, Entry> result = entries;
+		if (result == null) {
+			synchronized (this) {
+				result = entries;
+				if (result == null) {
+					result = load();
+					addSaveParticipant();
+					addResourceChangeListener();
+					entries = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	protected Map<String, Entry> load() {
+		Map<String, Entry> result = new ConcurrentHashMap<String, Entry>();
+		File file = getFile();
+		if (file == null || !file.exists())
+			return result;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+			try {
+				if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+					return result;
+				}
+				int count = in.readInt();
+				byte[] hash = new byte[HASH_FUNCTION.bits() / 8];
+				for (int i = 0; i < count; i++) {
+					String path = in.readUTF();
+					long modificationStamp = in.readLong();
+					int length = in.readInt();
+					in.readFully(hash);
+					result.put(path, new Entry(modificationStamp, length, HashCode.fromBytes(hash)));
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			log.warn("Error loading the hashes of generated files. The files will be compared with the generated contents.", e);
+			result.clear();
+		}
+		return result;
+	}
+
+	public void save() {
+		Map<String, Entry> toBeSaved = entries;
+		File file = getFile();
+		if (toBeSaved == null || file == null)
+			return;
+		File temporary = new File(file.getPath() + ".tmp");
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				// the map may change concurrently
+				Map<String, Entry> snapshot = new HashMap<String, Entry>(toBeSaved);
+				out.writeInt(snapshot.size());
+				for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeLong(entry.getValue().modificationStamp);
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue().hash.asBytes());
+				}
+			} finally {
+				out.close();
+			}
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.error("Error saving the hashes of generated files", e);
+			temporary.delete();
+		}
+	}
+
+	/**
+	 * @return the file that holds the table or <code>null</code> if it should not be persisted.
+	 */
+	protected File getFile() {
+		return stateLocation.getFile(FILE_NAME);
+	}
+
+	protected void addResourceChangeListener() {
+		if (workspace != null) {
+			workspace.addResourceChangeListener(projectListener, IResourceChangeEvent.POST_CHANGE);
+		}
+	}
+
+	protected void addSaveParticipant() {
+		if (workspace == null || !stateLocation.isPersisted())
+			return;
+		try {
+			workspace.addSaveParticipant(SAVE_PARTICIPANT_ID, new FullSaveParticipant() {
+				@Override
+				protected void save() {
+					GeneratedContentHashes.this.save();
+				}
+			});
+		} catch (CoreException e) {
+			log.error("Error adding the save participant for the hashes of generated files", e);
+		}
+	}
+
+}
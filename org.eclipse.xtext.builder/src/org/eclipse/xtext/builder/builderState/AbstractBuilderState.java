@@ -11,6 +11,7 @@ import static com.google.common.collect.Sets.*;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -28,10 +29,12 @@ import org.eclipse.xtext.resource.impl.AbstractResourceDescriptionChangeEventSou
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionChangeEvent;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.ui.editor.findrefs.IReferencingResourcesIndex;
 import org.eclipse.xtext.ui.resource.IStorage2UriMapper;
 import org.eclipse.xtext.ui.resource.IStorage2UriMapperExtension;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
 /**
@@ -39,11 +42,25 @@ import com.google.inject.Inject;
  * @author Knut Wannheden
  */
 public abstract class AbstractBuilderState extends AbstractResourceDescriptionChangeEventSource implements
-		IBuilderState {
+		IBuilderState, IReferencingResourcesIndex {
 
 	private volatile ResourceDescriptionsData resourceDescriptionData = new ResourceDescriptionsData(
 			Collections.<IResourceDescription> emptyList());
 
+	/**
+	 * Published together with the resource descriptions data under the {@link #referencingResourcesLock}.
+	 */
+	private volatile ExportedObjectsIndex exportedObjectsIndex = new ExportedObjectsIndex(
+			Collections.<IResourceDescription> emptyList());
+
+	/**
+	 * Built on first use, since the reference descriptions of persisted resources may be decoded lazily. Guarded by
+	 * {@link #referencingResourcesLock} together with the published resource descriptions data.
+	 */
+	private volatile ReferencingResourcesIndex referencingResourcesIndex;
+
+	private final Object referencingResourcesLock = new Object();
+
 	@Inject
 	private IMarkerUpdater markerUpdater;
 
@@ -57,7 +74,7 @@ public abstract class AbstractBuilderState extends AbstractResourceDescriptionCh
 
 	public synchronized void load() {
 		if (!isLoaded) {
-			resourceDescriptionData = new ResourceDescriptionsData(persister.load());
+			setResourceDescriptionsData(new ResourceDescriptionsData(persister.load()));
 			if(storage2UriMapper instanceof IStorage2UriMapperExtension)
 				((IStorage2UriMapperExtension) storage2UriMapper).initializeCache();
 			isLoaded = true;
@@ -74,8 +91,31 @@ public abstract class AbstractBuilderState extends AbstractResourceDescriptionCh
 		return uris != null ? uris : Collections.<URI> emptySet();
 	}
 
+	/**
+	 * Publishes the given data. The exported objects index is rebuilt from it and the referencing resources index is
+	 * rebuilt on its next use.
+	 */
 	protected void setResourceDescriptionsData(ResourceDescriptionsData newData) {
-		resourceDescriptionData = newData;
+		ExportedObjectsIndex newIndex = new ExportedObjectsIndex(newData.getAllResourceDescriptions());
+		synchronized (referencingResourcesLock) {
+			referencingResourcesIndex = null;
+			resourceDescriptionData = newData;
+			exportedObjectsIndex = newIndex;
+		}
+	}
+
+	/**
+	 * Publishes the new data of an update or clean together with the indexes, which are updated incrementally from
+	 * the deltas instead of being rebuilt.
+	 */
+	private void publishResourceDescriptionsData(Collection<IResourceDescription.Delta> deltas,
+			ResourceDescriptionsData newData) {
+		ExportedObjectsIndex newIndex = updateExportedObjectsIndex(deltas, newData);
+		synchronized (referencingResourcesLock) {
+			updateReferencingResourcesIndex(deltas, newData);
+			resourceDescriptionData = newData;
+			exportedObjectsIndex = newIndex;
+		}
 	}
 
 	protected void updateMarkers(IResourceDescription.Delta delta, ResourceSet resourceSet, IProgressMonitor monitor) throws OperationCanceledException {
@@ -119,7 +159,7 @@ public abstract class AbstractBuilderState extends AbstractResourceDescriptionCh
 			throw new OperationCanceledException();
 		final ResourceDescriptionChangeEvent event = new ResourceDescriptionChangeEvent(result);
 		// update the reference
-		setResourceDescriptionsData(newData);
+		publishResourceDescriptionsData(event.getDeltas(), newData);
 		notifyListeners(event);
 		return event.getDeltas();
 	}
@@ -163,11 +203,63 @@ public abstract class AbstractBuilderState extends AbstractResourceDescriptionCh
 				subMonitor.worked(1);
 		}
 		// update the reference
-		setResourceDescriptionsData(newData);
+		publishResourceDescriptionsData(event.getDeltas(), newData);
 		notifyListeners(event);
 		return event.getDeltas();
 	}
 
+	/**
+	 * Applies the given deltas to the exported objects index. The new descriptions are taken from the new data, such
+	 * that the index reflects it even if a delta does not carry the registered description.
+	 * 
+	 * @return the updated index, which is published together with the new data.
+	 * @since 2.13
+	 */
+	protected ExportedObjectsIndex updateExportedObjectsIndex(Collection<IResourceDescription.Delta> deltas, ResourceDescriptionsData newData) {
+		if (deltas.isEmpty())
+			return exportedObjectsIndex;
+		Map<URI, IResourceDescription> newDescriptions = Maps.newLinkedHashMap();
+		for (IResourceDescription.Delta delta : deltas) {
+			newDescriptions.put(delta.getUri(), newData.getResourceDescription(delta.getUri()));
+		}
+		return exportedObjectsIndex.update(newDescriptions);
+	}
+
+	/**
+	 * Applies the given deltas to the referencing resources index if it has already been built.
+	 * 
+	 * @since 2.13
+	 */
+	protected void updateReferencingResourcesIndex(Collection<IResourceDescription.Delta> deltas, ResourceDescriptionsData newData) {
+		ReferencingResourcesIndex index = referencingResourcesIndex;
+		if (index == null || deltas.isEmpty())
+			return;
+		Map<URI, IResourceDescription> newDescriptions = Maps.newLinkedHashMap();
+		for (IResourceDescription.Delta delta : deltas) {
+			newDescriptions.put(delta.getUri(), newData.getResourceDescription(delta.getUri()));
+		}
+		referencingResourcesIndex = index.update(newDescriptions);
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	@Override
+	public Set<URI> getReferencingResources(Collection<URI> targetResourceURIs) {
+		ensureLoaded();
+		ReferencingResourcesIndex index = referencingResourcesIndex;
+		if (index == null) {
+			synchronized (referencingResourcesLock) {
+				index = referencingResourcesIndex;
+				if (index == null) {
+					index = new ReferencingResourcesIndex(resourceDescriptionData.getAllResourceDescriptions());
+					referencingResourcesIndex = index;
+				}
+			}
+		}
+		return index.getReferencingResources(targetResourceURIs);
+	}
+
 	protected Collection<IResourceDescription.Delta> doClean(Set<URI> toBeRemoved, IProgressMonitor monitor) throws OperationCanceledException {
 		SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.AbstractBuilderState_2, toBeRemoved.size() / MONITOR_CHUNK_SIZE_CLEAN + 1);
 		subMonitor.subTask(Messages.AbstractBuilderState_2);
@@ -197,13 +289,13 @@ public abstract class AbstractBuilderState extends AbstractResourceDescriptionCh
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjects(EClass type, QualifiedName name, boolean ignoreCase) {
 		ensureLoaded();
-		return resourceDescriptionData.getExportedObjects(type, name, ignoreCase);
+		return exportedObjectsIndex.getExportedObjects(type, name, ignoreCase);
 	}
 
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjectsByType(EClass type) {
 		ensureLoaded();
-		return resourceDescriptionData.getExportedObjectsByType(type);
+		return exportedObjectsIndex.getExportedObjectsByType(type);
 	}
 
 	@Override
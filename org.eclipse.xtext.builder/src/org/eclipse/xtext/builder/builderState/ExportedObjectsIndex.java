@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Secondary indexes over the exported objects of the {@link IBuilderState}. Exported objects are stored in a table and
+ * referenced by their position from postings that are keyed by their qualified name, their lower case qualified name
+ * and their {@link EClass} and all its super types.
+ *
+ * An index is immutable. An {@link #update(Map) update} returns a new index that shares the postings of all resources
+ * with this one and only indexes the changed resources in a small overlay, which hides the objects of these resources
+ * in the shared postings. Once the overlay has grown large, the postings are built again.
+ *
+ * @since 2.13
+ */
+public class ExportedObjectsIndex {
+
+	private static final Interner<QualifiedName> NAMES = Interners.newWeakInterner();
+
+	/** the overlay is never merged before it has this many objects */
+	private static final int MIN_OVERLAY_SIZE = 1024;
+
+	private static class Postings {
+		private final IEObjectDescription[] objects;
+		private final URI[] resources;
+		private final Map<QualifiedName, int[]> byName = Maps.newHashMap();
+		private final Map<QualifiedName, int[]> byLowerCaseName = Maps.newHashMap();
+		private final Map<EClass, int[]> byType = Maps.newHashMap();
+
+		private Postings(List<IEObjectDescription> objects, List<URI> resources) {
+			this.objects = objects.toArray(new IEObjectDescription[objects.size()]);
+			this.resources = resources.toArray(new URI[resources.size()]);
+			for (int id = 0; id < this.objects.length; id++) {
+				IEObjectDescription object = this.objects[id];
+				QualifiedName name = NAMES.intern(object.getName());
+				add(byName, name, id);
+				add(byLowerCaseName, NAMES.intern(name.toLowerCase()), id);
+				EClass type = object.getEClass();
+				if (type != null) {
+					add(byType, type, id);
+					for (EClass superType : type.getEAllSuperTypes()) {
+						add(byType, superType, id);
+					}
+				}
+			}
+			trim(byName);
+			trim(byLowerCaseName);
+			trim(byType);
+		}
+
+		/**
+		 * Postings are filled while they are built, the first element holds the number of ids.
+		 */
+		private static <K> void add(Map<K, int[]> map, K key, int id) {
+			int[] ids = map.get(key);
+			if (ids == null || ids[0] + 1 == ids.length) {
+				ids = ids == null ? new int[2] : Arrays.copyOf(ids, ids.length * 2);
+				map.put(key, ids);
+			}
+			ids[++ids[0]] = id;
+		}
+
+		private static <K> void trim(Map<K, int[]> map) {
+			for (Map.Entry<K, int[]> entry : map.entrySet()) {
+				int[] ids = entry.getValue();
+				entry.setValue(Arrays.copyOfRange(ids, 1, ids[0] + 1));
+			}
+		}
+	}
+
+	/** the postings of all resources, hidden for the resources in {@link #changed} */
+	private final Postings base;
+
+	/** the new descriptions of the resources that changed since the base postings were built by URI */
+	private final Map<URI, IResourceDescription> changed;
+
+	/** the postings of the changed resources */
+	private final Postings overlay;
+
+	public ExportedObjectsIndex(Iterable<IResourceDescription> descriptions) {
+		List<IEObjectDescription> objects = Lists.newArrayList();
+		List<URI> resources = Lists.newArrayList();
+		for (IResourceDescription description : descriptions) {
+			addObjects(description, objects, resources);
+		}
+		this.base = new Postings(objects, resources);
+		this.changed = Collections.emptyMap();
+		this.overlay = new Postings(Collections.<IEObjectDescription> emptyList(), Collections.<URI> emptyList());
+	}
+
+	private ExportedObjectsIndex(Postings base, Map<URI, IResourceDescription> changed, Postings overlay) {
+		this.base = base;
+		this.changed = changed;
+		this.overlay = overlay;
+	}
+
+	private static void addObjects(IResourceDescription description, List<IEObjectDescription> objects, List<URI> resources) {
+		URI uri = description.getURI();
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			objects.add(object);
+			resources.add(uri);
+		}
+	}
+
+	/**
+	 * Replaces the exported objects of the given resources. The cost depends on the number of changed objects, unless
+	 * the postings of all resources are built again.
+	 *
+	 * @param newDescriptions
+	 *            the new descriptions by URI, a <code>null</code> value removes the resource from the index.
+	 * @return the updated index. This index is not changed.
+	 */
+	public ExportedObjectsIndex update(Map<URI, IResourceDescription> newDescriptions) {
+		if (newDescriptions.isEmpty())
+			return this;
+		Map<URI, IResourceDescription> newChanged = Maps.newHashMap(changed);
+		newChanged.putAll(newDescriptions);
+		List<IEObjectDescription> objects = Lists.newArrayList();
+		List<URI> resources = Lists.newArrayList();
+		for (IResourceDescription description : newChanged.values()) {
+			if (description != null) {
+				addObjects(description, objects, resources);
+			}
+		}
+		int maxOverlaySize = Math.max(MIN_OVERLAY_SIZE, 16 * (int) Math.sqrt(base.objects.length));
+		if (objects.size() + newChanged.size() <= maxOverlaySize) {
+			return new ExportedObjectsIndex(base, newChanged, new Postings(objects, resources));
+		}
+		// merge the overlay into new base postings
+		for (int id = 0; id < base.objects.length; id++) {
+			if (!newChanged.containsKey(base.resources[id])) {
+				objects.add(base.objects[id]);
+				resources.add(base.resources[id]);
+			}
+		}
+		return new ExportedObjectsIndex(new Postings(objects, resources), Collections.<URI, IResourceDescription> emptyMap(),
+				new Postings(Collections.<IEObjectDescription> emptyList(), Collections.<URI> emptyList()));
+	}
+
+	public Iterable<IEObjectDescription> getExportedObjects(EClass type, QualifiedName name, boolean ignoreCase) {
+		List<IEObjectDescription> result = Lists.newArrayList();
+		collect(base, ignoreCase ? base.byLowerCaseName.get(name.toLowerCase()) : base.byName.get(name), type, true, result);
+		collect(overlay, ignoreCase ? overlay.byLowerCaseName.get(name.toLowerCase()) : overlay.byName.get(name), type, false, result);
+		return result;
+	}
+
+	public Iterable<IEObjectDescription> getExportedObjectsByType(EClass type) {
+		List<IEObjectDescription> result = Lists.newArrayList();
+		if (type == EcorePackage.Literals.EOBJECT) {
+			for (int id = 0; id < base.objects.length; id++) {
+				if (changed.isEmpty() || !changed.containsKey(base.resources[id])) {
+					result.add(base.objects[id]);
+				}
+			}
+			result.addAll(Arrays.asList(overlay.objects));
+			return result;
+		}
+		collect(base, base.byType.get(type), null, true, result);
+		collect(overlay, overlay.byType.get(type), null, false, result);
+		return result;
+	}
+
+	/**
+	 * @param type
+	 *            the type the objects must be assignable to, <code>null</code> if they need not be checked.
+	 */
+	private void collect(Postings postings, int[] ids, EClass type, boolean hideChanged, List<IEObjectDescription> result) {
+		if (ids == null)
+			return;
+		boolean checkChanged = hideChanged && !changed.isEmpty();
+		for (int id : ids) {
+			if (checkChanged && changed.containsKey(postings.resources[id]))
+				continue;
+			IEObjectDescription object = postings.objects[id];
+			if (type == null || EcoreUtil2.isAssignableFrom(type, object.getEClass())) {
+				result.add(object);
+			}
+		}
+	}
+
+}
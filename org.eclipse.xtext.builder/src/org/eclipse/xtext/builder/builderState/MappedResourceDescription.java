@@ -0,0 +1,461 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.builder.builderState.impl.ReferenceDescriptionImpl;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * A resource description that is backed by a record of a memory mapped file written by the
+ * {@link MemoryMappedPersister}. The exported objects are decoded when the description is created since they are
+ * needed for the index. The imported names and the reference descriptions are decoded on first access.
+ *
+ * A record has its own string table so that it can be copied to a new file without decoding it. Its layout is
+ *
+ * <pre>
+ * int stringCount
+ * int exportedObjectsOffset, int importedNamesOffset, int referenceDescriptionsOffset
+ * int[stringCount] stringOffsets
+ * strings: int byteLength, byte[byteLength] UTF-8
+ * exported objects: int count, (name, fragment, eClass, int userDataCount, (key, value)*)*
+ * imported names: int count, name*
+ * reference descriptions: int count, (source, target, container, eReference, int indexInList)*
+ * </pre>
+ *
+ * where a name is <code>int segmentCount, segment*</code> and all strings are indexes into the string table, or
+ * <code>-1</code> for <code>null</code>. All offsets are relative to the start of the record.
+ *
+ * @since 2.13
+ */
+public class MappedResourceDescription extends AbstractResourceDescription {
+
+	private static final int HEADER_SIZE = 4 * 4;
+
+	private final ByteBuffer buffer;
+
+	private final int offset;
+
+	private final int length;
+
+	private final URI uri;
+
+	private final List<IEObjectDescription> exportedObjects;
+
+	private volatile List<QualifiedName> importedNames;
+
+	private volatile List<IReferenceDescription> referenceDescriptions;
+
+	/**
+	 * @param buffer
+	 *            the read only buffer that holds the record. It is never modified.
+	 * @param offset
+	 *            the start of the record in the buffer.
+	 * @param length
+	 *            the length of the record in bytes.
+	 */
+	public MappedResourceDescription(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		RecordReader reader = new RecordReader();
+		this.uri = URI.createURI(reader.string(0));
+		this.exportedObjects = reader.readExportedObjects();
+	}
+
+	@Override
+	public URI getURI() {
+		return uri;
+	}
+
+	@Override
+	protected List<IEObjectDescription> computeExportedObjects() {
+		return exportedObjects;
+	}
+
+	@Override
+	public Iterable<QualifiedName> getImportedNames() {
+		List<QualifiedName> result = importedNames;
+		if (result == null) {
+			result = new RecordReader().readImportedNames();
+			importedNames = result;
+		}
+		return result;
+	}
+
+	@Override
+	public Iterable<IReferenceDescription> getReferenceDescriptions() {
+		List<IReferenceDescription> result = referenceDescriptions;
+		if (result == null) {
+			result = new RecordReader().readReferenceDescriptions();
+			referenceDescriptions = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the record of this description as it is, without decoding it.
+	 */
+	public void writeRecord(DataOutputStream out) throws IOException {
+		byte[] bytes = new byte[length];
+		ByteBuffer source = buffer.duplicate();
+		source.position(offset);
+		source.get(bytes);
+		out.writeInt(length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Encodes the given description into a record.
+	 */
+	public static byte[] encode(IResourceDescription description) throws IOException {
+		return new RecordWriter().write(description);
+	}
+
+	/**
+	 * Decodes the parts of a record. Each instance is only used by a single thread.
+	 */
+	private class RecordReader {
+
+		private final ByteBuffer source = buffer.duplicate();
+
+		private final String[] strings;
+
+		private int position;
+
+		private RecordReader() {
+			strings = new String[source.getInt(offset)];
+		}
+
+		private int intAt(int position) {
+			return source.getInt(offset + position);
+		}
+
+		private String string(int index) {
+			if (index < 0) {
+				return null;
+			}
+			String result = strings[index];
+			if (result == null) {
+				int position = intAt(HEADER_SIZE + 4 * index);
+				byte[] bytes = new byte[intAt(position)];
+				source.position(offset + position + 4);
+				source.get(bytes);
+				result = new String(bytes, StandardCharsets.UTF_8);
+				strings[index] = result;
+			}
+			return result;
+		}
+
+		private URI uri(int index) {
+			String result = string(index);
+			return result != null ? URI.createURI(result) : null;
+		}
+
+		private int nextInt() {
+			int result = intAt(position);
+			position += 4;
+			return result;
+		}
+
+		private QualifiedName nextName() {
+			int segmentCount = nextInt();
+			String[] segments = new String[segmentCount];
+			for (int i = 0; i < segmentCount; i++) {
+				segments[i] = string(nextInt());
+			}
+			return QualifiedName.create(segments);
+		}
+
+		private List<IEObjectDescription> readExportedObjects() {
+			position = intAt(4);
+			int count = nextInt();
+			if (count == 0) {
+				return Collections.emptyList();
+			}
+			ImmutableList.Builder<IEObjectDescription> result = ImmutableList.builder();
+			for (int i = 0; i < count; i++) {
+				QualifiedName name = nextName();
+				URI objectURI = uri.appendFragment(string(nextInt()));
+				String eClassURI = string(nextInt());
+				EClass eClass = eClassURI != null ? (EClass) resolve(eClassURI, EcorePackage.Literals.ECLASS) : null;
+				int userDataCount = nextInt();
+				Map<String, String> userData = Collections.emptyMap();
+				if (userDataCount > 0) {
+					userData = Maps.newHashMapWithExpectedSize(userDataCount);
+					for (int j = 0; j < userDataCount; j++) {
+						userData.put(string(nextInt()), string(nextInt()));
+					}
+				}
+				result.add(new MappedEObjectDescription(name, objectURI, eClass, userData));
+			}
+			return result.build();
+		}
+
+		private List<QualifiedName> readImportedNames() {
+			position = intAt(8);
+			int count = nextInt();
+			if (count == 0) {
+				return Collections.emptyList();
+			}
+			List<QualifiedName> result = Lists.newArrayListWithCapacity(count);
+			for (int i = 0; i < count; i++) {
+				result.add(nextName());
+			}
+			return Collections.unmodifiableList(result);
+		}
+
+		private List<IReferenceDescription> readReferenceDescriptions() {
+			position = intAt(12);
+			int count = nextInt();
+			if (count == 0) {
+				return Collections.emptyList();
+			}
+			List<IReferenceDescription> result = Lists.newArrayListWithCapacity(count);
+			for (int i = 0; i < count; i++) {
+				ReferenceDescriptionImpl reference = (ReferenceDescriptionImpl) BuilderStateFactory.eINSTANCE.createReferenceDescription();
+				reference.setSourceEObjectUri(uri(nextInt()));
+				reference.setTargetEObjectUri(uri(nextInt()));
+				reference.setContainerEObjectURI(uri(nextInt()));
+				String eReference = string(nextInt());
+				if (eReference != null) {
+					reference.setReference((EReference) resolve(eReference, EcorePackage.Literals.EREFERENCE));
+				}
+				reference.setIndexInList(nextInt());
+				result.add(reference);
+			}
+			return Collections.unmodifiableList(result);
+		}
+	}
+
+	/**
+	 * Resolves a persisted EClass or EReference against the global package registry. Unknown elements are returned as
+	 * proxies like the {@link EMFBasedPersister} does.
+	 */
+	protected static EObject resolve(String uriString, EClass type) {
+		URI uri = URI.createURI(uriString);
+		EPackage ePackage = EPackage.Registry.INSTANCE.getEPackage(uri.trimFragment().toString());
+		if (ePackage != null) {
+			Resource resource = ePackage.eResource();
+			if (resource != null) {
+				EObject result = resource.getEObject(uri.fragment());
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+		InternalEObject proxy = (InternalEObject) EcoreFactory.eINSTANCE.create(type);
+		proxy.eSetProxyURI(uri);
+		return proxy;
+	}
+
+	/**
+	 * An exported object whose proxy is created on demand.
+	 */
+	protected static class MappedEObjectDescription implements IEObjectDescription {
+
+		private final QualifiedName name;
+		private final URI objectURI;
+		private final EClass eClass;
+		private final Map<String, String> userData;
+
+		protected MappedEObjectDescription(QualifiedName name, URI objectURI, EClass eClass, Map<String, String> userData) {
+			this.name = name;
+			this.objectURI = objectURI;
+			this.eClass = eClass;
+			this.userData = userData;
+		}
+
+		@Override
+		public QualifiedName getName() {
+			return name;
+		}
+
+		@Override
+		public QualifiedName getQualifiedName() {
+			return name;
+		}
+
+		@Override
+		public EObject getEObjectOrProxy() {
+			if (eClass != null && !eClass.eIsProxy()) {
+				EPackage ePackage = eClass.getEPackage();
+				if (ePackage != null && ePackage.getEFactoryInstance() != null) {
+					InternalEObject proxy = (InternalEObject) ePackage.getEFactoryInstance().create(eClass);
+					proxy.eSetProxyURI(objectURI);
+					return proxy;
+				}
+			}
+			// the EClass is unknown, fall back to a generic proxy
+			InternalEObject proxy = (InternalEObject) EcoreFactory.eINSTANCE.createEObject();
+			proxy.eSetProxyURI(objectURI);
+			return proxy;
+		}
+
+		@Override
+		public URI getEObjectURI() {
+			return objectURI;
+		}
+
+		@Override
+		public EClass getEClass() {
+			return eClass;
+		}
+
+		@Override
+		public String getUserData(String key) {
+			return userData.get(key);
+		}
+
+		@Override
+		public String[] getUserDataKeys() {
+			return userData.keySet().toArray(new String[userData.size()]);
+		}
+
+		@Override
+		public String toString() {
+			return name + " - " + objectURI;
+		}
+	}
+
+	/**
+	 * Encodes a resource description into a record.
+	 */
+	private static class RecordWriter {
+
+		private final Map<String, Integer> strings = Maps.newLinkedHashMap();
+
+		private int string(String string) {
+			if (string == null) {
+				return -1;
+			}
+			Integer result = strings.get(string);
+			if (result == null) {
+				result = strings.size();
+				strings.put(string, result);
+			}
+			return result;
+		}
+
+		private void writeName(DataOutputStream out, QualifiedName name) throws IOException {
+			out.writeInt(name.getSegmentCount());
+			for (String segment : name.getSegments()) {
+				out.writeInt(string(segment));
+			}
+		}
+
+		private int string(URI uri) {
+			return uri != null ? string(uri.toString()) : -1;
+		}
+
+		private int string(EObject eObject) {
+			return eObject != null ? string(EcoreUtil.getURI(eObject)) : -1;
+		}
+
+		private byte[] write(IResourceDescription description) throws IOException {
+			// the resource URI is always the first string
+			string(description.getURI());
+
+			ByteArrayOutputStream exportedBytes = new ByteArrayOutputStream();
+			DataOutputStream exported = new DataOutputStream(exportedBytes);
+			List<IEObjectDescription> exportedObjects = Lists.newArrayList(description.getExportedObjects());
+			exported.writeInt(exportedObjects.size());
+			for (IEObjectDescription object : exportedObjects) {
+				writeName(exported, object.getName());
+				exported.writeInt(string(object.getEObjectURI().fragment()));
+				exported.writeInt(string(object.getEClass()));
+				String[] keys = object.getUserDataKeys();
+				exported.writeInt(keys.length);
+				for (String key : keys) {
+					exported.writeInt(string(key));
+					exported.writeInt(string(object.getUserData(key)));
+				}
+			}
+
+			ByteArrayOutputStream importedBytes = new ByteArrayOutputStream();
+			DataOutputStream imported = new DataOutputStream(importedBytes);
+			List<QualifiedName> importedNames = Lists.newArrayList(description.getImportedNames());
+			imported.writeInt(importedNames.size());
+			for (QualifiedName importedName : importedNames) {
+				writeName(imported, importedName);
+			}
+
+			ByteArrayOutputStream referenceBytes = new ByteArrayOutputStream();
+			DataOutputStream references = new DataOutputStream(referenceBytes);
+			List<IReferenceDescription> referenceDescriptions = Lists.newArrayList(description.getReferenceDescriptions());
+			references.writeInt(referenceDescriptions.size());
+			for (IReferenceDescription reference : referenceDescriptions) {
+				references.writeInt(string(reference.getSourceEObjectUri()));
+				references.writeInt(string(reference.getTargetEObjectUri()));
+				references.writeInt(string(reference.getContainerEObjectURI()));
+				references.writeInt(string(reference.getEReference()));
+				references.writeInt(reference.getIndexInList());
+			}
+
+			List<byte[]> encodedStrings = Lists.newArrayListWithCapacity(strings.size());
+			int stringsLength = 0;
+			for (String string : strings.keySet()) {
+				byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+				encodedStrings.add(encoded);
+				stringsLength += 4 + encoded.length;
+			}
+			int stringsOffset = HEADER_SIZE + 4 * strings.size();
+			int exportedOffset = stringsOffset + stringsLength;
+			int importedOffset = exportedOffset + exportedBytes.size();
+			int referencesOffset = importedOffset + importedBytes.size();
+
+			ByteArrayOutputStream resultBytes = new ByteArrayOutputStream(referencesOffset + referenceBytes.size());
+			DataOutputStream result = new DataOutputStream(resultBytes);
+			result.writeInt(strings.size());
+			result.writeInt(exportedOffset);
+			result.writeInt(importedOffset);
+			result.writeInt(referencesOffset);
+			int stringOffset = stringsOffset;
+			for (byte[] encoded : encodedStrings) {
+				result.writeInt(stringOffset);
+				stringOffset += 4 + encoded.length;
+			}
+			for (byte[] encoded : encodedStrings) {
+				result.writeInt(encoded.length);
+				result.write(encoded);
+			}
+			exportedBytes.writeTo(result);
+			importedBytes.writeTo(result);
+			referenceBytes.writeTo(result);
+			result.flush();
+			return resultBytes.toByteArray();
+		}
+	}
+
+}
@@ -0,0 +1,506 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
+import org.eclipse.xtext.builder.FullSaveParticipant;
+import org.eclipse.xtext.builder.impl.BuildScheduler;
+import org.eclipse.xtext.builder.impl.IBuildFlag;
+import org.eclipse.xtext.builder.internal.Activator;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+
+/**
+ * A {@link PersistedStateProvider} that stores the builder state in a memory mapped file instead of an EMF resource.
+ * Each resource description is stored as a self contained record, see {@link MappedResourceDescription}. Loading only
+ * decodes the exported objects, everything else is read from the mapping on demand. When the state is saved, the
+ * records of unchanged descriptions are copied as they are and only changed descriptions are encoded again.
+ *
+ * The persisted state consists of a snapshot and a journal. After each update of the {@link IBuilderState}, the
+ * changed descriptions are appended to the journal. On load, the journal is replayed on top of the snapshot, so a
+ * crash does not require a recovery build as long as the journal is intact. The journal is forced to the disk when the
+ * workspace is saved, and compacted into a new snapshot instead if it has grown large compared to the snapshot.
+ *
+ * Every snapshot is written as a new generation of the file, since the previous one may still be mapped. Each
+ * generation has its own journal.
+ *
+ * To use it, bind {@link PersistedStateProvider} to this class in the shared module.
+ *
+ * @since 2.13
+ */
+public class MemoryMappedPersister implements PersistedStateProvider, IResourceDescription.Event.Listener {
+
+	private final static Logger log = Logger.getLogger(MemoryMappedPersister.class);
+
+	/** "XTBS" */
+	public static final int MAGIC = 0x58544253;
+
+	public static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 3 * 4;
+
+	private static final String FILE_PREFIX = "builder.index.";
+
+	private static final String JOURNAL_PREFIX = "builder.journal.";
+
+	private static final byte REMOVED = 0;
+
+	private static final byte CHANGED = 1;
+
+	/** The journal is not compacted before it reaches this size. */
+	private static final long MIN_COMPACTION_SIZE = 1 << 20;
+
+	@Inject
+	private IWorkspace workspace;
+
+	@Inject
+	private IBuilderState builderState;
+
+	@Inject
+	private BuildScheduler buildManager;
+
+	private IPath cachedPath;
+
+	private long generation;
+
+	private FileOutputStream journal;
+
+	private boolean journalBroken;
+
+	/** whether the save participant and the builder state listener have been registered */
+	private boolean registered;
+
+	@Override
+	public Iterable<IResourceDescription> load() {
+		File directory = getBuilderStateLocation();
+		try {
+			if (directory != null) {
+				File latest = findLatestGeneration(directory, FILE_PREFIX);
+				if (latest == null) {
+					// an initial journal without a snapshot
+					latest = findLatestGeneration(directory, JOURNAL_PREFIX);
+				}
+				if (latest != null) {
+					Map<URI, IResourceDescription> state = Maps.newLinkedHashMap();
+					generation = getGeneration(latest, latest.getName().startsWith(FILE_PREFIX) ? FILE_PREFIX : JOURNAL_PREFIX);
+					File snapshot = new File(directory, FILE_PREFIX + generation);
+					if (snapshot.exists()) {
+						for (IResourceDescription description : loadFrom(snapshot)) {
+							state.put(description.getURI(), description);
+						}
+					}
+					boolean complete = replayJournal(new File(directory, JOURNAL_PREFIX + generation), state);
+					openJournal(directory);
+					deleteOlderGenerations(directory);
+					if (!complete) {
+						log.warn("The persisted builder state journal was incomplete. Triggering a full build.");
+						scheduleRecoveryBuild();
+					}
+					return Lists.newArrayList(state.values());
+				}
+				openJournal(directory);
+			}
+			if (workspace != null && workspace.isAutoBuilding()) {
+				scheduleRecoveryBuild();
+			}
+		} catch (Exception e) {
+			log.warn("Error while loading persistable builder state from '"+directory+"'. This could happen after an upgrade or if the persisted index state got corrupted. Triggering a full build. Problem was : "+e.getMessage()+" ("+e.getClass().getSimpleName()+")");
+			// start over with an empty snapshot
+			try {
+				save(Collections.<IResourceDescription>emptyList());
+			} catch (WrappedException saveException) {
+				log.error("Error resetting the persisted builder state", saveException);
+			}
+			scheduleRecoveryBuild();
+		} finally {
+			register();
+		}
+		return Collections.emptySet();
+	}
+
+	private synchronized void register() {
+		if (registered)
+			return;
+		registered = true;
+		try {
+			if (workspace != null) {
+				addSaveParticipant();
+			}
+		} catch (CoreException e) {
+			log.error("Error adding builder state save participant", e);
+		}
+		if (builderState != null) {
+			builderState.addListener(this);
+		}
+	}
+
+	protected void addSaveParticipant() throws CoreException {
+		workspace.addSaveParticipant(Activator.PLUGIN_ID, new FullSaveParticipant() {
+			@Override
+			protected void save() {
+				saveOrSyncJournal();
+			}
+		});
+	}
+
+	/**
+	 * Maps the given file and creates a description for each of its records.
+	 */
+	protected List<IResourceDescription> loadFrom(File file) throws IOException {
+		MappedByteBuffer buffer;
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			// the mapping stays valid after the channel is closed
+			FileChannel channel = randomAccessFile.getChannel();
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			randomAccessFile.close();
+		}
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Invalid signature");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported version " + buffer.getInt(4));
+		}
+		int count = buffer.getInt(8);
+		List<IResourceDescription> result = Lists.newArrayListWithCapacity(count);
+		int position = HEADER_SIZE;
+		for (int i = 0; i < count; i++) {
+			int length = buffer.getInt(position);
+			position += 4;
+			if (length < 0 || position + length > buffer.capacity()) {
+				throw new IOException("Truncated record " + i);
+			}
+			result.add(new MappedResourceDescription(buffer, position, length));
+			position += length;
+		}
+		return result;
+	}
+
+	/**
+	 * Applies the entries of the journal to the given state. A journal entry is
+	 *
+	 * <pre>
+	 * int payloadLength, int crc32(payload)
+	 * payload: int count, (byte REMOVED, int length, byte[length] uri | byte CHANGED, int length, byte[length] record)*
+	 * </pre>
+	 *
+	 * An incomplete or corrupt entry at the end of the journal, e.g. after a crash while appending, is cut off.
+	 *
+	 * @return <code>false</code> if the journal had to be cut off.
+	 */
+	protected boolean replayJournal(File file, Map<URI, IResourceDescription> state) throws IOException {
+		if (!file.exists())
+			return true;
+		// the journal is read into memory since it may need to be truncated
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).asReadOnlyBuffer();
+		int position = 0;
+		CRC32 crc = new CRC32();
+		while (position + 8 <= buffer.capacity()) {
+			int payloadLength = buffer.getInt(position);
+			int checksum = buffer.getInt(position + 4);
+			int payload = position + 8;
+			if (payloadLength < 4 || payload + payloadLength > buffer.capacity()) {
+				break;
+			}
+			crc.reset();
+			ByteBuffer payloadBuffer = buffer.duplicate();
+			payloadBuffer.position(payload).limit(payload + payloadLength);
+			byte[] bytes = new byte[payloadLength];
+			payloadBuffer.get(bytes);
+			crc.update(bytes);
+			if ((int) crc.getValue() != checksum) {
+				break;
+			}
+			int count = buffer.getInt(payload);
+			int entry = payload + 4;
+			for (int i = 0; i < count; i++) {
+				byte kind = buffer.get(entry);
+				int length = buffer.getInt(entry + 1);
+				entry += 5;
+				if (kind == REMOVED) {
+					state.remove(URI.createURI(new String(bytes, entry - payload, length, StandardCharsets.UTF_8)));
+				} else {
+					IResourceDescription description = new MappedResourceDescription(buffer, entry, length);
+					state.put(description.getURI(), description);
+				}
+				entry += length;
+			}
+			position = payload + payloadLength;
+		}
+		if (position < buffer.capacity()) {
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+			try {
+				randomAccessFile.setLength(position);
+			} finally {
+				randomAccessFile.close();
+			}
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Appends the descriptions that were changed by an update of the builder state to the journal.
+	 */
+	@Override
+	public void descriptionsChanged(IResourceDescription.Event event) {
+		Map<URI, IResourceDescription> changes = Maps.newLinkedHashMap();
+		for (Delta delta : event.getDeltas()) {
+			// the state has already been updated when the listeners are notified
+			changes.put(delta.getUri(), builderState.getResourceDescription(delta.getUri()));
+		}
+		appendToJournal(changes);
+	}
+
+	/**
+	 * @param changes
+	 *            the new descriptions by URI, a <code>null</code> value marks a removed description.
+	 */
+	public synchronized void appendToJournal(Map<URI, IResourceDescription> changes) {
+		if (changes.isEmpty() || journal == null || journalBroken)
+			return;
+		try {
+			ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+			DataOutputStream payload = new DataOutputStream(payloadBytes);
+			payload.writeInt(changes.size());
+			for (Map.Entry<URI, IResourceDescription> change : changes.entrySet()) {
+				byte[] bytes;
+				if (change.getValue() == null) {
+					payload.writeByte(REMOVED);
+					bytes = change.getKey().toString().getBytes(StandardCharsets.UTF_8);
+				} else {
+					payload.writeByte(CHANGED);
+					bytes = MappedResourceDescription.encode(change.getValue());
+				}
+				payload.writeInt(bytes.length);
+				payload.write(bytes);
+			}
+			payload.flush();
+			byte[] bytes = payloadBytes.toByteArray();
+			CRC32 crc = new CRC32();
+			crc.update(bytes);
+			ByteArrayOutputStream entryBytes = new ByteArrayOutputStream(bytes.length + 8);
+			DataOutputStream entry = new DataOutputStream(entryBytes);
+			entry.writeInt(bytes.length);
+			entry.writeInt((int) crc.getValue());
+			entry.write(bytes);
+			entry.flush();
+			// the journal is forced to the disk when the workspace is saved, not on the builder thread
+			journal.write(entryBytes.toByteArray());
+		} catch (IOException e) {
+			log.error("Error writing the builder state journal. The state will be saved completely on the next workspace save.", e);
+			journalBroken = true;
+			deleteAllGenerations();
+		}
+	}
+
+	/**
+	 * Compacts the journal into a new snapshot if it has grown too large, or else forces the journal to the disk. The
+	 * current state of the builder is read while the journal is locked, so no update that is appended to the journal of
+	 * the old generation can be missing from the new snapshot.
+	 */
+	protected synchronized void saveOrSyncJournal() {
+		if (shouldCompact()) {
+			save(builderState.getAllResourceDescriptions());
+		} else if (journal != null && !journalBroken) {
+			try {
+				journal.getChannel().force(false);
+			} catch (IOException e) {
+				log.error("Error writing the builder state journal. The state will be saved completely on the next workspace save.", e);
+				journalBroken = true;
+				deleteAllGenerations();
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the journal should be compacted into a new snapshot on the next save.
+	 */
+	protected synchronized boolean shouldCompact() {
+		File directory = getBuilderStateLocation();
+		if (journalBroken || directory == null)
+			return true;
+		long journalLength = new File(directory, JOURNAL_PREFIX + generation).length();
+		long snapshotLength = new File(directory, FILE_PREFIX + generation).length();
+		return journalLength > Math.max(MIN_COMPACTION_SIZE, snapshotLength / 4);
+	}
+
+	/**
+	 * Writes a new snapshot with the given descriptions and starts a new, empty journal.
+	 */
+	public synchronized void save(Iterable<IResourceDescription> descriptions) {
+		File directory = getBuilderStateLocation();
+		if (directory == null)
+			return;
+		List<IResourceDescription> toBeSaved = Lists.newArrayList(descriptions);
+		long nextGeneration = generation + 1;
+		File temporary = new File(directory, FILE_PREFIX + nextGeneration + ".tmp");
+		File target = new File(directory, FILE_PREFIX + nextGeneration);
+		try {
+			FileOutputStream fileOutputStream = new FileOutputStream(temporary);
+			try {
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutputStream, 1 << 16));
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(toBeSaved.size());
+				for (IResourceDescription description : toBeSaved) {
+					if (description instanceof MappedResourceDescription) {
+						((MappedResourceDescription) description).writeRecord(out);
+					} else {
+						byte[] record = MappedResourceDescription.encode(description);
+						out.writeInt(record.length);
+						out.write(record);
+					}
+				}
+				out.flush();
+				fileOutputStream.getChannel().force(true);
+			} finally {
+				fileOutputStream.close();
+			}
+			Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			generation = nextGeneration;
+			journalBroken = false;
+			openJournal(directory);
+		} catch (IOException e) {
+			temporary.delete();
+			throw new WrappedException(e);
+		}
+		deleteOlderGenerations(directory);
+	}
+
+	/**
+	 * Opens the journal of the current generation for appending.
+	 */
+	protected void openJournal(File directory) throws IOException {
+		closeJournal();
+		journal = new FileOutputStream(new File(directory, JOURNAL_PREFIX + generation), true);
+	}
+
+	protected synchronized void closeJournal() {
+		if (journal != null) {
+			try {
+				journal.close();
+			} catch (IOException e) {
+				log.error(e.getMessage(), e);
+			}
+			journal = null;
+		}
+	}
+
+	/**
+	 * Older generations may still be mapped. Deleting them may fail on some platforms, in which case they are deleted
+	 * on the next load.
+	 */
+	protected void deleteOlderGenerations(File directory) {
+		File[] files = directory.listFiles();
+		if (files == null)
+			return;
+		for (File file : files) {
+			long fileGeneration = Math.max(getGeneration(file, FILE_PREFIX), getGeneration(file, JOURNAL_PREFIX));
+			if (fileGeneration >= 0 && fileGeneration < generation || file.getName().endsWith(".tmp") && file.getName().startsWith(FILE_PREFIX)) {
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Deletes the persisted state such that the next load triggers a recovery build unless the state is saved again.
+	 */
+	protected void deleteAllGenerations() {
+		closeJournal();
+		File directory = getBuilderStateLocation();
+		File[] files = directory != null ? directory.listFiles() : null;
+		if (files == null)
+			return;
+		for (File file : files) {
+			if (file.getName().startsWith(FILE_PREFIX) || file.getName().startsWith(JOURNAL_PREFIX)) {
+				file.delete();
+			}
+		}
+	}
+
+	protected File findLatestGeneration(File directory, String prefix) {
+		File[] files = directory.listFiles();
+		if (files == null)
+			return null;
+		File result = null;
+		long latest = -1;
+		for (File file : files) {
+			long fileGeneration = getGeneration(file, prefix);
+			if (fileGeneration > latest) {
+				latest = fileGeneration;
+				result = file;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the generation of the given state file or <code>-1</code> if it is not a state file.
+	 */
+	private long getGeneration(File file, String prefix) {
+		String name = file.getName();
+		if (!name.startsWith(prefix))
+			return -1;
+		try {
+			return Long.parseLong(name.substring(prefix.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @return the directory that holds the state files.
+	 */
+	protected File getBuilderStateLocation() {
+		Activator activator = Activator.getDefault();
+		if (activator == null) {
+			if (cachedPath != null)
+				return cachedPath.toFile();
+			return null;
+		}
+		IPath path = activator.getStateLocation();
+		cachedPath = path;
+		return path.toFile();
+	}
+
+	protected void scheduleRecoveryBuild() {
+		Iterable<IProject> projects = Lists.newArrayList(workspace.getRoot().getProjects());
+		buildManager.scheduleBuildIfNecessary(projects, IBuildFlag.RECOVERY_BUILD);
+	}
+
+}
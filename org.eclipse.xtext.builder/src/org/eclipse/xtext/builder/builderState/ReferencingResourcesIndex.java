@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.builderState;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * An inverted index from the URIs of referenced resources to the URIs of the resources whose
+ * {@link IResourceDescription#getReferenceDescriptions() reference descriptions} point into them. It allows reference
+ * searches to visit only the resources that actually reference the searched targets.
+ *
+ * An index is immutable. An {@link #update(Map) update} returns a new index that shares the entries of all resources
+ * with this one and only indexes the references of the changed resources in a small overlay, which hides their
+ * entries in the shared ones. Once the overlay has grown large, the entries are built again.
+ *
+ * @since 2.13
+ */
+public class ReferencingResourcesIndex {
+
+	/** the overlay is never merged before it has this many references */
+	private static final int MIN_OVERLAY_SIZE = 1024;
+
+	/** target resource URI to the URIs of the resources that reference it, hidden for the sources in {@link #changed} */
+	private final Map<URI, Set<URI>> base;
+
+	/** the number of references in the base */
+	private final int baseSize;
+
+	/** the URIs of the resources that changed since the base was built to the URIs of the resources they reference */
+	private final Map<URI, Set<URI>> changed;
+
+	/** target resource URI to the URIs of the changed resources that reference it */
+	private final Map<URI, Set<URI>> overlay;
+
+	public ReferencingResourcesIndex(Iterable<IResourceDescription> descriptions) {
+		Map<URI, Set<URI>> referencedResources = Maps.newHashMap();
+		for (IResourceDescription description : descriptions) {
+			referencedResources.put(description.getURI(), getReferencedResources(description));
+		}
+		this.base = invert(referencedResources);
+		this.baseSize = size(base);
+		this.changed = Collections.emptyMap();
+		this.overlay = Collections.emptyMap();
+	}
+
+	private ReferencingResourcesIndex(Map<URI, Set<URI>> base, int baseSize, Map<URI, Set<URI>> changed,
+			Map<URI, Set<URI>> overlay) {
+		this.base = base;
+		this.baseSize = baseSize;
+		this.changed = changed;
+		this.overlay = overlay;
+	}
+
+	/**
+	 * Replaces the references of the given resources. The cost depends on the number of changed references, unless the
+	 * entries of all resources are built again.
+	 *
+	 * @param newDescriptions
+	 *            the new descriptions by URI, a <code>null</code> value removes the resource from the index.
+	 * @return the updated index. This index is not changed.
+	 */
+	public ReferencingResourcesIndex update(Map<URI, IResourceDescription> newDescriptions) {
+		if (newDescriptions.isEmpty())
+			return this;
+		Map<URI, Set<URI>> newChanged = Maps.newHashMap(changed);
+		for (Map.Entry<URI, IResourceDescription> entry : newDescriptions.entrySet()) {
+			IResourceDescription description = entry.getValue();
+			newChanged.put(entry.getKey(), description == null ? Collections.<URI> emptySet() : getReferencedResources(description));
+		}
+		Map<URI, Set<URI>> newOverlay = invert(newChanged);
+		int maxOverlaySize = Math.max(MIN_OVERLAY_SIZE, 16 * (int) Math.sqrt(baseSize));
+		if (size(newOverlay) + newChanged.size() <= maxOverlaySize) {
+			return new ReferencingResourcesIndex(base, baseSize, newChanged, newOverlay);
+		}
+		// merge the overlay into a new base
+		Map<URI, Set<URI>> newBase = Maps.newHashMapWithExpectedSize(base.size());
+		for (Map.Entry<URI, Set<URI>> entry : base.entrySet()) {
+			Set<URI> sources = Sets.newHashSet();
+			for (URI source : entry.getValue()) {
+				if (!newChanged.containsKey(source)) {
+					sources.add(source);
+				}
+			}
+			if (!sources.isEmpty()) {
+				newBase.put(entry.getKey(), sources);
+			}
+		}
+		for (Map.Entry<URI, Set<URI>> entry : newOverlay.entrySet()) {
+			Set<URI> sources = newBase.get(entry.getKey());
+			if (sources == null) {
+				newBase.put(entry.getKey(), entry.getValue());
+			} else {
+				sources.addAll(entry.getValue());
+			}
+		}
+		return new ReferencingResourcesIndex(newBase, size(newBase), Collections.<URI, Set<URI>> emptyMap(),
+				Collections.<URI, Set<URI>> emptyMap());
+	}
+
+	/**
+	 * @return the URIs of the resources that the given resource references, excluding its own URI.
+	 */
+	private static Set<URI> getReferencedResources(IResourceDescription description) {
+		URI uri = description.getURI();
+		Set<URI> result = Sets.newHashSet();
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			URI targetURI = reference.getTargetEObjectUri();
+			if (targetURI != null) {
+				URI key = targetURI.trimFragment();
+				if (!uri.equals(key)) {
+					result.add(key);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static Map<URI, Set<URI>> invert(Map<URI, Set<URI>> referencedResources) {
+		Map<URI, Set<URI>> result = Maps.newHashMap();
+		for (Map.Entry<URI, Set<URI>> entry : referencedResources.entrySet()) {
+			for (URI target : entry.getValue()) {
+				Set<URI> sources = result.get(target);
+				if (sources == null) {
+					sources = Sets.newHashSet();
+					result.put(target, sources);
+				}
+				sources.add(entry.getKey());
+			}
+		}
+		return result;
+	}
+
+	private static int size(Map<URI, Set<URI>> map) {
+		int result = 0;
+		for (Set<URI> sources : map.values()) {
+			result += sources.size();
+		}
+		return result;
+	}
+
+	/**
+	 * @return the URIs of the resources that reference an object of one of the given resources. References of a
+	 *         resource to its own objects are not included.
+	 */
+	public Set<URI> getReferencingResources(Collection<URI> targetResourceURIs) {
+		if (targetResourceURIs.size() == 1 && changed.isEmpty()) {
+			Set<URI> result = base.get(targetResourceURIs.iterator().next());
+			return result == null ? Collections.<URI> emptySet() : Collections.unmodifiableSet(result);
+		}
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (URI target : targetResourceURIs) {
+			Set<URI> sources = base.get(target);
+			if (sources != null) {
+				for (URI source : sources) {
+					if (!changed.containsKey(source)) {
+						result.add(source);
+					}
+				}
+			}
+			sources = overlay.get(target);
+			if (sources != null) {
+				result.addAll(sources);
+			}
+		}
+		return result;
+	}
+
+}
@@ -11,10 +11,13 @@ import static com.google.common.collect.Sets.*;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.resources.IProject;
@@ -22,6 +25,7 @@ import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.common.util.URI;
@@ -29,6 +33,7 @@ import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.builder.BuildExecutors;
 import org.eclipse.xtext.builder.MonitorBasedCancelIndicator;
 import org.eclipse.xtext.builder.builderState.AbstractBuilderState;
 import org.eclipse.xtext.builder.builderState.BuilderStateUtil;
@@ -40,6 +45,7 @@ import org.eclipse.xtext.builder.resourceloader.IResourceLoader.LoadOperation;
 import org.eclipse.xtext.builder.resourceloader.IResourceLoader.LoadOperationException;
 import org.eclipse.xtext.builder.resourceloader.IResourceLoader.LoadResult;
 import org.eclipse.xtext.resource.CompilerPhases;
+import org.eclipse.xtext.resource.DerivedStateAwareResourceDescriptionManager;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescription.Delta;
@@ -47,15 +53,21 @@ import org.eclipse.xtext.resource.IResourceDescription.Manager.AllChangeAware;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.persistence.SourceLevelURIsAdapter;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+import org.eclipse.xtext.service.OperationCanceledError;
+import org.eclipse.xtext.ui.resource.IResourceSetProvider;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Strings;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 
@@ -70,6 +82,14 @@ public class ClusteringBuilderState extends AbstractBuilderState {
 
     public static final String RESOURCELOADER_GLOBAL_INDEX = "org.eclipse.xtext.builder.resourceloader.globalIndex";
 
+    /**
+     * Name of the boolean constant that enables processing several clusters at the same time.
+     * 
+     * @see #isParallelClusterProcessing()
+     * @since 2.13
+     */
+    public static final String PARALLEL_CLUSTER_PROCESSING = "org.eclipse.xtext.builder.clustering.parallelClusterProcessing";
+
     /** Class-wide logger. */
     private static final Logger LOGGER = Logger.getLogger(ClusteringBuilderState.class);
 
@@ -99,6 +119,18 @@ public class ClusteringBuilderState extends AbstractBuilderState {
     @Inject 
     private IBuildLogger buildLogger;
 
+    @Inject
+    private IResourceSetProvider resourceSetProvider;
+
+    @Inject
+    private BuildExecutors buildExecutors;
+
+    @Inject(optional = true)
+    @Named(PARALLEL_CLUSTER_PROCESSING)
+    private boolean parallelClusterProcessing = false;
+
+    private ReverseDependencyIndex reverseDependencyIndex;
+
     private static final int MONITOR_DO_UPDATE_CHUNK = 10;
     
     /**
@@ -173,6 +205,16 @@ public class ClusteringBuilderState extends AbstractBuilderState {
         installSourceLevelURIs(buildData);
 
         IProject currentProject = getBuiltProject(buildData);
+        if (isParallelClusterProcessing()) {
+            try {
+                processClustersInParallel(buildData, toBeDeleted, allRemainingURIs, newData, newState, allDeltas,
+                        progress.newChild(80));
+            } finally {
+                if (!progress.isCanceled())
+                    progress.done();
+            }
+            return allDeltas;
+        }
         LoadOperation loadOperation = null;
         try {
             Queue<URI> queue = buildData.getURIQueue();
@@ -316,6 +358,357 @@ public class ClusteringBuilderState extends AbstractBuilderState {
         return allDeltas;
     }
 
+    /**
+     * Whether several clusters of the queue are loaded, linked and indexed at the same time on the {@link BuildExecutors
+     * shared build executor}. Each cluster is processed in a resource set of its own, so the languages' linkers and
+     * resource description managers have to be thread-safe across resource sets. Markers are still updated on the
+     * builder thread. The mode is off unless {@link #PARALLEL_CLUSTER_PROCESSING} is bound to <code>true</code>.
+     * 
+     * @since 2.13
+     */
+    protected boolean isParallelClusterProcessing() {
+        return parallelClusterProcessing;
+    }
+
+    /**
+     * Processes the queue in rounds. Each round takes up to one cluster per thread of the {@link BuildExecutors shared
+     * build executor} from the queue and {@link #processCluster(List, BuildData, ResourceDescriptionsData, IProject,
+     * IProgressMonitor) processes} the clusters concurrently. Once all of them are done, their deltas are registered in
+     * the order of their URIs, the markers of each cluster are updated in its resource set on the builder thread before
+     * the resource set is cleared, and the resources that are affected by the deltas are queued for the next round. This
+     * includes the resources of the round itself that are {@link #queueAffectedByConcurrentClusters(List, Set,
+     * CurrentDescriptions, BuildData) affected by another cluster} of the round.
+     * 
+     * @since 2.13
+     */
+    protected void processClustersInParallel(
+            final BuildData buildData,
+            Set<URI> toBeDeleted,
+            Set<URI> allRemainingURIs,
+            final ResourceDescriptionsData newData,
+            CurrentDescriptions newState,
+            Collection<Delta> allDeltas,
+            IProgressMonitor monitor) {
+        final SubMonitor progress = SubMonitor.convert(monitor, 1);
+        final IProgressMonitor clusterMonitor = new NullProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return super.isCanceled() || progress.isCanceled();
+            }
+        };
+        final IProject currentProject = getBuiltProject(buildData);
+        Queue<URI> queue = buildData.getURIQueue();
+        Set<URI> requeuedURIs = Sets.newHashSet();
+        while (!queue.isEmpty()) {
+            if (progress.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            List<List<URI>> clusters = pollClusters(queue, toBeDeleted, buildData.getResourceSet(),
+                    buildExecutors.getThreadCount());
+            int clusteredURIs = 0;
+            for (List<URI> cluster : clusters) {
+                clusteredURIs += cluster.size();
+            }
+            progress.setWorkRemaining(clusteredURIs + queue.size() + 1);
+            progress.subTask("Updating resource descriptions of " + clusteredURIs + " resources");
+            List<ListenableFuture<ProcessedCluster>> tasks = Lists.newArrayList();
+            List<ProcessedCluster> processedClusters = Collections.emptyList();
+            try {
+                for (final List<URI> cluster : clusters) {
+                    tasks.add(buildExecutors.getExecutor().submit(new Callable<ProcessedCluster>() {
+                        @Override
+                        public ProcessedCluster call() throws Exception {
+                            return processCluster(cluster, buildData, newData, currentProject, clusterMonitor);
+                        }
+                    }));
+                }
+                // wait for all clusters, even if one of them failed, so that none of them runs on after the build
+                processedClusters = Lists.newArrayList(Futures.successfulAsList(tasks).get());
+                List<Delta> roundDeltas = Lists.newArrayList();
+                List<List<Delta>> clusterDeltas = Lists.newArrayList();
+                for (ListenableFuture<ProcessedCluster> task : tasks) {
+                    roundDeltas.addAll(task.get().getDeltas());
+                    clusterDeltas.add(task.get().getDeltas());
+                }
+                Collections.sort(roundDeltas, new Comparator<Delta>() {
+                    @Override
+                    public int compare(Delta d1, Delta d2) {
+                        return d1.getUri().toString().compareTo(d2.getUri().toString());
+                    }
+                });
+                final List<Delta> changedDeltas = Lists.newArrayList();
+                for (Delta newDelta : roundDeltas) {
+                    buildLogger.log("indexing " + newDelta.getUri());
+                    if (requeuedURIs.contains(newDelta.getUri())) {
+                        // replace the delta of the earlier round
+                        Iterator<Delta> iter = allDeltas.iterator();
+                        while (iter.hasNext()) {
+                            if (iter.next().getUri().equals(newDelta.getUri())) {
+                                iter.remove();
+                            }
+                        }
+                    }
+                    allDeltas.add(newDelta);
+                    if (newDelta.haveEObjectDescriptionsChanged())
+                        changedDeltas.add(newDelta);
+                    newState.register(newDelta);
+                }
+                // Validate now, on the builder thread that holds the scheduling rule of the build.
+                for (int i = 0; i < processedClusters.size(); i++) {
+                    ProcessedCluster processedCluster = processedClusters.get(i);
+                    if (!buildData.isIndexingOnly()) {
+                        for (Delta newDelta : processedCluster.getDeltas()) {
+                            try {
+                                updateMarkers(newDelta, processedCluster.getResourceSet(), progress);
+                            } catch (OperationCanceledException e) {
+                                throw e;
+                            } catch (Exception e) {
+                                LOGGER.error("Error validating "+newDelta.getUri(), e);
+                            }
+                        }
+                    }
+                    // Release memory
+                    processedClusters.set(i, null);
+                    clearClusterResourceSet(processedCluster.getResourceSet());
+                }
+                progress.worked(clusteredURIs);
+                queueAffectedByConcurrentClusters(clusterDeltas, requeuedURIs, newState, buildData);
+                queueAffectedResources(allRemainingURIs, this, newState, changedDeltas, allDeltas, buildData, progress.newChild(1));
+                installSourceLevelURIs(buildData);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OperationCanceledException();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof OperationCanceledException || cause instanceof OperationCanceledError) {
+                    throw new OperationCanceledException();
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new WrappedException((Exception) cause);
+            } finally {
+                for (ListenableFuture<ProcessedCluster> task : tasks) {
+                    if (!task.isDone()) {
+                        // stop the clusters that still run, e.g. after an interrupt
+                        clusterMonitor.setCanceled(true);
+                        task.cancel(false);
+                    }
+                }
+                for (ProcessedCluster processedCluster : processedClusters) {
+                    if (processedCluster != null) {
+                        clearClusterResourceSet(processedCluster.getResourceSet());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the resources of a round again that are affected by the deltas of another cluster of the same round, since
+     * they were linked before those deltas were registered. Each resource is queued again at most once per build, such
+     * that resources which depend on each other do not keep the build going.
+     * 
+     * @param clusterDeltas
+     *            the deltas of each cluster of the round.
+     * @param requeuedURIs
+     *            the resources that were already queued again during this build. Queued resources are added.
+     * @since 2.13
+     */
+    protected void queueAffectedByConcurrentClusters(List<List<Delta>> clusterDeltas, Set<URI> requeuedURIs,
+            CurrentDescriptions newState, BuildData buildData) {
+        if (clusterDeltas.size() < 2) {
+            return;
+        }
+        for (int i = 0; i < clusterDeltas.size(); i++) {
+            List<Delta> otherDeltas = Lists.newArrayList();
+            List<Delta> otherChangedDeltas = Lists.newArrayList();
+            for (int j = 0; j < clusterDeltas.size(); j++) {
+                if (i != j) {
+                    for (Delta delta : clusterDeltas.get(j)) {
+                        otherDeltas.add(delta);
+                        if (delta.haveEObjectDescriptionsChanged())
+                            otherChangedDeltas.add(delta);
+                    }
+                }
+            }
+            for (Delta delta : clusterDeltas.get(i)) {
+                URI candidateURI = delta.getUri();
+                if (!requeuedURIs.contains(candidateURI)
+                        && isAffected(candidateURI, newState, newState, otherChangedDeltas, otherDeltas)) {
+                    requeuedURIs.add(candidateURI);
+                    buildData.queueURI(candidateURI);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes up to <code>maxClusters</code> clusters from the queue. Resources that are to be deleted are dropped.
+     * 
+     * @since 2.13
+     */
+    protected List<List<URI>> pollClusters(Queue<URI> queue, Set<URI> toBeDeleted, ResourceSet resourceSet, int maxClusters) {
+        List<List<URI>> result = Lists.newArrayList();
+        while (!queue.isEmpty() && result.size() < maxClusters) {
+            List<URI> cluster = Lists.newArrayList();
+            do {
+                URI uri = queue.poll();
+                if (!toBeDeleted.contains(uri)) {
+                    cluster.add(uri);
+                }
+            } while (!queue.isEmpty() && clusteringPolicy.continueProcessing(resourceSet, null, cluster.size()));
+            if (!cluster.isEmpty()) {
+                result.add(cluster);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads and links a cluster in a resource set of its own, which sees the same new index as the build's resource
+     * set, and computes the deltas of its resources. This runs on a thread of the {@link BuildExecutors shared build
+     * executor}, so it must neither modify the new index nor the build's resource set. The resource set is handed
+     * back with the deltas, such that the builder thread can update the markers before it is cleared.
+     * 
+     * @return the processed cluster, never <code>null</code>.
+     * @since 2.13
+     */
+    protected ProcessedCluster processCluster(List<URI> cluster, BuildData buildData, ResourceDescriptionsData newData,
+            IProject currentProject, IProgressMonitor monitor) {
+        ResourceSet resourceSet = createClusterResourceSet(buildData.getResourceSet(), currentProject);
+        new CurrentDescriptions(resourceSet, newData, buildData);
+        SourceLevelURIsAdapter sourceLevelURIs = SourceLevelURIsAdapter.findInstalledAdapter(buildData.getResourceSet());
+        if (sourceLevelURIs != null) {
+            SourceLevelURIsAdapter.setSourceLevelUris(resourceSet, sourceLevelURIs.getSourceLevelURIs());
+        }
+        CancelIndicator cancelIndicator = new MonitorBasedCancelIndicator(monitor);
+        List<Delta> result = Lists.newArrayList();
+        LoadOperation loadOperation = crossLinkingResourceLoader.create(resourceSet, currentProject);
+        try {
+            loadOperation.load(cluster);
+            while (loadOperation.hasNext()) {
+                if (monitor.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                URI changedURI = null;
+                Resource resource = null;
+                Delta newDelta = null;
+                try {
+                    LoadResult loadResult = loadOperation.next();
+                    changedURI = loadResult.getUri();
+                    URI actualResourceURI = loadResult.getResource().getURI();
+                    resource = addResource(loadResult.getResource(), resourceSet);
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Update resource description " + actualResourceURI);
+                    }
+                    final IResourceDescription.Manager manager = getResourceDescriptionManager(actualResourceURI);
+                    if (manager != null) {
+                        try {
+                            EcoreUtil2.resolveLazyCrossReferences(resource, cancelIndicator);
+                            final IResourceDescription description = manager.getResourceDescription(resource);
+                            final IResourceDescription copiedDescription = BuilderStateUtil.create(description);
+                            newDelta = manager.createDelta(this.getResourceDescription(actualResourceURI), copiedDescription);
+                        } catch (OperationCanceledException e) {
+                            throw e;
+                        } catch (WrappedException e) {
+                            throw e;
+                        } catch (RuntimeException e) {
+                            LOGGER.error("Error resolving cross references on resource '"+actualResourceURI+"'", e);
+                            throw new LoadOperationException(actualResourceURI, e);
+                        }
+                    }
+                } catch (final WrappedException ex) {
+                    if(ex instanceof LoadOperationException) {
+                        changedURI = ((LoadOperationException) ex).getUri();
+                    }
+                    Throwable cause = ex.getCause();
+                    boolean wasResourceNotFound = cause instanceof CoreException
+                            && IResourceStatus.RESOURCE_NOT_FOUND == ((CoreException) cause).getStatus().getCode();
+                    if(changedURI == null) {
+                        LOGGER.error("Error loading resource", ex); //$NON-NLS-1$
+                    } else {
+                        if (!wasResourceNotFound)
+                            LOGGER.error("Error loading resource from: " + changedURI.toString(), ex); //$NON-NLS-1$
+                        if (resource != null) {
+                            resourceSet.getResources().remove(resource);
+                        }
+                        final IResourceDescription oldDescription = this.getResourceDescription(changedURI);
+                        final IResourceDescription newDesc = newData.getResourceDescription(changedURI);
+                        ResourceDescriptionImpl indexReadyDescription = newDesc != null ? BuilderStateUtil.create(newDesc) : null;
+                        if ((oldDescription != null || indexReadyDescription != null) && oldDescription != indexReadyDescription) {
+                            newDelta = new DefaultResourceDescriptionDelta(oldDescription, indexReadyDescription);
+                        }
+                    }
+                }
+                if (newDelta != null) {
+                    result.add(newDelta);
+                }
+            }
+            return new ProcessedCluster(result, resourceSet);
+        } catch (RuntimeException e) {
+            clearClusterResourceSet(resourceSet);
+            throw e;
+        } catch (Error e) {
+            clearClusterResourceSet(resourceSet);
+            throw e;
+        } finally {
+            loadOperation.cancel();
+        }
+    }
+
+    /**
+     * Clears the resource set of a {@link #processCluster(List, BuildData, ResourceDescriptionsData, IProject,
+     * IProgressMonitor) processed cluster} once its markers are updated.
+     * 
+     * @since 2.13
+     */
+    protected void clearClusterResourceSet(ResourceSet resourceSet) {
+        clearResourceSet(resourceSet);
+        resourceSet.eAdapters().clear();
+    }
+
+    /**
+     * Creates the resource set of a cluster that is {@link #processCluster(List, BuildData, ResourceDescriptionsData,
+     * IProject, IProgressMonitor) processed in parallel}. It is configured like the build's resource set.
+     * 
+     * @since 2.13
+     */
+    protected ResourceSet createClusterResourceSet(ResourceSet buildResourceSet, IProject project) {
+        ResourceSet result = resourceSetProvider.get(project);
+        result.getLoadOptions().putAll(buildResourceSet.getLoadOptions());
+        result.setURIConverter(buildResourceSet.getURIConverter());
+        return result;
+    }
+
+    /**
+     * The deltas of a cluster that was {@link ClusteringBuilderState#processCluster(List, BuildData,
+     * ResourceDescriptionsData, IProject, IProgressMonitor) processed in parallel}, together with the resource set that
+     * holds its resources.
+     * 
+     * @since 2.13
+     */
+    protected static class ProcessedCluster {
+        private final List<Delta> deltas;
+        private final ResourceSet resourceSet;
+
+        public ProcessedCluster(List<Delta> deltas, ResourceSet resourceSet) {
+            this.deltas = deltas;
+            this.resourceSet = resourceSet;
+        }
+
+        public List<Delta> getDeltas() {
+            return deltas;
+        }
+
+        public ResourceSet getResourceSet() {
+            return resourceSet;
+        }
+    }
+
 	protected void installSourceLevelURIs(BuildData buildData) {
 		ResourceSet resourceSet = buildData.getResourceSet();
 		Iterable<URI> sourceLevelUris = Iterables.concat(buildData.getToBeUpdated(), buildData.getURIQueue());
@@ -501,6 +894,24 @@ public class ClusteringBuilderState extends AbstractBuilderState {
         if (allDeltas.isEmpty()) {
             return;
         }
+        if (oldState == this && isReverseDependencyIndexEnabled()) {
+            // only visit the resources that may depend on the changes
+            Set<URI> candidates = getReverseDependencyIndex().getCandidates(changedDeltas, allRemainingURIs);
+            final SubMonitor progress = SubMonitor.convert(monitor, candidates.size() / MONITOR_QUEUE_CHUNK + 1);
+            int i = 0;
+            for (URI candidateURI : candidates) {
+                if (progress.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                if (queueIfAffected(candidateURI, oldState, newState, changedDeltas, allDeltas, buildData)) {
+                    allRemainingURIs.remove(candidateURI);
+                }
+                i++;
+                if (i % MONITOR_QUEUE_CHUNK == 0)
+                    progress.worked(1);
+            }
+            return;
+        }
         final SubMonitor progress = SubMonitor.convert(monitor, allRemainingURIs.size() / MONITOR_QUEUE_CHUNK + 1);
         Iterator<URI> iter = allRemainingURIs.iterator();
         int i = 0;
@@ -509,26 +920,8 @@ public class ClusteringBuilderState extends AbstractBuilderState {
                 throw new OperationCanceledException();
             }
             final URI candidateURI = iter.next();
-            final IResourceDescription candidateDescription = oldState.getResourceDescription(candidateURI);
-            final IResourceDescription.Manager manager = getResourceDescriptionManager(candidateURI);
-            if (candidateDescription == null || manager == null) {
-                // If there is no description in the old state, there's no need to re-check this over and over.
+            if (queueIfAffected(candidateURI, oldState, newState, changedDeltas, allDeltas, buildData)) {
                 iter.remove();
-            } else {
-            	boolean affected;
-            	if ((manager instanceof IResourceDescription.Manager.AllChangeAware)) {
-            		affected = ((AllChangeAware) manager).isAffectedByAny(allDeltas, candidateDescription, newState);
-            	} else {
-            		if (changedDeltas.isEmpty()) {
-            			affected = false;
-            		} else {
-            			affected = manager.isAffected(changedDeltas, candidateDescription, newState);
-            		}
-            	}
-                if (affected) {
-                    buildData.queueURI(candidateURI);
-                    iter.remove();
-                }
             }
             i++;
             if (i % MONITOR_QUEUE_CHUNK == 0)
@@ -536,6 +929,155 @@ public class ClusteringBuilderState extends AbstractBuilderState {
         }
     }
 
+    /**
+     * Queues the candidate if it is affected by the given deltas.
+     * 
+     * @return <code>true</code> if the candidate does not need to be considered again during this build, either because
+     *         it was queued or because there is nothing to check.
+     */
+    private boolean queueIfAffected(
+            URI candidateURI,
+            IResourceDescriptions oldState,
+            CurrentDescriptions newState,
+            Collection<Delta> changedDeltas,
+            Collection<Delta> allDeltas,
+            BuildData buildData) {
+        if (oldState.getResourceDescription(candidateURI) == null || getResourceDescriptionManager(candidateURI) == null) {
+            // If there is no description in the old state, there's no need to re-check this over and over.
+            return true;
+        }
+        boolean affected = isAffected(candidateURI, oldState, newState, changedDeltas, allDeltas);
+        if (affected) {
+            buildData.queueURI(candidateURI);
+        }
+        return affected;
+    }
+
+    /**
+     * Whether the candidate, as it is described in the given descriptions, is affected by the deltas.
+     */
+    private boolean isAffected(
+            URI candidateURI,
+            IResourceDescriptions candidateDescriptions,
+            CurrentDescriptions newState,
+            Collection<Delta> changedDeltas,
+            Collection<Delta> allDeltas) {
+        final IResourceDescription candidateDescription = candidateDescriptions.getResourceDescription(candidateURI);
+        final IResourceDescription.Manager manager = getResourceDescriptionManager(candidateURI);
+        if (candidateDescription == null || manager == null) {
+            return false;
+        }
+        boolean affected;
+        if ((manager instanceof IResourceDescription.Manager.AllChangeAware)) {
+            affected = ((AllChangeAware) manager).isAffectedByAny(allDeltas, candidateDescription, newState);
+        } else {
+            if (changedDeltas.isEmpty()) {
+                affected = false;
+            } else {
+                affected = manager.isAffected(changedDeltas, candidateDescription, newState);
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Whether {@link #queueAffectedResources(Set, IResourceDescriptions, CurrentDescriptions, Collection, Collection, BuildData, IProgressMonitor)
+     * queueAffectedResources} looks up the candidates in the {@link ReverseDependencyIndex} instead of checking every
+     * remaining resource.
+     * 
+     * @since 2.13
+     */
+    protected boolean isReverseDependencyIndexEnabled() {
+        return true;
+    }
+
+    /**
+     * Returns the index of the current state, which is built on first access and kept up to date with every update.
+     * 
+     * @since 2.13
+     */
+    protected synchronized ReverseDependencyIndex getReverseDependencyIndex() {
+        if (reverseDependencyIndex == null) {
+            ReverseDependencyIndex index = new ReverseDependencyIndex();
+            for (IResourceDescription description : getAllResourceDescriptions()) {
+                addToReverseDependencyIndex(index, description);
+            }
+            reverseDependencyIndex = index;
+        }
+        return reverseDependencyIndex;
+    }
+
+    /**
+     * Registers a resource description with the index. Resources are only indexed by their dependencies if the
+     * {@link #isIndexableManager(IResourceDescription.Manager) manager} decides about affectedness solely based on
+     * imported names and referenced resources.
+     * 
+     * @since 2.13
+     */
+    protected void addToReverseDependencyIndex(ReverseDependencyIndex index, IResourceDescription description) {
+        IResourceDescription.Manager manager = getResourceDescriptionManager(description.getURI());
+        if (manager == null) {
+            index.remove(description.getURI());
+        } else if (isIndexableManager(manager)) {
+            index.add(description);
+        } else {
+            index.addUnindexed(description.getURI());
+        }
+    }
+
+    /**
+     * Managers that are not known to compute affectedness from imported names and referenced resources only are asked
+     * for every change, as before.
+     * 
+     * @since 2.13
+     */
+    protected boolean isIndexableManager(IResourceDescription.Manager manager) {
+        if (manager instanceof AllChangeAware) {
+            return false;
+        }
+        Class<?> managerClass = manager.getClass();
+        return managerClass == DefaultResourceDescriptionManager.class
+                || managerClass == DerivedStateAwareResourceDescriptionManager.class;
+    }
+
+    @Override
+    public synchronized ImmutableList<Delta> update(BuildData buildData, IProgressMonitor monitor) {
+        ImmutableList<Delta> result = super.update(buildData, monitor);
+        updateReverseDependencyIndex(result);
+        return result;
+    }
+
+    @Override
+    public synchronized ImmutableList<Delta> clean(Set<URI> toBeRemoved, IProgressMonitor monitor) {
+        ImmutableList<Delta> result = super.clean(toBeRemoved, monitor);
+        updateReverseDependencyIndex(result);
+        return result;
+    }
+
+    /**
+     * Forgets the reverse dependencies of the former data. They are rebuilt from the new data on first access.
+     * 
+     * @since 2.13
+     */
+    @Override
+    protected synchronized void setResourceDescriptionsData(ResourceDescriptionsData newData) {
+        super.setResourceDescriptionsData(newData);
+        reverseDependencyIndex = null;
+    }
+
+    private void updateReverseDependencyIndex(Collection<Delta> deltas) {
+        if (reverseDependencyIndex != null) {
+            for (Delta delta : deltas) {
+                IResourceDescription description = getResourceDescription(delta.getUri());
+                if (description == null) {
+                    reverseDependencyIndex.remove(delta.getUri());
+                } else {
+                    addToReverseDependencyIndex(reverseDependencyIndex, description);
+                }
+            }
+        }
+    }
+
     protected IResourceDescription.Manager getResourceDescriptionManager(URI uri) {
         IResourceServiceProvider resourceServiceProvider = managerRegistry.getResourceServiceProvider(uri);
         if (resourceServiceProvider == null) {
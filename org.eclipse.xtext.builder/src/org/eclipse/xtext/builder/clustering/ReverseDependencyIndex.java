@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.builder.clustering;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescription.Delta;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * An inverted index from imported names and referenced resource URIs to the URIs of the resources that depend on
+ * them. It is used by the {@link ClusteringBuilderState} to find the resources that are possibly affected by a set of
+ * changes without asking the {@link IResourceDescription.Manager manager} of every resource in the index.
+ *
+ * Resources whose manager decides about affectedness by other means are registered as unindexed. They are always
+ * reported as candidates.
+ *
+ * The index is not thread safe. It is only accessed while the builder state is locked.
+ *
+ * @since 2.13
+ */
+public class ReverseDependencyIndex {
+
+	private final Map<QualifiedName, Set<URI>> importingResources = Maps.newHashMap();
+
+	private final Map<URI, Set<URI>> referencingResources = Maps.newHashMap();
+
+	/**
+	 * The keys that were registered for a resource. Used to remove the resource from the index.
+	 */
+	private final Map<URI, Entry> entries = Maps.newHashMap();
+
+	private final Set<URI> unindexed = Sets.newLinkedHashSet();
+
+	private static class Entry {
+		private final Set<QualifiedName> importedNames;
+		private final Set<URI> referencedResources;
+
+		private Entry(Set<QualifiedName> importedNames, Set<URI> referencedResources) {
+			this.importedNames = importedNames;
+			this.referencedResources = referencedResources;
+		}
+	}
+
+	/**
+	 * Registers the dependencies of the given resource description. An existing registration for the same URI is
+	 * replaced.
+	 */
+	public void add(IResourceDescription description) {
+		URI uri = description.getURI();
+		remove(uri);
+		Set<QualifiedName> importedNames = Sets.newHashSet();
+		for (QualifiedName importedName : description.getImportedNames()) {
+			QualifiedName key = importedName.toLowerCase();
+			if (importedNames.add(key)) {
+				put(importingResources, key, uri);
+			}
+		}
+		Set<URI> referencedResources = Sets.newHashSet();
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			URI targetURI = reference.getTargetEObjectUri();
+			if (targetURI != null) {
+				URI key = targetURI.trimFragment();
+				if (!uri.equals(key) && referencedResources.add(key)) {
+					put(referencingResources, key, uri);
+				}
+			}
+		}
+		entries.put(uri, new Entry(importedNames, referencedResources));
+	}
+
+	/**
+	 * Registers a resource whose dependencies are not known to the index. It will be reported as a candidate for every
+	 * change.
+	 */
+	public void addUnindexed(URI uri) {
+		remove(uri);
+		unindexed.add(uri);
+	}
+
+	public void remove(URI uri) {
+		if (unindexed.remove(uri)) {
+			return;
+		}
+		Entry entry = entries.remove(uri);
+		if (entry != null) {
+			for (QualifiedName importedName : entry.importedNames) {
+				removeFrom(importingResources, importedName, uri);
+			}
+			for (URI referencedResource : entry.referencedResources) {
+				removeFrom(referencingResources, referencedResource, uri);
+			}
+		}
+	}
+
+	public void clear() {
+		importingResources.clear();
+		referencingResources.clear();
+		entries.clear();
+		unindexed.clear();
+	}
+
+	/**
+	 * Returns the URIs of all resources in <code>remaining</code> that may be affected by the given deltas, i.e. the
+	 * resources that import a name that is exported by the old or new state of a delta, the resources that reference
+	 * one of the changed resources, and all unindexed resources. The result is a superset of the affected resources.
+	 */
+	public Set<URI> getCandidates(Collection<Delta> changedDeltas, Set<URI> remaining) {
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (Delta delta : changedDeltas) {
+			addAll(result, referencingResources.get(delta.getUri()));
+			addCandidates(result, delta.getOld());
+			addCandidates(result, delta.getNew());
+		}
+		result.addAll(unindexed);
+		result.retainAll(remaining);
+		return result;
+	}
+
+	private void addCandidates(Set<URI> result, IResourceDescription description) {
+		if (description == null) {
+			return;
+		}
+		for (IEObjectDescription exported : description.getExportedObjects()) {
+			addAll(result, importingResources.get(exported.getName().toLowerCase()));
+		}
+	}
+
+	/**
+	 * @return the URIs of the resources that are registered as unindexed.
+	 */
+	public Set<URI> getUnindexed() {
+		return Collections.unmodifiableSet(unindexed);
+	}
+
+	private static void addAll(Set<URI> result, Set<URI> uris) {
+		if (uris != null) {
+			result.addAll(uris);
+		}
+	}
+
+	private static <K> void put(Map<K, Set<URI>> map, K key, URI uri) {
+		Set<URI> uris = map.get(key);
+		if (uris == null) {
+			uris = Sets.newHashSet();
+			map.put(key, uris);
+		}
+		uris.add(uri);
+	}
+
+	private static <K> void removeFrom(Map<K, Set<URI>> map, K key, URI uri) {
+		Set<URI> uris = map.get(key);
+		if (uris != null) {
+			uris.remove(uri);
+			if (uris.isEmpty()) {
+				map.remove(key);
+			}
+		}
+	}
+
+}
@@ -7,7 +7,10 @@
  *******************************************************************************/
 package org.eclipse.xtext.builder.impl;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
@@ -26,17 +29,20 @@ import org.eclipse.xtext.resource.impl.ChangedResourceDescriptionDelta;
 import org.eclipse.xtext.resource.impl.CoarseGrainedChangeEvent;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionChangeEvent;
 import org.eclipse.xtext.ui.editor.IDirtyStateManager;
+import org.eclipse.xtext.ui.editor.IDirtyStateManagerExtension;
+import org.eclipse.xtext.ui.editor.findrefs.IReferencingResourcesIndex;
 import org.eclipse.xtext.ui.notification.IStateChangeEventBroker;
 
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
  */
-public class DirtyStateAwareResourceDescriptions extends AbstractResourceDescriptionChangeEventSource implements IResourceDescriptions, IShadowedResourceDescriptions {
+public class DirtyStateAwareResourceDescriptions extends AbstractResourceDescriptionChangeEventSource implements IResourceDescriptions, IShadowedResourceDescriptions, IReferencingResourcesIndex {
 
 	private final IDirtyStateManager dirtyStateManager;
 	private final IBuilderState globalDescriptions;
@@ -142,6 +148,30 @@ public class DirtyStateAwareResourceDescriptions extends AbstractResourceDescrip
 		return globalDescriptions.isEmpty();
 	}
 
+	/**
+	 * The references of dirty resources may differ from the persisted ones, so all dirty resources are candidates.
+	 * 
+	 * @since 2.13
+	 */
+	@Override
+	public Set<URI> getReferencingResources(Collection<URI> targetResourceURIs) {
+		if (!(globalDescriptions instanceof IReferencingResourcesIndex) || !(dirtyStateManager instanceof IDirtyStateManagerExtension))
+			return null;
+		Set<URI> persisted = ((IReferencingResourcesIndex) globalDescriptions).getReferencingResources(targetResourceURIs);
+		if (persisted == null)
+			return null;
+		List<URI> dirty = ((IDirtyStateManagerExtension) dirtyStateManager).getDirtyResourceURIs();
+		if (dirty.isEmpty())
+			return persisted;
+		Set<URI> result = Sets.newLinkedHashSet(persisted);
+		for (URI uri : dirty) {
+			// like getAllResourceDescriptions, only resources that are known to the persisted state
+			if (globalDescriptions.getResourceDescription(uri) != null)
+				result.add(uri);
+		}
+		return result;
+	}
+
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjects() {
 		return Iterables.concat(Iterables.transform(getAllResourceDescriptions(), new Function<ISelectable, Iterable<IEObjectDescription>>() {
@@ -33,6 +33,14 @@ public class BuilderPreferenceAccess {
 	 */
 	public static final String PREF_AUTO_BUILDING = "autobuilding"; //$NON-NLS-1$
 
+	/**
+	 * Name of a workspace wide preference of the builder bundle for the number of threads that are used for parallel
+	 * building by all languages. A value less than one uses the number of available processors.
+	 * 
+	 * @since 2.13
+	 */
+	public static final String PREF_BUILD_THREADS = "buildThreads"; //$NON-NLS-1$
+
 	public static class Initializer implements IPreferenceStoreInitializer {
 		private IOutputConfigurationProvider outputConfigurationProvider;
 
@@ -13,10 +13,14 @@ package org.eclipse.xtext.builder.resourceloader;
 import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
 
@@ -34,6 +38,7 @@ import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.ui.resource.IResourceSetProvider;
+import org.eclipse.xtext.util.Pair;
 import org.eclipse.xtext.util.Triple;
 import org.eclipse.xtext.util.Tuples;
 
@@ -50,14 +55,32 @@ public class ParallelResourceLoader extends AbstractResourceLoader {
 
 	private static final long MAX_WAIT_TIME = TimeUnit.SECONDS.toMillis(60);
 
+	private static final long QUEUE_OFFER_TIMEOUT = 50;
+
 	private final int nThreads;
 	private final int queueSize;
+	private final ExecutorService sharedExecutor;
 	private long timeout;
 
 	public ParallelResourceLoader(IResourceSetProvider resourceSetProvider, Sorter sorter, int nThreads, int queueSize) {
 		super(resourceSetProvider, sorter);
 		this.nThreads = nThreads;
 		this.queueSize = queueSize;
+		this.sharedExecutor = null;
+		this.timeout = MAX_WAIT_TIME;
+	}
+
+	/**
+	 * Creates a loader that runs its load jobs on the given executor instead of creating a thread pool for each load
+	 * operation. The executor is not shut down by the loader.
+	 * 
+	 * @since 2.13
+	 */
+	public ParallelResourceLoader(IResourceSetProvider resourceSetProvider, Sorter sorter, ExecutorService sharedExecutor, int queueSize) {
+		super(resourceSetProvider, sorter);
+		this.nThreads = 0;
+		this.queueSize = queueSize;
+		this.sharedExecutor = sharedExecutor;
 		this.timeout = MAX_WAIT_TIME;
 	}
 
@@ -97,11 +120,14 @@ public class ParallelResourceLoader extends AbstractResourceLoader {
 	private class ParallelLoadOperation implements LoadOperation {
 
 		private final BlockingQueue<Triple<URI, Resource, Throwable>> resourceQueue;
-		private final ThreadLocal<ResourceSet> resourceSetProvider;
+		private final Queue<ResourceSet> idleResourceSets = new ConcurrentLinkedQueue<ResourceSet>();
+		private final IProject project;
 		private final ExecutorService executor;
 		private final ResourceSet parent;
 		private final long waitTime;
-		private int toProcess;
+		private volatile int toProcess;
+		private final List<Pair<URI, Future<?>>> jobs = Lists.newArrayList();
+		private volatile boolean cancelled;
 
 		public ParallelLoadOperation(final ResourceSet parent, final IProject project) {
 			this.parent = parent;
@@ -110,19 +136,32 @@ public class ParallelResourceLoader extends AbstractResourceLoader {
 			} else {
 				this.resourceQueue = new ArrayBlockingQueue<Triple<URI, Resource, Throwable>>(queueSize);
 			}
-			this.resourceSetProvider = new ThreadLocal<ResourceSet>() {
-				@Override
-				protected ResourceSet initialValue() {
-					ResourceSet resourceSet = getResourceSetProvider().get(project);
-					resourceSet.getLoadOptions().putAll(parent.getLoadOptions());
-					resourceSet.setURIConverter(parent.getURIConverter());
-					return resourceSet;
-				}
-			};
-			this.executor = Executors.newFixedThreadPool(nThreads);
+			this.project = project;
+			this.executor = sharedExecutor != null ? sharedExecutor : Executors.newFixedThreadPool(nThreads);
 			this.waitTime = getTimeout();
 		}
 
+		/**
+		 * Returns a resource set that is not used by another load job. The resource sets are kept by the operation
+		 * instead of the worker threads, since the threads of a shared executor outlive the operation.
+		 */
+		private ResourceSet acquireResourceSet() {
+			ResourceSet resourceSet = idleResourceSets.poll();
+			if (resourceSet == null) {
+				resourceSet = getResourceSetProvider().get(project);
+				resourceSet.getLoadOptions().putAll(parent.getLoadOptions());
+				resourceSet.setURIConverter(parent.getURIConverter());
+			}
+			return resourceSet;
+		}
+
+		private void releaseResourceSet(ResourceSet resourceSet) {
+			resourceSet.getResources().clear();
+			if (!cancelled && hasNext()) {
+				idleResourceSets.add(resourceSet);
+			}
+		}
+
 		private class ResourceLoadJob implements Runnable {
 			private final URI uri;
 
@@ -136,31 +175,72 @@ public class ParallelResourceLoader extends AbstractResourceLoader {
 				Resource resource = null;
 
 				// load resource
+				ResourceSet localResourceSet = null;
 				try {
-					ResourceSet localResourceSet = resourceSetProvider.get();
+					localResourceSet = acquireResourceSet();
 					resource = loadResource(uri, localResourceSet, parent);
-					localResourceSet.getResources().clear();
 				} catch (Throwable t) {
 					exception = t;
+				} finally {
+					if (localResourceSet != null) {
+						releaseResourceSet(localResourceSet);
+					}
 				}
 
 				// push resource to the queue, wait if queue is full
+				// a shared executor does not interrupt the job on cancel, so the flag is checked while waiting
+				Triple<URI, Resource, Throwable> result = Tuples.create(uri, resource, exception);
 				try {
-					resourceQueue.put(Tuples.create(uri, resource, exception));
+					while (!cancelled && !resourceQueue.offer(result, QUEUE_OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+						// retry
+					}
 				} catch (InterruptedException e) {
 					Thread.currentThread().interrupt();
 				}
 			}
 		}
 
+		/**
+		 * Waits for the next result of a load job. The pool of a shared executor may compensate for a blocked worker,
+		 * such that the load jobs are not starved by the tasks that wait for them.
+		 */
+		private class QueuePoll implements ForkJoinPool.ManagedBlocker {
+			private Triple<URI, Resource, Throwable> result;
+			private boolean done;
+
+			@Override
+			public boolean block() throws InterruptedException {
+				if (!done) {
+					result = resourceQueue.poll(waitTime, TimeUnit.MILLISECONDS);
+					done = true;
+				}
+				return done;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				if (!done) {
+					result = resourceQueue.poll();
+					done = result != null;
+				}
+				return done;
+			}
+		}
+
 		@Override
 		public LoadResult next() {
 			if (!hasNext())
 				throw new NoSuchElementException("The resource queue is empty or the execution was cancelled.");
 			Triple<URI, Resource, Throwable> result = null;
 			try {
-				result = resourceQueue.poll(waitTime, TimeUnit.MILLISECONDS);
+				// the caller may be a worker of the shared executor that also runs the load jobs
+				QueuePoll poll = new QueuePoll();
+				ForkJoinPool.managedBlock(poll);
+				result = poll.result;
 				toProcess--;
+				if (!hasNext()) {
+					idleResourceSets.clear();
+				}
 			} catch (InterruptedException e) {
 				Thread.currentThread().interrupt();
 			}
@@ -202,9 +282,11 @@ public class ParallelResourceLoader extends AbstractResourceLoader {
 			toProcess += uris.size();
 			Collection<URI> workload = getSorter().sort(uris);
 			for(URI uri : workload) {
-				executor.execute(new ResourceLoadJob(uri));
+				jobs.add(Tuples.<URI, Future<?>>pair(uri, executor.submit(new ResourceLoadJob(uri))));
+			}
+			if (executor != sharedExecutor) {
+				executor.shutdown();
 			}
-			executor.shutdown();
 		}
 		
 		/**
@@ -228,13 +310,19 @@ public class ParallelResourceLoader extends AbstractResourceLoader {
 		@Override
 		public Collection<URI> cancel() {
 			toProcess = 0;
-			List<Runnable> jobs = executor.shutdownNow();
+			cancelled = true;
 			List<URI> ret = Lists.newArrayList();
-			for (Runnable job : jobs) {
-				if (job instanceof ResourceLoadJob) {
-					ret.add(((ResourceLoadJob) job).uri);
+			for (Pair<URI, Future<?>> job : jobs) {
+				// only jobs that did not start yet can be cancelled
+				if (job.getSecond().cancel(false)) {
+					ret.add(job.getFirst());
 				}
 			}
+			jobs.clear();
+			idleResourceSets.clear();
+			if (executor != sharedExecutor) {
+				executor.shutdownNow();
+			}
 			return ret;
 		}
 
@@ -12,6 +12,7 @@ package org.eclipse.xtext.builder.resourceloader;
 
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.xtext.builder.BuildExecutors;
 import org.eclipse.xtext.builder.resourceloader.IResourceLoader.Sorter;
 import org.eclipse.xtext.ui.resource.IResourceSetProvider;
 
@@ -33,6 +34,9 @@ public final class ResourceLoaderProviders {
 		@Inject
 		private Sorter resourceSorter;
 
+		@Inject
+		private BuildExecutors buildExecutors;
+
 		public IResourceSetProvider getResourceSetProvider() {
 			return resourceSetProvider;
 		}
@@ -40,26 +44,37 @@ public final class ResourceLoaderProviders {
 		public Sorter getResourceSorter() {
 			return resourceSorter;
 		}
+
+		/**
+		 * @since 2.13
+		 */
+		public BuildExecutors getBuildExecutors() {
+			return buildExecutors;
+		}
 	}
 
-	/** Returns a loader with a parallelization degree of 2 to 4 (depending on how many processors are available). */
+	/** Returns a loader that runs on the shared {@link BuildExecutors build executor}. */
 	public static Provider<IResourceLoader> getParallelLoader() {
-		int nThreads = getNumberOfThreads();
-		return getParallelLoader(nThreads, 0);
+		return new AbstractResourceLoaderProvider() {
+			@Override
+			public IResourceLoader get() {
+				return new ParallelResourceLoader(getResourceSetProvider(), getResourceSorter(), getBuildExecutors().getExecutor(), 0);
+			}
+		};
 	}
 
 	/**
 	 * since 2.12
 	 */
-	public static Provider<IResourceLoader> getParallelLoader(long timeoutTime, TimeUnit timeoutUnit) {
-		int nThreads = getNumberOfThreads();
-		return getParallelLoader(nThreads, 0, timeoutTime, timeoutUnit);
-	}
-
-	private static int getNumberOfThreads() {
-		int nProcessors = Runtime.getRuntime().availableProcessors();
-		int nThreads = Math.max(2, Math.min(4, nProcessors));
-		return nThreads;
+	public static Provider<IResourceLoader> getParallelLoader(final long timeoutTime, final TimeUnit timeoutUnit) {
+		return new AbstractResourceLoaderProvider() {
+			@Override
+			public IResourceLoader get() {
+				ParallelResourceLoader resourceLoader = new ParallelResourceLoader(getResourceSetProvider(), getResourceSorter(), getBuildExecutors().getExecutor(), 0);
+				resourceLoader.setTimeout(timeoutTime, timeoutUnit);
+				return resourceLoader;
+			}
+		};
 	}
 
 	public static Provider<IResourceLoader> getParallelLoader(final int nrOfThreads) {
@@ -7,6 +7,8 @@
  *******************************************************************************/
 package org.eclipse.xtext.common.types.access.jdt;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.URI;
@@ -28,6 +30,8 @@ import org.eclipse.xtext.common.types.JvmDeclaredType;
 import org.eclipse.xtext.common.types.JvmGenericType;
 import org.eclipse.xtext.common.types.JvmOperation;
 import org.eclipse.xtext.common.types.JvmParameterizedTypeReference;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.JvmTypeReference;
 import org.eclipse.xtext.common.types.JvmVoid;
 import org.eclipse.xtext.common.types.TypesFactory;
 import org.eclipse.xtext.common.types.access.IJvmTypeProvider;
@@ -191,6 +195,46 @@ public class JdtTypeProviderTest extends AbstractJdtTypeProviderTest {
 		assertNull(getTypeProvider().findTypeByName("interface myAggregation"));
 	}
 
+	@Test public void testFindTypesByName() {
+		JvmType loaded = typeProvider.findTypeByName("java.lang.Object");
+		List<JvmType> types = typeProvider.findTypesByName(Arrays.asList(
+				"java.util.Map", "java.lang.Object", "does.not.Exist", "int", "java.util.Map$Entry", "java.util.List"));
+		assertEquals(6, types.size());
+		assertEquals("java.util.Map", types.get(0).getIdentifier());
+		assertSame(loaded, types.get(1));
+		assertNull(types.get(2));
+		assertEquals("int", types.get(3).getIdentifier());
+		assertEquals("java.util.Map$Entry", types.get(4).getIdentifier());
+		assertEquals("java.util.List", types.get(5).getIdentifier());
+		assertSame(types.get(0), typeProvider.findTypeByName("java.util.Map"));
+		assertSame(types.get(4).eContainer(), types.get(0));
+	}
+
+	@Test public void testSuperTypesResolvedWithType() {
+		final int[] resolutions = new int[1];
+		ResourceSet countingResourceSet = new ResourceSetImpl();
+		JdtTypeProvider countingProvider = new JdtTypeProvider(projectProvider.getJavaProject(countingResourceSet),
+				countingResourceSet) {
+			@Override
+			protected JdtBasedTypeFactory createTypeFactory() {
+				return new JdtBasedTypeFactory(getTypeUriHelper(), null) {
+					@Override
+					protected IBinding[] resolveBindings(IJavaElement[] jdtTypes, IJavaProject javaProject) {
+						resolutions[0]++;
+						return super.resolveBindings(jdtTypes, javaProject);
+					}
+				};
+			}
+		};
+		JvmGenericType arrayList = (JvmGenericType) countingProvider.findTypeByName("java.util.ArrayList");
+		assertEquals(1, resolutions[0]);
+		assertFalse(arrayList.getSuperTypes().isEmpty());
+		for (JvmTypeReference superType : arrayList.getSuperTypes()) {
+			assertFalse(superType.getType().eIsProxy());
+		}
+		assertEquals(1, resolutions[0]);
+	}
+
 	@Override
 	protected String getCollectionParamName() {
 		return "c";
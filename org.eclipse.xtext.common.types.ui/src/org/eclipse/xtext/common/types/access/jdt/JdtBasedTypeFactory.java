@@ -94,6 +94,7 @@ import org.eclipse.xtext.util.internal.Stopwatches.StoppedTask;
 import org.osgi.framework.Version;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
  * Internal implementation that allows to convert Java top-level classes that
@@ -278,6 +279,17 @@ public class JdtBasedTypeFactory extends AbstractDeclaredTypeFactory implements
 	 * and cleared when top-level type {@link #createType(IType) creation} completes.
 	 */
 	private ITypeBinding classTypeBinding;
+
+	/**
+	 * The bindings of the types of the current {@link #beginBatch(List, IJavaProject) batch} by handle identifier.
+	 * While a batch is running, the proxy caches are not cleared after each type.
+	 */
+	private Map<String, IBinding> batchBindings;
+
+	/**
+	 * The project the bindings of the current batch were resolved in.
+	 */
+	private IJavaProject batchProject;
 	
 	private StoppedTask resolveAnnotations = Stopwatches.forTask("resolve annotations (JdtBasedTypeFactory)");
 	private StoppedTask resolveMembers = Stopwatches.forTask("resolve members (JdtBasedTypeFactory)");
@@ -312,7 +324,11 @@ public class JdtBasedTypeFactory extends AbstractDeclaredTypeFactory implements
 		if (jdtType.getDeclaringType() != null)
 			throw new IllegalArgumentException("Cannot create type from non-toplevel-type: '"
 					+ jdtType.getFullyQualifiedName() + "'.");
-		IBinding binding = resolveBindings(jdtType, javaProject);
+		IBinding binding = null;
+		if (batchBindings != null && javaProject.equals(batchProject))
+			binding = batchBindings.remove(jdtType.getHandleIdentifier());
+		if (binding == null)
+			binding = resolveBindings(jdtType, javaProject);
 		if (binding == null) {
 			IJavaProject fallbackProject = jdtType.getJavaProject();
 			// fallback to the project of the given jdtType if it is different from the explicitly given project
@@ -333,9 +349,12 @@ public class JdtBasedTypeFactory extends AbstractDeclaredTypeFactory implements
 			
 			JvmDeclaredType result = createType(jdtType, typeBinding);
 
-			// Clear the cached information.
+			// Clear the cached information unless it is shared by the remaining types of a batch.
 			//
-			clearCache();
+			if (batchBindings == null)
+				clearCache();
+			else if (batchBindings.isEmpty())
+				endBatch();
 			createType.stop();
 			return result;
 		} else {
@@ -380,7 +399,83 @@ public class JdtBasedTypeFactory extends AbstractDeclaredTypeFactory implements
 		}
 	}
 
+	/**
+	 * Creates the given top level types like {@link #createType(IType, IJavaProject)} in a
+	 * {@link #beginBatch(List, IJavaProject) batch}.
+	 * 
+	 * @return the created types in the order of the given types.
+	 * @since 2.13
+	 */
+	public List<JvmDeclaredType> createTypes(List<IType> jdtTypes, IJavaProject javaProject) {
+		List<JvmDeclaredType> result = Lists.newArrayListWithCapacity(jdtTypes.size());
+		beginBatch(jdtTypes, javaProject);
+		try {
+			for (IType jdtType : jdtTypes) {
+				result.add(createType(jdtType, javaProject));
+			}
+		} finally {
+			endBatch();
+		}
+		return result;
+	}
+
+	/**
+	 * Resolves the bindings of the given top level types in the context of the given project with a single parser
+	 * invocation. Until the batch {@link #endBatch() ends}, {@link #createType(IType, IJavaProject) creating} one of
+	 * these types in that project uses its resolved binding, and the caches of proxies and qualified names are shared
+	 * by all created types. Since the bindings of a batch share their lookup environment, types that refer to the
+	 * same types reuse the same proxies. The batch ends when all of its types were created, when the next batch
+	 * begins or when {@link #endBatch()} is called, whatever happens first. Until then it holds on to the lookup
+	 * environment of its bindings.
+	 * 
+	 * @since 2.13
+	 */
+	public void beginBatch(List<IType> jdtTypes, IJavaProject javaProject) {
+		endBatch();
+		batchProject = javaProject;
+		batchBindings = Maps.newHashMapWithExpectedSize(jdtTypes.size());
+		if (jdtTypes.isEmpty())
+			return;
+		IBinding[] bindings = resolveBindings(jdtTypes.toArray(new IJavaElement[jdtTypes.size()]), javaProject);
+		for (int i = 0; i < bindings.length; i++) {
+			if (bindings[i] != null)
+				batchBindings.put(jdtTypes.get(i).getHandleIdentifier(), bindings[i]);
+		}
+	}
+
+	/**
+	 * @return whether the given type is part of the current batch in the context of the given project and was not
+	 *         created yet.
+	 * @since 2.13
+	 */
+	public boolean isInBatch(IType jdtType, IJavaProject javaProject) {
+		return batchBindings != null && javaProject.equals(batchProject)
+				&& batchBindings.containsKey(jdtType.getHandleIdentifier());
+	}
+
+	/**
+	 * Discards the unused bindings of the current batch and clears the shared caches.
+	 * 
+	 * @since 2.13
+	 */
+	public void endBatch() {
+		if (batchBindings != null) {
+			batchBindings = null;
+			batchProject = null;
+			clearCache();
+		}
+	}
+
 	private IBinding resolveBindings(IType jdtType, IJavaProject javaProject) {
+		return resolveBindings(new IJavaElement[] { jdtType }, javaProject)[0];
+	}
+
+	/**
+	 * Resolves the bindings of the given top level types with a single parser invocation.
+	 * 
+	 * @since 2.13
+	 */
+	protected IBinding[] resolveBindings(IJavaElement[] jdtTypes, IJavaProject javaProject) {
 		ThreadLocal<Boolean> abortOnMissingSource = JavaModelManager.getJavaModelManager().abortOnMissingSource;
 		Boolean wasAbortOnMissingSource = abortOnMissingSource.get();
 		try {
@@ -397,9 +492,9 @@ public class JdtBasedTypeFactory extends AbstractDeclaredTypeFactory implements
 			options.put(JavaCore.COMPILER_DOC_COMMENT_SUPPORT, JavaCore.DISABLED);
 			parser.setCompilerOptions(options);
 	
-			IBinding[] bindings = parser.createBindings(new IJavaElement[] { jdtType }, null);
+			IBinding[] bindings = parser.createBindings(jdtTypes, null);
 			resolveBinding.stop();
-			return bindings[0];
+			return bindings;
 		} finally {
 			abortOnMissingSource.set(wasAbortOnMissingSource);
 		}
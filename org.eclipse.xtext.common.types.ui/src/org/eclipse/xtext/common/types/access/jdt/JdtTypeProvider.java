@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -66,6 +67,7 @@ import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
 import org.eclipse.xtext.util.Strings;
 import org.eclipse.xtext.util.Wrapper;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
@@ -167,6 +169,116 @@ public class JdtTypeProvider extends AbstractJvmTypeProvider implements IJdtType
 		return result;
 	}
 
+	/**
+	 * Finds the types with the given names like {@link #findTypeByName(String)}. The bindings of the top level types
+	 * that are created from the Java model are resolved at once and the created types share their proxies, which is
+	 * considerably faster than finding many types one by one. Even when the types are found one by one, each type
+	 * that is created from the Java model is resolved in one batch with its direct super types.
+	 * 
+	 * @return the found types in the order of the given names, <code>null</code> for the types that were not found.
+	 * @since 2.13
+	 */
+	public List<JvmType> findTypesByName(List<String> names) {
+		ResourceSet resourceSet = getResourceSet();
+		if (resourceSet instanceof SynchronizedXtextResourceSet) {
+			synchronized (((SynchronizedXtextResourceSet) resourceSet).getLock()) {
+				return doFindTypesByName(names);
+			}
+		}
+		return doFindTypesByName(names);
+	}
+
+	private List<JvmType> doFindTypesByName(List<String> names) {
+		Set<IType> batch = Sets.newLinkedHashSet();
+		for (String name : names) {
+			IType type = findTypeToCreate(name);
+			if (type != null && type.exists()) {
+				batch.add(type);
+			}
+		}
+		List<JvmType> result = Lists.newArrayListWithCapacity(names.size());
+		typeFactory.beginBatch(Lists.newArrayList(batch), javaProject);
+		try {
+			for (String name : names) {
+				result.add(findTypeByName(name));
+			}
+		} finally {
+			typeFactory.endBatch();
+		}
+		return result;
+	}
+
+	/**
+	 * Linking a reference to a type usually needs the super types of that type right after it, e.g. to find its
+	 * features. So the direct super types that have to be created from the Java model, too, are resolved in one batch
+	 * with the given type. They are created when their proxies are resolved.
+	 * 
+	 * @return the given top level type followed by its direct super types that are neither loaded nor indexed yet.
+	 */
+	private List<IType> getLinkingBatch(IType type) {
+		List<IType> result = Lists.newArrayList(type);
+		try {
+			List<String> superTypeNames = Lists.newArrayList(type.getSuperInterfaceNames());
+			if (type.getSuperclassName() != null)
+				superTypeNames.add(0, type.getSuperclassName());
+			for (String superTypeName : superTypeNames) {
+				String name = resolveSuperTypeName(type, superTypeName);
+				if (name != null) {
+					IType superType = findTypeToCreate(name);
+					if (superType != null && superType.exists() && !result.contains(superType))
+						result.add(superType);
+				}
+			}
+		} catch (JavaModelException e) {
+			// resolve the super types on their own
+		} catch (IllegalArgumentException e) {
+			// resolve the super types on their own
+		}
+		return result;
+	}
+
+	/**
+	 * @return the binary name of the given super type name as declared by the given type, or <code>null</code> if
+	 *         it cannot be resolved unambiguously.
+	 */
+	/* @Nullable */
+	private String resolveSuperTypeName(IType type, String superTypeName) throws JavaModelException {
+		String erasure = Signature.getTypeErasure(superTypeName);
+		if (type.isBinary())
+			return erasure;
+		String[][] resolved = type.resolveType(erasure);
+		if (resolved == null || resolved.length != 1)
+			return null;
+		String typeName = resolved[0][1].replace('.', '$');
+		return resolved[0][0].length() == 0 ? typeName : resolved[0][0] + "." + typeName;
+	}
+
+	/**
+	 * @return the top level type that has to be created from the Java model to find the type with the given name.
+	 */
+	/* @Nullable */
+	private IType findTypeToCreate(String name) {
+		String signature = getSignature(name);
+		if (signature == null)
+			return null;
+		URI resourceURI = typeUriHelper.createResourceURI(signature);
+		if (resourceURI.segment(0) == PRIMITIVES || getLoadedResourceForJavaURI(resourceURI) != null)
+			return null;
+		try {
+			if (findObjectTypeInIndex(signature, resourceURI) != null)
+				return null;
+			return findObjectTypeInJavaProject(resourceURI);
+		} catch (JavaModelException e) {
+			return null;
+		} catch (NullPointerException e) { // JDT throws NPEs see https://bugs.eclipse.org/bugs/show_bug.cgi?id=369391
+			return null;
+		} catch (ShadowedTypeException e) {
+			return null;
+		} catch (UnknownNestedTypeException e) {
+			return null;
+		}
+	}
+
 	/* @Nullable */
 	private String getSignature(String name) {
 		if (Strings.isEmpty(name))
@@ -281,6 +393,8 @@ public class JdtTypeProvider extends AbstractJvmTypeProvider implements IJdtType
 	/* @Nullable */
 	private JvmType createResourceAndFindType(/* @NonNull */ URI resourceURI, /* @NonNull */ IType type, /* @NonNull */ String signature, boolean traverseNestedTypes)
 			throws IOException {
+		if (!typeFactory.isInBatch(type, javaProject))
+			typeFactory.beginBatch(getLinkingBatch(type), javaProject);
 		TypeResource resource = createResource(resourceURI, type);
 		resource.load(Collections.singletonMap(TypeResource.OPTION_CLASSPATH_CONTEXT, javaProject));
 		return findTypeBySignature(signature, resource, traverseNestedTypes);
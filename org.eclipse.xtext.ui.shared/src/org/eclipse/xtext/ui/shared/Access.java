@@ -7,6 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.shared;
 
+import org.eclipse.xtext.builder.BuildExecutors;
+import org.eclipse.xtext.builder.DerivedResourcesIndex;
+import org.eclipse.xtext.builder.GeneratedContentHashes;
 import org.eclipse.xtext.builder.builderState.IBuilderState;
 import org.eclipse.xtext.builder.impl.QueuedBuildData;
 import org.eclipse.xtext.resource.IResourceDescriptions;
@@ -16,6 +19,7 @@ import org.eclipse.xtext.ui.containers.StrictJavaProjectsState;
 import org.eclipse.xtext.ui.containers.WorkspaceProjectsState;
 import org.eclipse.xtext.ui.editor.IDirtyStateManager;
 import org.eclipse.xtext.ui.editor.IURIEditorOpener;
+import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchExecutor;
 import org.eclipse.xtext.ui.notification.IStateChangeEventBroker;
 import org.eclipse.xtext.ui.resource.IStorage2UriMapper;
 import org.eclipse.xtext.ui.resource.IStorage2UriMapperJdtExtensions;
@@ -165,4 +169,32 @@ public class Access {
 	public static Provider<QueuedBuildData> getQueuedBuildData() {
 		return Access.<QueuedBuildData>provider(QueuedBuildData.class);
 	}
+
+	/**
+	 * @since 2.13
+	 */
+	public static Provider<BuildExecutors> getBuildExecutors() {
+		return Access.<BuildExecutors>provider(BuildExecutors.class);
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	public static Provider<GeneratedContentHashes> getGeneratedContentHashes() {
+		return Access.<GeneratedContentHashes>provider(GeneratedContentHashes.class);
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	public static Provider<DerivedResourcesIndex> getDerivedResourcesIndex() {
+		return Access.<DerivedResourcesIndex>provider(DerivedResourcesIndex.class);
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	public static Provider<ReferenceSearchExecutor> getReferenceSearchExecutor() {
+		return Access.<ReferenceSearchExecutor>provider(ReferenceSearchExecutor.class);
+	}
 }
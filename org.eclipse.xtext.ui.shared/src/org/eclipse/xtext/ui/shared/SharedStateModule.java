@@ -11,7 +11,10 @@ import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.xtext.builder.BuildExecutors;
 import org.eclipse.xtext.builder.DerivedResourceMarkers;
+import org.eclipse.xtext.builder.DerivedResourcesIndex;
+import org.eclipse.xtext.builder.GeneratedContentHashes;
 import org.eclipse.xtext.builder.builderState.IBuilderState;
 import org.eclipse.xtext.builder.clustering.CurrentDescriptions;
 import org.eclipse.xtext.builder.impl.QueuedBuildData;
@@ -26,6 +29,7 @@ import org.eclipse.xtext.resource.impl.ResourceDescriptionsProvider;
 import org.eclipse.xtext.service.AbstractGenericModule;
 import org.eclipse.xtext.ui.editor.IDirtyStateManager;
 import org.eclipse.xtext.ui.editor.IURIEditorOpener;
+import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchExecutor;
 import org.eclipse.xtext.ui.generator.IDerivedResourceMarkers;
 import org.eclipse.xtext.ui.generator.trace.ITraceForStorageProvider;
 import org.eclipse.xtext.ui.generator.trace.StorageAwareTrace;
@@ -126,6 +130,34 @@ public class SharedStateModule extends AbstractGenericModule {
 		return Access.getQueuedBuildData();
 	}
 
+	/**
+	 * @since 2.13
+	 */
+	public Provider<BuildExecutors> provideBuildExecutors() {
+		return Access.getBuildExecutors();
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	public Provider<GeneratedContentHashes> provideGeneratedContentHashes() {
+		return Access.getGeneratedContentHashes();
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	public Provider<DerivedResourcesIndex> provideDerivedResourcesIndex() {
+		return Access.getDerivedResourcesIndex();
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	public Provider<ReferenceSearchExecutor> provideReferenceSearchExecutor() {
+		return Access.getReferenceSearchExecutor();
+	}
+
 	public Provider<IWorkspace> provideIWorkspace() {
 		return new Provider<IWorkspace>() {
 			@Override
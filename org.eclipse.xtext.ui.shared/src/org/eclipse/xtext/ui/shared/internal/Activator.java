@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.Plugin;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.xtext.builder.BuildExecutors;
 import org.eclipse.xtext.common.types.ui.notification.TypeResourceUnloader;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -120,6 +121,9 @@ public class Activator extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		if (injector != null) {
+			injector.getInstance(BuildExecutors.class).shutdown();
+		}
 		plugin = null;
 		injector = null;
 		if (initializer != null) {
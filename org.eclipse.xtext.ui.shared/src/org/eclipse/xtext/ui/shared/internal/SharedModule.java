@@ -14,6 +14,9 @@ import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.xtext.builder.BuildExecutors;
+import org.eclipse.xtext.builder.DerivedResourcesIndex;
+import org.eclipse.xtext.builder.GeneratedContentHashes;
 import org.eclipse.xtext.builder.builderState.IBuilderState;
 import org.eclipse.xtext.builder.builderState.IMarkerUpdater;
 import org.eclipse.xtext.builder.builderState.PersistedStateProvider;
@@ -41,6 +44,7 @@ import org.eclipse.xtext.ui.containers.WorkspaceProjectsStateHelper;
 import org.eclipse.xtext.ui.editor.DirtyStateManager;
 import org.eclipse.xtext.ui.editor.IDirtyStateManager;
 import org.eclipse.xtext.ui.editor.IURIEditorOpener;
+import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchExecutor;
 import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchResultContentProvider;
 import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchResultLabelProvider;
 import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchViewPage;
@@ -67,6 +71,7 @@ import org.eclipse.xtext.ui.workspace.EclipseProjectConfigProvider;
 import org.osgi.framework.BundleContext;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
 import com.google.inject.PrivateModule;
 import com.google.inject.Provider;
 import com.google.inject.Scopes;
@@ -156,10 +161,23 @@ public class SharedModule extends AbstractModule {
 		bind(IJdtHelper.class).to(JdtHelper.class).asEagerSingleton();
 		bind(WorkspaceProjectsStateHelper.class);
 		bind(QueuedBuildData.class);
+		bind(BuildExecutors.class).in(Scopes.SINGLETON);
+		bind(GeneratedContentHashes.class).in(Scopes.SINGLETON);
+		bind(DerivedResourcesIndex.class).in(Scopes.SINGLETON);
+		bind(ReferenceSearchExecutor.class).toProvider(new Provider<ReferenceSearchExecutor>() {
+			@Inject
+			private BuildExecutors buildExecutors;
+
+			@Override
+			public ReferenceSearchExecutor get() {
+				return new ReferenceSearchExecutor(buildExecutors.getExecutor(), buildExecutors.getThreadCount());
+			}
+		}).in(Scopes.SINGLETON);
 		bind(UriValidator.class);
 		bind(ISharedStateContributionRegistry.class).to(SharedStateContributionRegistryImpl.class);
 
 		boolean parallel = false;
+		bindConstant().annotatedWith(Names.named(ClusteringBuilderState.PARALLEL_CLUSTER_PROCESSING)).to(parallel);
 		if (parallel) {
 			bind(IResourceLoader.class).toProvider(ResourceLoaderProviders.getParallelLoader());
 
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.core.resource;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.ui.resource.UriPrefixTrie;
+import org.junit.Test;
+
+public class UriPrefixTrieTest {
+
+	@Test public void testMatches() {
+		UriPrefixTrie<String> trie = new UriPrefixTrie<String>();
+		trie.put(null, "all");
+		trie.put(URI.createURI("platform:/resource/"), "resource");
+		trie.put(URI.createURI("platform:/resource/foo/"), "foo");
+		trie.put(URI.createURI("platform:/resource/foo.bar/"), "foo.bar");
+		assertEquals(Arrays.asList("all", "resource", "foo"), trie.getMatches(URI.createURI("platform:/resource/foo/a/b.txt")));
+		assertEquals(Arrays.asList("all", "resource"), trie.getMatches(URI.createURI("platform:/resource/foo")));
+		assertEquals(Arrays.asList("all"), trie.getMatches(URI.createURI("file:/resource/foo/b.txt")));
+	}
+
+	@Test public void testUnstructuredPrefix() {
+		UriPrefixTrie<String> trie = new UriPrefixTrie<String>();
+		trie.put(URI.createURI("platform:/resource/foo"), "foo");
+		assertEquals(Arrays.asList("foo"), trie.getMatches(URI.createURI("platform:/resource/foo.bar/b.txt")));
+		assertEquals(Collections.emptyList(), trie.getMatches(URI.createURI("platform:/resource/bar/b.txt")));
+	}
+
+	@Test public void testRemove() {
+		UriPrefixTrie<String> trie = new UriPrefixTrie<String>();
+		URI prefix = URI.createURI("platform:/resource/foo/");
+		String first = new String("foo");
+		String second = new String("foo");
+		trie.put(prefix, first);
+		trie.put(prefix, second);
+		trie.remove(prefix, first);
+		assertEquals(1, trie.getMatches(URI.createURI("platform:/resource/foo/b.txt")).size());
+		assertSame(second, trie.getMatches(URI.createURI("platform:/resource/foo/b.txt")).get(0));
+		trie.remove(prefix, second);
+		assertTrue(trie.getMatches(URI.createURI("platform:/resource/foo/b.txt")).isEmpty());
+	}
+
+}
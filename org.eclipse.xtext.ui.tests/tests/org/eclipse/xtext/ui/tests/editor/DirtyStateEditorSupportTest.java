@@ -312,6 +312,16 @@ public class DirtyStateEditorSupportTest extends AbstractDocumentSimulatingTest
 		assertTrue(dirtyStateManager.hasContent(resourceURI));
 	}
 	
+	@Test public void testAnnouncementStatistics() {
+		dirtyStateSupport.initializeDirtyStateSupport(this);
+		dirtyStateSupport.announceDirtyState(resource);
+		resource.setTrackingModification(true);
+		dirtyStateSupport.announceDirtyState(resource);
+		assertEquals(2, dirtyStateSupport.getAnnouncementStatistics().getCount());
+		assertEquals(1, dirtyStateSupport.getAnnouncementStatistics().getPublished());
+		assertEquals(0, dirtyStateSupport.getAnnouncementStatistics().getSuperseded());
+	}
+	
 	@Override
 	public void addVerifyListener(VerifyListener listener) {
 		assertNull(this.verifyListener);
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.junit4.util.URIBasedTestResourceDescription;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.ui.editor.DirtyStateManager;
+import org.eclipse.xtext.ui.editor.IDirtyResource;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class DirtyStateManagerTest extends Assert {
+
+	private static class DirtyResource implements IDirtyResource {
+		private final URI uri;
+		private IResourceDescription description;
+
+		private DirtyResource(URI uri, IResourceDescription description) {
+			this.uri = uri;
+			this.description = description;
+		}
+
+		@Override
+		public String getContents() {
+			return "";
+		}
+
+		@Override
+		public String getActualContents() {
+			return "";
+		}
+
+		@Override
+		public IResourceDescription getDescription() {
+			return description;
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+	}
+
+	private URI uri = URI.createURI("platform:/resource/p/a.ecore");
+	private DirtyStateManager dirtyStateManager;
+
+	@Before
+	public void setUp() {
+		dirtyStateManager = new DirtyStateManager();
+	}
+
+	@Test
+	public void testManagedButNotAnnounced() {
+		DirtyResource dirtyResource = new DirtyResource(uri, description(EcoreFactory.eINSTANCE.createEClass(), "Foo"));
+		assertTrue(dirtyStateManager.manageDirtyState(dirtyResource));
+		assertEquals(1, size(EcorePackage.Literals.ECLASS, "Foo", false));
+		assertEquals(1, Iterables.size(dirtyStateManager.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER)));
+	}
+
+	@Test
+	public void testAnnounce() {
+		DirtyResource dirtyResource = new DirtyResource(uri, description(EcoreFactory.eINSTANCE.createEClass(), "Foo"));
+		dirtyStateManager.manageDirtyState(dirtyResource);
+		dirtyResource.description = description(EcoreFactory.eINSTANCE.createEDataType(), "Bar");
+		dirtyStateManager.announceDirtyStateChanged(dirtyResource);
+		assertEquals(0, size(EcorePackage.Literals.EOBJECT, "Foo", true));
+		assertEquals(1, size(EcorePackage.Literals.EDATA_TYPE, "Bar", false));
+		assertEquals(0, Iterables.size(dirtyStateManager.getExportedObjectsByType(EcorePackage.Literals.ECLASS)));
+		assertEquals(1, Iterables.size(dirtyStateManager.getExportedObjectsByType(EcorePackage.Literals.EDATA_TYPE)));
+		assertEquals(1, Iterables.size(dirtyStateManager.getExportedObjectsByType(EcorePackage.Literals.ECLASSIFIER)));
+		assertEquals(1, Iterables.size(dirtyStateManager.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+	}
+
+	@Test
+	public void testAnnounceUnmanaged() {
+		DirtyResource dirtyResource = new DirtyResource(uri, description(EcoreFactory.eINSTANCE.createEClass(), "Foo"));
+		dirtyStateManager.announceDirtyStateChanged(dirtyResource);
+		assertEquals(0, size(EcorePackage.Literals.EOBJECT, "Foo", false));
+		assertTrue(dirtyStateManager.isEmpty());
+	}
+
+	@Test
+	public void testLookupByName() {
+		DirtyResource dirtyResource = new DirtyResource(uri, description(EcoreFactory.eINSTANCE.createEClass(), "Foo"));
+		dirtyStateManager.manageDirtyState(dirtyResource);
+		dirtyStateManager.announceDirtyStateChanged(dirtyResource);
+		assertEquals(1, size(EcorePackage.Literals.EOBJECT, "Foo", false));
+		assertEquals(0, size(EcorePackage.Literals.EOBJECT, "foo", false));
+		assertEquals(1, size(EcorePackage.Literals.EOBJECT, "foo", true));
+		assertEquals(1, size(EcorePackage.Literals.ECLASSIFIER, "FOO", true));
+		assertEquals(0, size(EcorePackage.Literals.EDATA_TYPE, "Foo", false));
+		assertEquals(0, size(EcorePackage.Literals.EOBJECT, "Bar", true));
+	}
+
+	@Test
+	public void testDiscard() {
+		DirtyResource dirtyResource = new DirtyResource(uri, description(EcoreFactory.eINSTANCE.createEClass(), "Foo"));
+		dirtyStateManager.manageDirtyState(dirtyResource);
+		dirtyStateManager.announceDirtyStateChanged(dirtyResource);
+		// only the managed instance can discard the dirty state
+		dirtyStateManager.discardDirtyState(new DirtyResource(uri, dirtyResource.description));
+		assertEquals(1, size(EcorePackage.Literals.EOBJECT, "Foo", false));
+		dirtyStateManager.discardDirtyState(dirtyResource);
+		assertEquals(0, size(EcorePackage.Literals.EOBJECT, "Foo", false));
+		assertEquals(0, Iterables.size(dirtyStateManager.getExportedObjectsByType(EcorePackage.Literals.EOBJECT)));
+		assertTrue(dirtyStateManager.isEmpty());
+	}
+
+	@Test
+	public void testSeveralResources() {
+		URI other = URI.createURI("platform:/resource/p/b.ecore");
+		DirtyResource first = new DirtyResource(uri, description(EcoreFactory.eINSTANCE.createEClass(), "Foo"));
+		DirtyResource second = new DirtyResource(other, description(EcoreFactory.eINSTANCE.createEClass(), "foo"));
+		dirtyStateManager.manageDirtyState(first);
+		dirtyStateManager.manageDirtyState(second);
+		dirtyStateManager.announceDirtyStateChanged(first);
+		dirtyStateManager.announceDirtyStateChanged(second);
+		assertEquals(1, size(EcorePackage.Literals.ECLASS, "Foo", false));
+		assertEquals(2, size(EcorePackage.Literals.ECLASS, "Foo", true));
+		dirtyStateManager.discardDirtyState(first);
+		List<IEObjectDescription> remaining = Lists.newArrayList(dirtyStateManager.getExportedObjects(EcorePackage.Literals.ECLASS, QualifiedName.create("Foo"), true));
+		assertEquals(1, remaining.size());
+		assertEquals(QualifiedName.create("foo"), remaining.get(0).getName());
+	}
+
+	private int size(EClass type, String name, boolean ignoreCase) {
+		return Iterables.size(dirtyStateManager.getExportedObjects(type, QualifiedName.create(name), ignoreCase));
+	}
+
+	private IResourceDescription description(ENamedElement element, String name) {
+		element.setName(name);
+		final IEObjectDescription object = EObjectDescription.create(QualifiedName.create(name), element);
+		return new URIBasedTestResourceDescription(uri) {
+			@Override
+			protected List<IEObjectDescription> computeExportedObjects() {
+				return Collections.singletonList(object);
+			}
+		};
+	}
+
+}
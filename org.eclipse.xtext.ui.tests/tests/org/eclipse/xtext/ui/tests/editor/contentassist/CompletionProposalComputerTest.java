@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.contentassist;
+
+import org.eclipse.jface.text.contentassist.CompletionProposal;
+import org.eclipse.xtext.ui.editor.contentassist.CompletionProposalComputer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompletionProposalComputerTest extends Assert {
+
+	@Test public void testNoBudget() {
+		CompletionProposalComputer computer = new CompletionProposalComputer(null, null, 0);
+		for (int i = 0; i < 100; i++) {
+			computer.accept(new CompletionProposal("p" + i, 0, 0, 0));
+		}
+		assertTrue(computer.canAcceptMoreProposals());
+		assertTrue(computer.canAcceptMoreTemplates());
+	}
+
+	@Test public void testProposalBudget() {
+		CompletionProposalComputer computer = new CompletionProposalComputer(null, null, 0);
+		computer.setProposalBudget(2);
+		computer.accept(new CompletionProposal("a", 0, 0, 0));
+		assertTrue(computer.canAcceptMoreProposals());
+		computer.accept(new CompletionProposal("b", 0, 0, 0));
+		assertFalse(computer.canAcceptMoreProposals());
+		assertFalse(computer.canAcceptMoreTemplates());
+	}
+
+	@Test public void testTimeBudgetNeedsOneProposal() throws Exception {
+		CompletionProposalComputer computer = new CompletionProposalComputer(null, null, 0);
+		computer.setTimeBudget(0);
+		Thread.sleep(5);
+		assertTrue(computer.canAcceptMoreProposals());
+		computer.accept(new CompletionProposal("a", 0, 0, 0));
+		assertFalse(computer.canAcceptMoreProposals());
+	}
+
+}
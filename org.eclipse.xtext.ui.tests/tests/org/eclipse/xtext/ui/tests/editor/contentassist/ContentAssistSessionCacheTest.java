@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.contentassist;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.testing.InjectWith;
+import org.eclipse.xtext.testing.XtextRunner;
+import org.eclipse.xtext.ui.editor.contentassist.CompletionProposalComputer;
+import org.eclipse.xtext.ui.editor.contentassist.ContentAssistContext;
+import org.eclipse.xtext.ui.editor.contentassist.ICompletionProposalAcceptor;
+import org.eclipse.xtext.ui.editor.contentassist.IContentProposalProvider;
+import org.eclipse.xtext.ui.editor.contentassist.ConfigurableCompletionProposal;
+import org.eclipse.xtext.ui.editor.contentassist.PrefixMatcher;
+import org.eclipse.xtext.ui.editor.contentassist.XtextContentAssistProcessor;
+import org.eclipse.xtext.ui.editor.model.IXtextDocument;
+import org.eclipse.xtext.ui.testing.ContentAssistProcessorTestBuilder;
+import org.eclipse.xtext.ui.testing.util.ResourceLoadHelper;
+import org.eclipse.xtext.ui.tests.editor.contentassist.ui.tests.CrossReferenceProposalTestLanguageUiInjectorProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+/**
+ * Checks that the proposals of a content assist session are reused while the prefix is extended.
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(CrossReferenceProposalTestLanguageUiInjectorProvider.class)
+public class ContentAssistSessionCacheTest extends AbstractXtextTests implements ResourceLoadHelper {
+
+	private static final String MODEL = "Foo {} Bar {} Ba";
+
+	private static final int PREFIX_START = MODEL.length() - 2;
+
+	/**
+	 * Proposes the names that match the prefix that starts at {@link #PREFIX_START} and counts the computations.
+	 */
+	public static class CountingProcessor extends XtextContentAssistProcessor {
+		private int computations;
+
+		@Override
+		protected CompletionProposalComputer createCompletionProposalComputer(final ITextViewer viewer, final int offset) {
+			return new CompletionProposalComputer(this, viewer, offset) {
+				@Override
+				public ICompletionProposal[] exec(XtextResource resource) throws Exception {
+					computations++;
+					if (offset < PREFIX_START)
+						return new ICompletionProposal[0];
+					String prefix = viewer.getDocument().get(PREFIX_START, offset - PREFIX_START);
+					List<ICompletionProposal> result = Lists.newArrayList();
+					for (String name : new String[] { "Bar", "Baz", "Bbb", "Foo" }) {
+						ConfigurableCompletionProposal proposal = new ConfigurableCompletionProposal(name, PREFIX_START,
+								prefix.length(), name.length(), null, new StyledString(name), null, null);
+						proposal.setMatcher(new PrefixMatcher.IgnoreCase());
+						proposal.setReplaceContextLength(prefix.length());
+						if (proposal.getMatcher().isCandidateMatchingPrefix(name, prefix))
+							result.add(proposal);
+					}
+					return result.toArray(new ICompletionProposal[result.size()]);
+				}
+			};
+		}
+	}
+
+	/**
+	 * Records the prefixes that the proposal provider of the language is asked for.
+	 */
+	public static class RecordingProcessor extends XtextContentAssistProcessor {
+		private final List<String> prefixes = Lists.newArrayList();
+
+		@Override
+		public IContentProposalProvider getContentProposalProvider() {
+			final IContentProposalProvider delegate = super.getContentProposalProvider();
+			return new IContentProposalProvider() {
+				@Override
+				public void createProposals(ContentAssistContext context, ICompletionProposalAcceptor acceptor) {
+					prefixes.add(context.getPrefix());
+					delegate.createProposals(context, acceptor);
+				}
+			};
+		}
+	}
+
+	@Inject
+	private Injector injector;
+
+	private CountingProcessor processor;
+
+	private IXtextDocument document;
+
+	private ITextViewer viewer;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		setInjector(injector);
+		ContentAssistProcessorTestBuilder builder = new ContentAssistProcessorTestBuilder(injector, this);
+		processor = injector.getInstance(CountingProcessor.class);
+		XtextResource resource = getResourceFromString(MODEL);
+		document = builder.getDocument(resource, MODEL);
+		viewer = builder.getSourceViewer(MODEL, document);
+	}
+
+	@Test
+	public void testNotCachedWithoutSession() throws Exception {
+		assertEquals(Lists.newArrayList("Bar", "Baz"), compute(MODEL.length()));
+		assertEquals(Lists.newArrayList("Bar", "Baz"), compute(MODEL.length()));
+		assertEquals(2, processor.computations);
+	}
+
+	@Test
+	public void testTypingAndBackspace() throws Exception {
+		processor.getSessionListener().assistSessionStarted(null);
+		assertEquals(Lists.newArrayList("Bar", "Baz"), compute(MODEL.length()));
+		document.replace(MODEL.length(), 0, "z");
+		assertEquals(Lists.newArrayList("Baz"), compute(MODEL.length() + 1));
+		document.replace(MODEL.length(), 1, "");
+		assertEquals(Lists.newArrayList("Bar", "Baz"), compute(MODEL.length()));
+		assertEquals(1, processor.computations);
+	}
+
+	@Test
+	public void testBackspaceIntoComputedPrefix() throws Exception {
+		processor.getSessionListener().assistSessionStarted(null);
+		assertEquals(Lists.newArrayList("Bar", "Baz"), compute(MODEL.length()));
+		// the shorter prefix matches names that were filtered out before
+		document.replace(MODEL.length() - 1, 1, "");
+		assertEquals(Lists.newArrayList("Bar", "Baz", "Bbb"), compute(MODEL.length() - 1));
+		assertEquals(2, processor.computations);
+		document.replace(MODEL.length() - 1, 0, "az");
+		assertEquals(Lists.newArrayList("Baz"), compute(MODEL.length() + 1));
+		assertEquals(2, processor.computations);
+	}
+
+	@Test
+	public void testOffsetBeforePrefix() throws Exception {
+		processor.getSessionListener().assistSessionStarted(null);
+		compute(MODEL.length());
+		compute(PREFIX_START - 1);
+		assertEquals(2, processor.computations);
+	}
+
+	@Test
+	public void testOtherEditDropsCache() throws Exception {
+		processor.getSessionListener().assistSessionStarted(null);
+		compute(MODEL.length());
+		document.replace(MODEL.length(), 0, " ");
+		compute(MODEL.length());
+		assertEquals(2, processor.computations);
+	}
+
+	@Test
+	public void testEditBeforePrefixDropsCache() throws Exception {
+		processor.getSessionListener().assistSessionStarted(null);
+		compute(MODEL.length());
+		document.replace(0, 0, "X");
+		compute(MODEL.length());
+		assertEquals(2, processor.computations);
+	}
+
+	@Test
+	public void testSessionEndDropsCache() throws Exception {
+		processor.getSessionListener().assistSessionStarted(null);
+		compute(MODEL.length());
+		processor.getSessionListener().assistSessionEnded(null);
+		processor.getSessionListener().assistSessionStarted(null);
+		compute(MODEL.length());
+		assertEquals(2, processor.computations);
+	}
+
+	@Test
+	public void testProposalProviderGetsTypedPrefix() throws Exception {
+		RecordingProcessor recordingProcessor = injector.getInstance(RecordingProcessor.class);
+		recordingProcessor.getSessionListener().assistSessionStarted(null);
+		assertTrue(compute(recordingProcessor, MODEL.length()).contains("Bar"));
+		assertFalse(recordingProcessor.prefixes.isEmpty());
+		for (String prefix : recordingProcessor.prefixes) {
+			assertEquals("Ba", prefix);
+		}
+		// typing is served from the cache
+		recordingProcessor.prefixes.clear();
+		document.replace(MODEL.length(), 0, "r");
+		assertTrue(compute(recordingProcessor, MODEL.length() + 1).contains("Bar"));
+		assertTrue(recordingProcessor.prefixes.isEmpty());
+		// a shorter prefix than the computed one is computed again
+		document.replace(MODEL.length() - 1, 2, "");
+		assertTrue(compute(recordingProcessor, MODEL.length() - 1).contains("Bar"));
+		assertFalse(recordingProcessor.prefixes.isEmpty());
+		for (String prefix : recordingProcessor.prefixes) {
+			assertEquals("B", prefix);
+		}
+	}
+
+	private List<String> compute(int offset) {
+		return compute(processor, offset);
+	}
+
+	private List<String> compute(XtextContentAssistProcessor processor, int offset) {
+		List<String> result = Lists.newArrayList();
+		for (ICompletionProposal proposal : processor.computeCompletionProposals(viewer, offset)) {
+			result.add(proposal.getDisplayString());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+}
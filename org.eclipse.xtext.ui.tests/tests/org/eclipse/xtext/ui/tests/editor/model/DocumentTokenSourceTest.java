@@ -15,12 +15,14 @@ import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.xtext.parser.antlr.Lexer;
+import org.eclipse.xtext.ui.editor.model.BacktrackingLexerDocumentTokenSource;
 import org.eclipse.xtext.ui.editor.model.DocumentTokenSource;
 import org.eclipse.xtext.ui.editor.model.ILexerTokenRegion;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.inject.Provider;
 
@@ -77,5 +79,31 @@ public class DocumentTokenSourceTest extends Assert {
 		region = iterator.next();
 		assertEquals(3,region.getLength());
 	}
+
+	@Test public void testRelexedCharacters() throws Exception {
+		tokenSource.setCheckInvariant(true);
+		document.set(Strings.repeat("grammar foo /* comment */ 'bar' ", 100));
+		assertEquals(document.getLength(), tokenSource.getLastRelexedCharacters());
+		document.replace(document.getLength() - 3, 0, "baz");
+		assertTrue(tokenSource.getLastRelexedCharacters() < 20);
+		assertEquals(2, tokenSource.getUpdateCount());
+	}
+
+	@Test public void testBacktrackingRestartsNearEdit() throws Exception {
+		tokenSource = new BacktrackingLexerDocumentTokenSource();
+		tokenSource.setLexer(new Provider<Lexer>() {
+			@Override
+			public Lexer get() {
+				return new org.eclipse.xtext.parser.antlr.internal.InternalXtextLexer();
+			}
+		});
+		tokenSource.setCheckInvariant(true);
+		document.set(Strings.repeat("grammar foo /* comment */ 'bar' ", 100));
+		document.replace(document.getLength() - 3, 0, "baz");
+		assertTrue(tokenSource.getLastRelexedCharacters() < 100);
+		document.replace(document.getLength() - 20, 0, "/*");
+		document.replace(10, 0, "'");
+		document.replace(10, 1, "");
+	}
 	
 }
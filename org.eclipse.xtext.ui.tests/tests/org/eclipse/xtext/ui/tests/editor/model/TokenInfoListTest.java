@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.model;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.Token;
+import org.eclipse.xtext.ui.editor.model.DocumentTokenSource.IRegionIterable;
+import org.eclipse.xtext.ui.editor.model.DocumentTokenSource.TokenInfo;
+import org.eclipse.xtext.ui.editor.model.ILexerTokenRegion;
+import org.eclipse.xtext.ui.editor.model.TokenInfoList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class TokenInfoListTest extends Assert {
+
+	@Test public void testInsertAndRemove() {
+		TokenInfoList list = new TokenInfoList();
+		List<TokenInfo> expected = Lists.newArrayList();
+		for (int i = 0; i < 2000; i++) {
+			TokenInfo token = token(i % 7 + 1);
+			int index = (i * 31) % (expected.size() + 1);
+			list.add(index, token);
+			expected.add(index, token);
+		}
+		assertEquals(expected, list);
+		for (int i = 0; i < 1500; i++) {
+			int index = (i * 17) % expected.size();
+			assertSame(expected.remove(index), list.remove(index));
+		}
+		assertEquals(expected, list);
+		list.subList(100, 400).clear();
+		expected.subList(100, 400).clear();
+		assertEquals(expected, list);
+	}
+
+	@Test public void testOffsets() {
+		TokenInfoList list = new TokenInfoList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(token(2));
+		}
+		assertEquals(0, list.getIndexAtOffset(0));
+		assertEquals(0, list.getIndexAtOffset(2));
+		assertEquals(1, list.getIndexAtOffset(3));
+		assertEquals(999, list.getIndexAtOffset(2000));
+		assertEquals(1000, list.getIndexAtOffset(2001));
+		assertEquals(1998, list.getOffset(999));
+		assertEquals(2000, list.getOffset(1000));
+	}
+
+	@Test public void testIteratorFromIndex() {
+		TokenInfoList list = new TokenInfoList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(token(i % 5 + 1));
+		}
+		assertEquals(list.subList(300, 1000), Lists.newArrayList(list.iterator(300)));
+		assertEquals(list.subList(256, 1000), Lists.newArrayList(list.iterator(256)));
+		assertFalse(list.iterator(1000).hasNext());
+		assertFalse(new TokenInfoList().iterator(0).hasNext());
+	}
+
+	@Test public void testRegionIterableFromOffset() {
+		TokenInfoList list = new TokenInfoList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(token(2));
+		}
+		Iterator<ILexerTokenRegion> iterator = new IRegionIterable(list.snapshot()).iterator(1001);
+		ILexerTokenRegion first = iterator.next();
+		assertEquals(1000, first.getOffset());
+		assertEquals(1002, iterator.next().getOffset());
+	}
+
+	@Test public void testSnapshot() {
+		TokenInfoList list = new TokenInfoList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(token(1));
+		}
+		TokenInfoList snapshot = list.snapshot();
+		list.remove(500);
+		list.add(0, token(3));
+		assertEquals(1000, snapshot.size());
+		assertEquals(1, snapshot.get(0).getLength());
+		assertEquals(1000, snapshot.getOffset(1000));
+		assertEquals(3, list.get(0).getLength());
+		try {
+			snapshot.add(token(1));
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	private TokenInfo token(int length) {
+		return new TokenInfo(new CommonToken(null, Token.MIN_TOKEN_TYPE, Token.DEFAULT_CHANNEL, 0, length - 1));
+	}
+
+}
@@ -108,6 +108,41 @@ public class MarkOccurrencesTest extends AbstractEditorTest {
 		listener.verify(TIMEOUT);
 	}
 	
+	@Test public void testMoveCaretWithoutEdit() throws Exception {
+		String model = "Foo { Bar(Foo) {} Baz(Foo Bar) {} }";
+		IFile modelFile = IResourcesSetupUtil.createFile("test/src/Test.outlinetestlanguage", model);
+		XtextEditor editor = openEditor(modelFile);
+		ISelectionProvider selectionProvider = editor.getSelectionProvider();
+		selectionProvider.setSelection(new TextSelection(model.indexOf("Foo", 3), 1));
+		IAnnotationModel annotationModel = editor.getDocumentProvider().getAnnotationModel(editor.getEditorInput());
+		ExpectationBuilder listener = new ExpectationBuilder().added(DECLARATION_ANNOTATION_TYPE, 0, 3)
+				.added(OCCURRENCE_ANNOTATION_TYPE, model.indexOf("Foo", 3), 3)
+				.added(OCCURRENCE_ANNOTATION_TYPE, model.lastIndexOf("Foo"), 3);
+		listener.start();
+		annotationModel.addAnnotationModelListener(listener);
+		setMarkOccurrences(true);
+		listener.verify(TIMEOUT);
+
+		// the local references of the unchanged resource are reused for the other elements
+		listener.start();
+		listener.removed(DECLARATION_ANNOTATION_TYPE, 0, 3)
+				.removed(OCCURRENCE_ANNOTATION_TYPE, model.indexOf("Foo", 3), 3)
+				.removed(OCCURRENCE_ANNOTATION_TYPE, model.lastIndexOf("Foo"), 3)
+				.added(DECLARATION_ANNOTATION_TYPE, model.indexOf("Bar"), 3)
+				.added(OCCURRENCE_ANNOTATION_TYPE, model.lastIndexOf("Bar"), 3);
+		selectionProvider.setSelection(new TextSelection(model.indexOf("Bar"), 1));
+		listener.verify(TIMEOUT);
+
+		listener.start();
+		listener.removed(DECLARATION_ANNOTATION_TYPE, model.indexOf("Bar"), 3)
+				.removed(OCCURRENCE_ANNOTATION_TYPE, model.lastIndexOf("Bar"), 3)
+				.added(DECLARATION_ANNOTATION_TYPE, 0, 3)
+				.added(OCCURRENCE_ANNOTATION_TYPE, model.indexOf("Foo", 3), 3)
+				.added(OCCURRENCE_ANNOTATION_TYPE, model.lastIndexOf("Foo"), 3);
+		selectionProvider.setSelection(new TextSelection(model.lastIndexOf("Foo"), 1));
+		listener.verify(TIMEOUT);
+	}
+	
 	@Test public void testMarkOccurrencesCrossFile() throws Exception {
 		String model1 = "Zonk { Bar(Foo) {} Baz(Foo Bar) {} }";
 		String model2 = "Foo {}";
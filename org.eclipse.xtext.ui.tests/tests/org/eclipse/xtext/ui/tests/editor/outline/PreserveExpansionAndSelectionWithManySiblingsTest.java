@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.outline;
+
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.xtext.ui.editor.outline.IOutlineNode;
+import org.eclipse.xtext.ui.editor.outline.impl.IOutlineNodeComparer;
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+
+/**
+ * Restores the expansion and the selection of an outline whose nodes have many siblings.
+ */
+public class PreserveExpansionAndSelectionWithManySiblingsTest extends AbstractOutlineWorkbenchTest {
+
+	private static final int SIBLINGS = 200;
+
+	private IOutlineNode middleNode;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		StringBuilder siblings = new StringBuilder();
+		for (int i = 0; i < SIBLINGS; i++) {
+			siblings.append("sibling").append(i).append(" {} ");
+		}
+		outlinePage.resetSyncer();
+		document.replace(modelAsText.indexOf("four"), 0, siblings.toString());
+		outlinePage.waitForUpdate(ERROR_TIMEOUT);
+		modelAsText = document.get();
+		modelNode = ((IOutlineNode) treeViewer.getInput()).getChildren().get(0);
+		assertEquals(SIBLINGS + 2, modelNode.getChildren().size());
+		oneNode = modelNode.getChildren().get(0);
+		middleNode = modelNode.getChildren().get(SIBLINGS / 2);
+		fourNode = modelNode.getChildren().get(SIBLINGS + 1);
+		treeViewer.setExpandedElements(new Object[] { modelNode, oneNode });
+		treeViewer.setSelection(new StructuredSelection(new Object[] { middleNode, fourNode }));
+		assertSelected(treeViewer, middleNode, fourNode);
+		assertExpanded(treeViewer, modelNode, oneNode);
+	}
+
+	@Test public void testChangeOtherNode() throws Exception {
+		changeOtherNode();
+		assertSelected(treeViewer, middleNode, fourNode);
+		assertExpanded(treeViewer, modelNode, oneNode);
+	}
+
+	@Test public void testCustomComparer() throws Exception {
+		final int[] comparedWithOtherText = new int[1];
+		final IOutlineNodeComparer customComparer = new IOutlineNodeComparer.Default() {
+			@Override
+			public boolean equals(IOutlineNode node1, IOutlineNode node2) {
+				if (node1 != null && node2 != null && !node1.getText().toString().equals(node2.getText().toString()))
+					comparedWithOtherText[0]++;
+				return super.equals(node1, node2);
+			}
+		};
+		Guice.createInjector(new AbstractModule() {
+			@Override
+			protected void configure() {
+				bind(IOutlineNodeComparer.class).toInstance(customComparer);
+			}
+		}).injectMembers(outlinePage.getRefreshJob());
+		changeOtherNode();
+		assertSelected(treeViewer, middleNode, fourNode);
+		assertExpanded(treeViewer, modelNode, oneNode);
+		// nodes are not looked up by key, so every former node is compared
+		assertTrue(comparedWithOtherText[0] > 0);
+	}
+
+	private void changeOtherNode() throws Exception {
+		outlinePage.resetSyncer();
+		document.replace(modelAsText.indexOf("two"), 3, "T");
+		outlinePage.waitForUpdate(ERROR_TIMEOUT);
+	}
+
+}
@@ -10,6 +10,7 @@ package org.eclipse.xtext.ui.tests.editor.outline;
 import java.util.concurrent.TimeoutException;
 
 import org.eclipse.xtext.ui.editor.outline.impl.OutlinePage;
+import org.eclipse.xtext.ui.editor.outline.impl.OutlineRefreshJob;
 
 /**
  * This horrible hack allows to wait for outline tree updates without blocking the display thread.
@@ -29,6 +30,11 @@ public class SyncableOutlinePage extends OutlinePage {
 		syncer.awaitSignal(timeout);
 	}
 
+	@Override
+	public OutlineRefreshJob getRefreshJob() {
+		return super.getRefreshJob();
+	}
+
 	@Override
 	protected void treeUpdated() {
 		super.treeUpdated();
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.syntaxcoloring;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.AttributedPosition;
+import org.eclipse.xtext.ui.editor.syntaxcoloring.HighlightingReconciler;
+import org.eclipse.xtext.util.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class HighlightingReconcilerChunksTest extends Assert {
+
+	private static class TestableReconciler extends HighlightingReconciler {
+		private List<Pair<List<AttributedPosition>, List<AttributedPosition>>> split(List<AttributedPosition> added,
+				List<AttributedPosition> removed, IRegion visible) {
+			return splitIntoChunks(added, removed, visible);
+		}
+
+		private static int getChunkSize() {
+			return CHUNK_SIZE;
+		}
+	}
+
+	private TestableReconciler reconciler = new TestableReconciler();
+
+	@Test
+	public void testUnknownVisibleRegion() {
+		int chunkSize = TestableReconciler.getChunkSize();
+		List<AttributedPosition> added = positions(0, chunkSize + 10, 10);
+		List<AttributedPosition> removed = positions(5, chunkSize, 10);
+		List<Pair<List<AttributedPosition>, List<AttributedPosition>>> chunks = reconciler.split(added, removed, null);
+		assertEquals(3, chunks.size());
+		for (Pair<List<AttributedPosition>, List<AttributedPosition>> chunk : chunks) {
+			assertTrue(chunk.getFirst().size() + chunk.getSecond().size() <= chunkSize);
+		}
+		assertAllPresentedOnce(added, removed, chunks);
+		assertSortedByOffset(chunks);
+	}
+
+	@Test
+	public void testVisibleRegionFirst() {
+		int chunkSize = TestableReconciler.getChunkSize();
+		List<AttributedPosition> added = positions(0, 2 * chunkSize, 10);
+		List<AttributedPosition> removed = positions(5, chunkSize, 10);
+		// the positions at the offsets 5000 to 5100
+		IRegion visible = new Region(5000, 100);
+		List<Pair<List<AttributedPosition>, List<AttributedPosition>>> chunks = reconciler.split(added, removed, visible);
+		Pair<List<AttributedPosition>, List<AttributedPosition>> first = chunks.get(0);
+		assertEquals(11, first.getFirst().size());
+		assertEquals(10, first.getSecond().size());
+		for (AttributedPosition position : first.getFirst()) {
+			assertTrue(position.getOffset() >= 5000 && position.getOffset() <= 5100);
+		}
+		for (Pair<List<AttributedPosition>, List<AttributedPosition>> chunk : chunks.subList(1, chunks.size())) {
+			assertTrue(chunk.getFirst().size() + chunk.getSecond().size() <= chunkSize);
+		}
+		assertAllPresentedOnce(added, removed, chunks);
+		assertSortedByOffset(chunks.subList(1, chunks.size()));
+	}
+
+	@Test
+	public void testNothingVisible() {
+		int chunkSize = TestableReconciler.getChunkSize();
+		List<AttributedPosition> added = positions(0, chunkSize + 1, 10);
+		IRegion visible = new Region(100000, 100);
+		List<Pair<List<AttributedPosition>, List<AttributedPosition>>> chunks = reconciler.split(added,
+				Collections.<AttributedPosition>emptyList(), visible);
+		assertEquals(2, chunks.size());
+		assertEquals(chunkSize, chunks.get(0).getFirst().size());
+		assertEquals(1, chunks.get(1).getFirst().size());
+		assertAllPresentedOnce(added, Collections.<AttributedPosition>emptyList(), chunks);
+	}
+
+	private void assertAllPresentedOnce(List<AttributedPosition> added, List<AttributedPosition> removed,
+			List<Pair<List<AttributedPosition>, List<AttributedPosition>>> chunks) {
+		List<AttributedPosition> presentedAdded = Lists.newArrayList();
+		List<AttributedPosition> presentedRemoved = Lists.newArrayList();
+		for (Pair<List<AttributedPosition>, List<AttributedPosition>> chunk : chunks) {
+			presentedAdded.addAll(chunk.getFirst());
+			presentedRemoved.addAll(chunk.getSecond());
+		}
+		assertEquals(added.size(), presentedAdded.size());
+		assertTrue(presentedAdded.containsAll(added));
+		assertEquals(removed.size(), presentedRemoved.size());
+		assertTrue(presentedRemoved.containsAll(removed));
+	}
+
+	private void assertSortedByOffset(List<Pair<List<AttributedPosition>, List<AttributedPosition>>> chunks) {
+		int lastAdded = -1;
+		int lastRemoved = -1;
+		for (Pair<List<AttributedPosition>, List<AttributedPosition>> chunk : chunks) {
+			for (AttributedPosition position : chunk.getFirst()) {
+				assertTrue(position.getOffset() > lastAdded);
+				lastAdded = position.getOffset();
+			}
+			for (AttributedPosition position : chunk.getSecond()) {
+				assertTrue(position.getOffset() > lastRemoved);
+				lastRemoved = position.getOffset();
+			}
+		}
+	}
+
+	private List<AttributedPosition> positions(int start, int count, int step) {
+		List<AttributedPosition> result = Lists.newArrayListWithCapacity(count);
+		Object lock = new Object();
+		for (int i = 0; i < count; i++) {
+			result.add(new AttributedPosition(start + i * step, 3, null, lock));
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.editor.validation;
+
+import static org.eclipse.xtext.ui.testing.util.IResourcesSetupUtil.*;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.ui.MarkerTypes;
+import org.eclipse.xtext.ui.editor.validation.MarkerCreator;
+import org.eclipse.xtext.ui.editor.validation.MarkerReconciler;
+import org.eclipse.xtext.ui.validation.MarkerTypeProvider;
+import org.eclipse.xtext.validation.CheckType;
+import org.eclipse.xtext.validation.Issue;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class MarkerReconcilerTest extends Assert {
+
+	private IFile file;
+	private MarkerCreator markerCreator;
+	private MarkerReconciler reconciler;
+
+	@Before
+	public void setUp() throws Exception {
+		createProject("test");
+		file = createFile("test/a.txt", "foo bar baz");
+		markerCreator = new MarkerCreator();
+		reconciler = new MarkerReconciler(markerCreator, new MarkerTypeProvider());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		cleanWorkspace();
+	}
+
+	@Test
+	public void testUnchanged() throws Exception {
+		Issue issue = issue(0, 3, "foo");
+		IMarker marker = createMarker(issue);
+		MarkerReconciler.Result result = reconcile(issue);
+		assertEquals(1, result.getUnchanged());
+		assertEquals(0, result.getUpdated());
+		assertEquals(0, result.getDeleted());
+		assertTrue(result.getNewIssues().isEmpty());
+		assertEquals(Collections.singletonList(marker), markers());
+	}
+
+	@Test
+	public void testUpdated() throws Exception {
+		Issue issue = issue(0, 3, "foo");
+		IMarker marker = createMarker(issue);
+		// the line number is not a key attribute, so the marker is kept and updated
+		((Issue.IssueImpl) issue).setLineNumber(2);
+		MarkerReconciler.Result result = reconcile(issue);
+		assertEquals(0, result.getUnchanged());
+		assertEquals(1, result.getUpdated());
+		assertTrue(result.getNewIssues().isEmpty());
+		assertEquals(Collections.singletonList(marker), markers());
+		assertEquals(2, marker.getAttribute(IMarker.LINE_NUMBER, -1));
+	}
+
+	@Test
+	public void testDataRemoved() throws Exception {
+		Issue issue = issue(0, 3, "foo");
+		((Issue.IssueImpl) issue).setData(new String[] { "data" });
+		((Issue.IssueImpl) issue).setUriToProblem(URI.createURI("platform:/resource/test/a.txt#/0"));
+		IMarker marker = createMarker(issue);
+		assertNotNull(marker.getAttribute(Issue.DATA_KEY));
+		assertNotNull(marker.getAttribute(Issue.URI_KEY));
+		MarkerReconciler.Result result = reconcile(issue(0, 3, "foo"));
+		assertEquals(1, result.getUpdated());
+		assertEquals(Collections.singletonList(marker), markers());
+		assertNull(marker.getAttribute(Issue.DATA_KEY));
+		assertNull(marker.getAttribute(Issue.URI_KEY));
+	}
+
+	@Test
+	public void testDeletedAndNew() throws Exception {
+		Issue kept = issue(0, 3, "foo");
+		IMarker keptMarker = createMarker(kept);
+		IMarker deletedMarker = createMarker(issue(4, 3, "bar"));
+		Issue added = issue(8, 3, "baz");
+		MarkerReconciler.Result result = reconcile(kept, added);
+		assertEquals(1, result.getUnchanged());
+		assertEquals(1, result.getDeleted());
+		assertEquals(Collections.singletonList(added), result.getNewIssues());
+		assertFalse(deletedMarker.exists());
+		assertEquals(Collections.singletonList(keptMarker), markers());
+	}
+
+	@Test
+	public void testDuplicateIssues() throws Exception {
+		Issue issue = issue(0, 3, "foo");
+		createMarker(issue);
+		Issue duplicate = issue(0, 3, "foo");
+		MarkerReconciler.Result result = reconcile(issue, duplicate);
+		assertEquals(1, result.getUnchanged());
+		assertEquals(Collections.singletonList(duplicate), result.getNewIssues());
+	}
+
+	@Test
+	public void testCustomizedMarkerCreator() throws Exception {
+		assertTrue(reconciler.isApplicable());
+		MarkerCreator customized = new MarkerCreator() {
+			@Override
+			protected void setMarkerAttributes(Issue issue, IResource resource, IMarker marker) throws CoreException {
+				super.setMarkerAttributes(issue, resource, marker);
+				marker.setAttribute("custom", true);
+			}
+		};
+		assertFalse(new MarkerReconciler(customized, new MarkerTypeProvider()).isApplicable());
+		MarkerCreator attributes = new MarkerCreator() {
+			@Override
+			public Map<String, Object> getMarkerAttributes(Issue issue, IResource resource) {
+				Map<String, Object> result = super.getMarkerAttributes(issue, resource);
+				result.put("custom", true);
+				return result;
+			}
+		};
+		assertTrue(new MarkerReconciler(attributes, new MarkerTypeProvider()).isApplicable());
+		MarkerCreator creating = new MarkerCreator() {
+			@Override
+			public void createMarker(Issue issue, IResource resource, String markerType) throws CoreException {
+				super.createMarker(issue, resource, markerType);
+			}
+		};
+		assertFalse(new MarkerReconciler(creating, new MarkerTypeProvider()).isApplicable());
+	}
+
+	private MarkerReconciler.Result reconcile(Issue... issues) throws CoreException {
+		return reconciler.reconcile(file, Lists.newArrayList(issues), Collections.singletonList(MarkerTypes.FAST_VALIDATION),
+				IResource.DEPTH_ZERO, new NullProgressMonitor());
+	}
+
+	private IMarker createMarker(Issue issue) throws CoreException {
+		markerCreator.createMarker(issue, file, MarkerTypes.FAST_VALIDATION);
+		List<IMarker> markers = markers();
+		return markers.get(markers.size() - 1);
+	}
+
+	private List<IMarker> markers() throws CoreException {
+		List<IMarker> result = Lists.newArrayList(file.findMarkers(MarkerTypes.FAST_VALIDATION, true, IResource.DEPTH_ZERO));
+		Collections.sort(result, new Comparator<IMarker>() {
+			@Override
+			public int compare(IMarker o1, IMarker o2) {
+				return Long.compare(o1.getId(), o2.getId());
+			}
+		});
+		return result;
+	}
+
+	private Issue issue(int offset, int length, String message) {
+		Issue.IssueImpl result = new Issue.IssueImpl();
+		result.setType(CheckType.FAST);
+		result.setSeverity(Severity.ERROR);
+		result.setOffset(offset);
+		result.setLength(length);
+		result.setLineNumber(1);
+		result.setColumn(offset + 1);
+		result.setMessage(message);
+		result.setCode("code");
+		return result;
+	}
+
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.findrefs;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.findReferences.ReferenceFinder;
+import org.eclipse.xtext.findReferences.TargetURISet;
+import org.eclipse.xtext.findReferences.TargetURIs;
+import org.eclipse.xtext.junit4.util.URIBasedTestResourceDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.ui.editor.findrefs.DelegatingReferenceFinder;
+import org.eclipse.xtext.ui.editor.findrefs.IReferencingResourcesIndex;
+import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchExecutor;
+import org.eclipse.xtext.ui.editor.findrefs.TargetURIConverter;
+import org.eclipse.xtext.util.IAcceptor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import com.google.inject.Provider;
+
+/**
+ * Searches more candidates than fit into a single chunk of the parallel search.
+ */
+public class ParallelReferenceFinderTest extends Assert {
+
+	private static final int CANDIDATES = 250;
+
+	private static class Index extends ResourceDescriptionsData implements IReferencingResourcesIndex {
+		private final Set<URI> referencing;
+
+		private Index(List<IResourceDescription> descriptions) {
+			super(descriptions);
+			referencing = Sets.newLinkedHashSet();
+			for (IResourceDescription description : descriptions) {
+				referencing.add(description.getURI());
+			}
+		}
+
+		@Override
+		public Set<URI> getReferencingResources(Collection<URI> targetResourceURIs) {
+			return referencing;
+		}
+	}
+
+	/**
+	 * Reports one reference per candidate and checks for cancellation before each candidate.
+	 */
+	private static class OneReferencePerCandidate extends ReferenceFinder {
+		@Override
+		public void findReferences(TargetURIs targetURIs, Set<URI> candidates, IResourceAccess resourceAccess,
+				IResourceDescriptions indexData, Acceptor acceptor, IProgressMonitor monitor) {
+			URI target = targetURIs.iterator().next();
+			for (URI candidate : candidates) {
+				if (monitor.isCanceled())
+					return;
+				URI source = candidate.appendFragment("/0");
+				acceptor.accept(new DefaultReferenceDescription(source, target,
+						EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0, source));
+			}
+		}
+	}
+
+	private URI target = URI.createURI("platform:/resource/p/target.ecore#/0");
+	private ExecutorService executor;
+	private DelegatingReferenceFinder referenceFinder;
+
+	@Before
+	public void setUp() {
+		List<IResourceDescription> descriptions = Lists.newArrayList();
+		for (int i = 0; i < CANDIDATES; i++) {
+			descriptions.add(new URIBasedTestResourceDescription(URI.createURI("platform:/resource/p/" + i + ".ecore")));
+		}
+		TargetURIConverter converter = new TargetURIConverter();
+		converter.setTargetURIProvider(new Provider<TargetURIs>() {
+			@Override
+			public TargetURIs get() {
+				return new TargetURISet();
+			}
+		});
+		executor = Executors.newFixedThreadPool(4);
+		referenceFinder = new DelegatingReferenceFinder();
+		referenceFinder.setIndexData(new Index(descriptions));
+		referenceFinder.setConverter(converter);
+		referenceFinder.setDelegate(new OneReferencePerCandidate());
+		referenceFinder.setResourceServiceProviderRegistry(IResourceServiceProvider.Registry.INSTANCE);
+		referenceFinder.setSearchExecutor(new ReferenceSearchExecutor(executor, 4));
+		referenceFinder.setParallelSearch(true);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testEveryReferenceIsFoundOnce() {
+		final Multiset<URI> found = HashMultiset.create();
+		referenceFinder.findAllReferences(Collections.singleton(target), null, new IAcceptor<IReferenceDescription>() {
+			@Override
+			public void accept(IReferenceDescription description) {
+				assertEquals(target, description.getTargetEObjectUri());
+				found.add(description.getSourceEObjectUri().trimFragment());
+			}
+		}, new NullProgressMonitor());
+		assertEquals(CANDIDATES, found.size());
+		assertEquals(CANDIDATES, found.elementSet().size());
+	}
+
+	@Test
+	public void testCancel() {
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		final Multiset<URI> found = HashMultiset.create();
+		try {
+			referenceFinder.findAllReferences(Collections.singleton(target), null, new IAcceptor<IReferenceDescription>() {
+				@Override
+				public void accept(IReferenceDescription description) {
+					found.add(description.getSourceEObjectUri().trimFragment());
+					monitor.setCanceled(true);
+				}
+			}, monitor);
+			fail("expected cancellation");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertTrue(found.size() < CANDIDATES);
+	}
+
+	@Test
+	public void testSequentialByDefault() {
+		DelegatingReferenceFinder sequential = new DelegatingReferenceFinder() {
+			@Override
+			protected void findReferencesInParallel(TargetURIs targetURIs, Set<URI> candidates,
+					ILocalResourceAccess localResourceAccess, IAcceptor<IReferenceDescription> acceptor,
+					IProgressMonitor monitor) {
+				fail("parallel search is not enabled");
+			}
+		};
+		sequential.setIndexData(referenceFinder.getIndexData());
+		sequential.setConverter(referenceFinder.getConverter());
+		sequential.setDelegate(referenceFinder.getDelegate());
+		sequential.setResourceServiceProviderRegistry(IResourceServiceProvider.Registry.INSTANCE);
+		sequential.setSearchExecutor(new ReferenceSearchExecutor(executor, 4));
+		final Multiset<URI> found = HashMultiset.create();
+		sequential.findAllReferences(Collections.singleton(target), null, new IAcceptor<IReferenceDescription>() {
+			@Override
+			public void accept(IReferenceDescription description) {
+				found.add(description.getSourceEObjectUri().trimFragment());
+			}
+		}, new NullProgressMonitor());
+		assertEquals(CANDIDATES, found.size());
+	}
+
+}
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.refactoring;
+
+import static org.eclipse.ltk.core.refactoring.RefactoringStatus.*;
+import static org.eclipse.xtext.ui.testing.util.IResourcesSetupUtil.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
+import org.eclipse.ltk.core.refactoring.RefactoringStatus;
+import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.xtext.junit4.AbstractXtextTests;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.impl.DefaultReferenceDescription;
+import org.eclipse.xtext.ui.refactoring.ElementRenameArguments;
+import org.eclipse.xtext.ui.refactoring.IRefactoringUpdateAcceptor;
+import org.eclipse.xtext.ui.refactoring.IRenameStrategy;
+import org.eclipse.xtext.ui.refactoring.impl.AbstractReferenceUpdater;
+import org.eclipse.xtext.ui.refactoring.impl.AbstractRenameStrategy;
+import org.eclipse.xtext.ui.refactoring.impl.DefaultRefactoringDocumentProvider;
+import org.eclipse.xtext.ui.refactoring.impl.RefactoringResourceSetProvider;
+import org.eclipse.xtext.ui.refactoring.impl.RefactoringUpdateAcceptor;
+import org.eclipse.xtext.ui.refactoring.impl.StatusWrapper;
+import org.eclipse.xtext.ui.tests.refactoring.MockRefactoringDocument.MockChange;
+import org.eclipse.xtext.ui.tests.ui.internal.TestsActivator;
+import org.junit.Test;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+
+/**
+ * Computes the reference updates of more referring resources than fit into a single cluster in several slices.
+ */
+public class ParallelReferenceUpdaterTest extends AbstractXtextTests {
+
+	private static final int REFERRING_RESOURCES = 200;
+
+	private static final int THREADS = 4;
+
+	private static final int CLUSTER_SIZE = 5;
+
+	/**
+	 * Remembers the resource set of the applied declaration change and reports interleaved applications.
+	 */
+	private static class CheckingStrategy implements IRenameStrategy {
+		private ResourceSet applied;
+		private int applications;
+		private volatile String failure;
+
+		@Override
+		public String getOriginalName() {
+			return "A";
+		}
+
+		@Override
+		public RefactoringStatus validateNewName(String newName) {
+			return new RefactoringStatus();
+		}
+
+		@Override
+		public void applyDeclarationChange(String newName, ResourceSet resourceSet) {
+			if (applied != null)
+				failure = "applied twice";
+			applied = resourceSet;
+			applications++;
+			Thread.yield();
+		}
+
+		@Override
+		public void revertDeclarationChange(ResourceSet resourceSet) {
+			if (applied != resourceSet)
+				failure = "reverted in another resource set";
+			applied = null;
+		}
+
+		@Override
+		public void createDeclarationUpdates(String newName, ResourceSet resourceSet,
+				IRefactoringUpdateAcceptor updateAcceptor) {
+		}
+	}
+
+	/**
+	 * Does not keep the state of the applied change, so the slices compute their edits concurrently.
+	 */
+	private static class StatelessStrategy extends AbstractRenameStrategy {
+		@Override
+		public void applyDeclarationChange(String newName, ResourceSet resourceSet) {
+		}
+
+		@Override
+		public void revertDeclarationChange(ResourceSet resourceSet) {
+		}
+
+		@Override
+		public void createDeclarationUpdates(String newName, ResourceSet resourceSet,
+				IRefactoringUpdateAcceptor updateAcceptor) {
+		}
+	}
+
+	/**
+	 * Does not load anything and reports one update and one status entry per referring resource. Optionally asks for
+	 * the documents of the referring resources like {@link org.eclipse.xtext.ui.refactoring.impl.EmfResourceChangeUtil}.
+	 */
+	public static class TestableUpdater extends AbstractReferenceUpdater {
+		private final Set<ResourceSet> resourceSets = Sets.newConcurrentHashSet();
+		private volatile IProgressMonitor monitorToCancel;
+		private volatile boolean documentsRequested;
+		private volatile CountDownLatch concurrentSlices;
+		private volatile String failure;
+
+		@Override
+		protected int getClusterSize() {
+			return CLUSTER_SIZE;
+		}
+
+		@Override
+		protected boolean loadTargetResources(ResourceSet resourceSet, ElementRenameArguments elementRenameArguments,
+				StatusWrapper status, IProgressMonitor monitor) {
+			return true;
+		}
+
+		@Override
+		protected List<URI> loadReferringResources(ResourceSet resourceSet, Iterable<URI> referringResourceURIs,
+				StatusWrapper status, IProgressMonitor monitor) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		protected List<IReferenceDescription> resolveReferenceProxies(ResourceSet resourceSet,
+				Collection<IReferenceDescription> values, StatusWrapper status, IProgressMonitor monitor) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		protected void createReferenceUpdates(ElementRenameArguments elementRenameArguments,
+				Multimap<URI, IReferenceDescription> resource2references, ResourceSet resourceSet,
+				IRefactoringUpdateAcceptor updateAcceptor, IProgressMonitor monitor) {
+			if (elementRenameArguments.getRenameStrategy() instanceof StatelessStrategy) {
+				// the first two slices wait for each other
+				concurrentSlices.countDown();
+				try {
+					if (!concurrentSlices.await(10, TimeUnit.SECONDS))
+						failure = "edits not computed concurrently";
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				resourceSets.add(resourceSet);
+				return;
+			}
+			CheckingStrategy strategy = (CheckingStrategy) elementRenameArguments.getRenameStrategy();
+			if (strategy.applied != resourceSet)
+				strategy.failure = "not applied in the resource set of the cluster";
+			resourceSets.add(resourceSet);
+			// the updates are not passed on before all slices are done
+			if (updateAcceptor.createCompositeChange("Rename", monitor) != null)
+				strategy.failure = "updates passed on too early";
+			List<URI> referringResourceURIs = Lists.newArrayList(resource2references.keySet());
+			Collections.sort(referringResourceURIs, new Comparator<URI>() {
+				@Override
+				public int compare(URI o1, URI o2) {
+					return o1.toString().compareTo(o2.toString());
+				}
+			});
+			for (URI referringResourceURI : referringResourceURIs) {
+				if (documentsRequested && updateAcceptor.getDocument(referringResourceURI) == null)
+					strategy.failure = "no document for " + referringResourceURI;
+				updateAcceptor.accept(referringResourceURI, new ReplaceEdit(0, 1, "B"));
+				updateAcceptor.getRefactoringStatus().add(WARNING, "{0}", referringResourceURI.toString());
+			}
+			if (monitorToCancel != null)
+				monitorToCancel.setCanceled(true);
+		}
+
+		private void createParallelReferenceUpdates(ElementRenameArguments elementRenameArguments,
+				Multimap<URI, IReferenceDescription> resource2references, IRefactoringUpdateAcceptor updateAcceptor,
+				IProgressMonitor monitor) {
+			createParallelReferenceUpdates(elementRenameArguments, resource2references, null, new ResourceSetImpl(),
+					elementRenameArguments.getResourceSetProvider(), updateAcceptor, THREADS, monitor);
+		}
+	}
+
+	private URI target = URI.createURI("platform:/resource/p/target.refactoringtestlanguage#/0");
+
+	private CheckingStrategy strategy;
+
+	private ElementRenameArguments elementRenameArguments;
+
+	private Multimap<URI, IReferenceDescription> resource2references;
+
+	private TestableUpdater updater;
+
+	private RefactoringUpdateAcceptor updateAcceptor;
+
+	@Override
+	public void tearDown() throws Exception {
+		cleanWorkspace();
+		super.tearDown();
+	}
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		setInjector(TestsActivator.getInstance().getInjector(
+				TestsActivator.ORG_ECLIPSE_XTEXT_UI_TESTS_REFACTORING_REFACTORINGTESTLANGUAGE));
+		strategy = new CheckingStrategy();
+		RefactoringResourceSetProvider resourceSetProvider = new RefactoringResourceSetProvider() {
+			@Override
+			public ResourceSet get(IProject project) {
+				return new ResourceSetImpl();
+			}
+		};
+		elementRenameArguments = new ElementRenameArguments(target, "B", strategy, Collections.singletonMap(target,
+				target), resourceSetProvider);
+		resource2references = LinkedHashMultimap.create();
+		for (int i = 0; i < REFERRING_RESOURCES; i++) {
+			URI source = URI.createURI("platform:/resource/p/" + (1000 + i) + ".refactoringtestlanguage#/0");
+			resource2references.put(source.trimFragment(), new DefaultReferenceDescription(source, target,
+					EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0, source));
+		}
+		updater = get(TestableUpdater.class);
+		updateAcceptor = new RefactoringUpdateAcceptor(new MockRefactoringDocument.Provider());
+		getInjector().injectMembers(updateAcceptor);
+	}
+
+	@Test
+	public void testUpdatesAreReplayedInOrder() {
+		updater.createParallelReferenceUpdates(elementRenameArguments, resource2references, updateAcceptor,
+				new NullProgressMonitor());
+		assertNull(strategy.failure, strategy.failure);
+		assertNull(strategy.applied);
+		assertEquals(REFERRING_RESOURCES / CLUSTER_SIZE, strategy.applications);
+		assertEquals(THREADS, updater.resourceSets.size());
+
+		List<String> expected = Lists.newArrayList();
+		for (URI referringResourceURI : resource2references.keySet()) {
+			expected.add(referringResourceURI.toString());
+		}
+		List<String> reported = Lists.newArrayList();
+		for (RefactoringStatusEntry entry : updateAcceptor.getRefactoringStatus().getRefactoringStatus().getEntries()) {
+			reported.add(entry.getMessage());
+		}
+		assertEquals(expected, reported);
+
+		Change change = updateAcceptor.createCompositeChange("Rename", new NullProgressMonitor());
+		Change[] children = ((CompositeChange) change).getChildren();
+		assertEquals(REFERRING_RESOURCES, children.length);
+		for (Change child : children) {
+			assertEquals(1, ((MultiTextEdit) ((MockChange) child).getTextEdit()).getChildrenSize());
+		}
+	}
+
+	@Test
+	public void testDocumentsOfEditorsInDisplayThread() throws Exception {
+		assertNotNull("runs in the display thread", Display.getCurrent());
+		Multimap<URI, IReferenceDescription> existing = LinkedHashMultimap.create();
+		for (URI referringResourceURI : Lists.newArrayList(resource2references.keySet()).subList(0, THREADS * CLUSTER_SIZE)) {
+			createFile(referringResourceURI.toPlatformString(true), "A");
+			existing.putAll(referringResourceURI, resource2references.get(referringResourceURI));
+		}
+		// the provider looks for open editors in the display thread
+		updateAcceptor = new RefactoringUpdateAcceptor(get(DefaultRefactoringDocumentProvider.class));
+		getInjector().injectMembers(updateAcceptor);
+		updater.documentsRequested = true;
+		updater.createParallelReferenceUpdates(elementRenameArguments, existing, updateAcceptor,
+				new NullProgressMonitor());
+		assertNull(strategy.failure, strategy.failure);
+		assertEquals(THREADS, updater.resourceSets.size());
+		CompositeChange change = (CompositeChange) updateAcceptor.createCompositeChange("Rename",
+				new NullProgressMonitor());
+		assertEquals(THREADS * CLUSTER_SIZE, change.getChildren().length);
+	}
+
+	@Test
+	public void testEditsComputedConcurrently() {
+		ElementRenameArguments stateless = new ElementRenameArguments(target, "B", new StatelessStrategy(),
+				Collections.singletonMap(target, target), elementRenameArguments.getResourceSetProvider());
+		updater.concurrentSlices = new CountDownLatch(2);
+		updater.createParallelReferenceUpdates(stateless, resource2references, updateAcceptor,
+				new NullProgressMonitor());
+		assertNull(updater.failure, updater.failure);
+		assertEquals(THREADS, updater.resourceSets.size());
+	}
+
+	@Test
+	public void testCancel() {
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		updater.monitorToCancel = monitor;
+		try {
+			updater.createParallelReferenceUpdates(elementRenameArguments, resource2references, updateAcceptor, monitor);
+			fail("expected cancellation");
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		assertNull(updateAcceptor.createCompositeChange("Rename", new NullProgressMonitor()));
+		assertTrue(updateAcceptor.getRefactoringStatus().getRefactoringStatus().isOK());
+	}
+
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.tests.search;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.eclipse.xtext.junit4.util.URIBasedTestResourceDescription;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ChangedResourceDescriptionDelta;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionChangeEvent;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.ui.search.EObjectSearchIndex;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class EObjectSearchIndexTest extends Assert {
+
+	private static class Descriptions extends ResourceDescriptionsData implements IResourceDescription.Event.Source {
+		private final List<IResourceDescription.Event.Listener> listeners = Lists.newArrayList();
+
+		private Descriptions() {
+			super(Collections.<IResourceDescription> emptyList());
+		}
+
+		@Override
+		public void addListener(IResourceDescription.Event.Listener listener) {
+			listeners.add(listener);
+		}
+
+		@Override
+		public void removeListener(IResourceDescription.Event.Listener listener) {
+			listeners.remove(listener);
+		}
+
+		private void update(IResourceDescription... descriptions) {
+			List<IResourceDescription.Delta> deltas = Lists.newArrayList();
+			for (IResourceDescription description : descriptions) {
+				IResourceDescription old = getResourceDescription(description.getURI());
+				addDescription(description.getURI(), description);
+				deltas.add(new ChangedResourceDescriptionDelta(old, description));
+			}
+			ResourceDescriptionChangeEvent event = new ResourceDescriptionChangeEvent(deltas);
+			for (IResourceDescription.Event.Listener listener : listeners) {
+				listener.descriptionsChanged(event);
+			}
+		}
+	}
+
+	private static class TestableIndex extends EObjectSearchIndex {
+		private TestableIndex(Descriptions descriptions) {
+			super(descriptions);
+		}
+
+		private static int getMaxChangedResources() {
+			return MAX_CHANGED_RESOURCES;
+		}
+	}
+
+	private URI a = URI.createURI("platform:/resource/p/a.ecore");
+	private URI b = URI.createURI("platform:/resource/p/b.ecore");
+	private Descriptions descriptions;
+	private EObjectSearchIndex index;
+
+	@Before
+	public void setUp() {
+		descriptions = new Descriptions();
+		descriptions.addDescription(a, description(a, "Foo", "foobar"));
+		descriptions.addDescription(b, description(b, "Bar"));
+		index = new TestableIndex(descriptions);
+	}
+
+	@Test
+	public void testPrefixNarrowing() {
+		assertTrue(index.isAvailable());
+		assertEquals(Lists.newArrayList("Foo", "foobar"), candidates("fo"));
+		assertEquals(Lists.newArrayList("Foo", "foobar"), candidates("FOO"));
+		assertEquals(Lists.newArrayList("foobar"), candidates("foob"));
+		assertEquals(Lists.newArrayList("Foo", "foobar"), candidates("f*r"));
+		assertEquals(Lists.newArrayList("Bar"), candidates("B?r"));
+		assertTrue(candidates("x").isEmpty());
+		// a pattern without a fixed prefix cannot be narrowed
+		assertNull(index.getCandidates(pattern("*o")));
+	}
+
+	@Test
+	public void testDefaultLocaleIsIgnored() {
+		descriptions.addDescription(b, description(b, "ITEM"));
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			Locale.setDefault(new Locale("tr"));
+			index = new TestableIndex(descriptions);
+			assertEquals(Lists.newArrayList("ITEM"), candidates("it"));
+			assertEquals(Lists.newArrayList("ITEM"), candidates("IT"));
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void testChangedResource() {
+		assertEquals(Lists.newArrayList("Foo", "foobar"), candidates("fo"));
+		IResourceDescription changed = description(a, "Baz", "foobar");
+		descriptions.update(changed);
+		// the changed resource is matched completely, its former objects are skipped
+		List<IEObjectDescription> found = Lists.newArrayList(index.getCandidates(pattern("fo")));
+		assertEquals(Lists.newArrayList(changed.getExportedObjects()), found);
+		assertEquals(Lists.newArrayList("Bar", "Baz", "foobar"), candidates("ba"));
+	}
+
+	@Test
+	public void testRebuild() {
+		assertEquals(Lists.newArrayList("Foo", "foobar"), candidates("fo"));
+		int count = TestableIndex.getMaxChangedResources() + 1;
+		IResourceDescription[] changed = new IResourceDescription[count];
+		for (int i = 0; i < count; i++) {
+			URI uri = URI.createURI("platform:/resource/p/" + i + ".ecore");
+			changed[i] = description(uri, "Other" + i);
+		}
+		descriptions.update(changed);
+		// the names were built again, so the objects of the changed resources are narrowed as well
+		assertEquals(Lists.newArrayList("Foo", "foobar"), candidates("fo"));
+		assertEquals(Lists.newArrayList("Other100", "Other1000"), candidates("other100"));
+	}
+
+	private List<String> candidates(String pattern) {
+		List<String> result = Lists.newArrayList();
+		for (IEObjectDescription candidate : index.getCandidates(pattern(pattern))) {
+			result.add(candidate.getQualifiedName().toString());
+		}
+		Collections.sort(result, String.CASE_INSENSITIVE_ORDER);
+		return result;
+	}
+
+	private SearchPattern pattern(String pattern) {
+		SearchPattern result = new SearchPattern();
+		result.setPattern(pattern);
+		return result;
+	}
+
+	private IResourceDescription description(URI uri, String... names) {
+		final List<IEObjectDescription> objects = Lists.newArrayList();
+		for (int i = 0; i < names.length; i++) {
+			EClass proxy = EcoreFactory.eINSTANCE.createEClass();
+			((InternalEObject) proxy).eSetProxyURI(uri.appendFragment("//" + names[i]));
+			objects.add(EObjectDescription.create(QualifiedName.create(names[i]), proxy));
+		}
+		return new URIBasedTestResourceDescription(uri) {
+			@Override
+			protected List<IEObjectDescription> computeExportedObjects() {
+				return objects;
+			}
+		};
+	}
+
+}
@@ -17,7 +17,9 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.Assert;
@@ -340,6 +342,71 @@ public class DirtyStateEditorSupport implements IResourceDescription.Event.Liste
 		CLEAN, DIRTY, SHOULD_UPDATE
 	}
 	
+	/**
+	 * The number and the latency of the dirty state announcements of an editor.
+	 * 
+	 * @since 2.13
+	 */
+	public static class AnnouncementStatistics {
+		
+		private int count;
+		
+		private int published;
+		
+		private int superseded;
+		
+		private long totalNanos;
+		
+		private long maxNanos;
+		
+		protected synchronized void record(long nanos, boolean published) {
+			count++;
+			if (published)
+				this.published++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+		
+		protected synchronized void superseded() {
+			superseded++;
+		}
+		
+		/**
+		 * @return the number of reconciled states, including those that did not change the dirty state.
+		 */
+		public synchronized int getCount() {
+			return count;
+		}
+		
+		/**
+		 * @return the number of states that were announced to the dirty state manager.
+		 */
+		public synchronized int getPublished() {
+			return published;
+		}
+		
+		/**
+		 * @return the number of states that were dropped because a newer state had already been announced.
+		 */
+		public synchronized int getSuperseded() {
+			return superseded;
+		}
+		
+		public synchronized long getAverageMillis() {
+			return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / count);
+		}
+		
+		public synchronized long getMaxMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+		}
+		
+		@Override
+		public synchronized String toString() {
+			return count + " reconciled, " + published + " announced, " + superseded + " superseded, average "
+					+ getAverageMillis() + "ms, max " + getMaxMillis() + "ms";
+		}
+	}
+	
 	@Inject
 	private IDirtyStateManager dirtyStateManager;
 
@@ -378,6 +445,13 @@ public class DirtyStateEditorSupport implements IResourceDescription.Event.Liste
 	
 	private volatile State state;
 	
+	private final AtomicLong announcementCounter = new AtomicLong();
+	
+	/* the latest announcement that was published or did not need to be published, guarded by the dirty state manager */
+	private long lastPublishedAnnouncement;
+	
+	private final AnnouncementStatistics announcementStatistics = new AnnouncementStatistics();
+	
 	public void initializeDirtyStateSupport(IDirtyStateEditorSupportClient client) {
 		if (this.currentClient != null)
 			throw new IllegalStateException("editor was already assigned"); //$NON-NLS-1$
@@ -519,56 +593,110 @@ public class DirtyStateEditorSupport implements IResourceDescription.Event.Liste
 	}
 	
 	/**
+	 * Computes the description and the storage of the dirty resource and announces them to the dirty state manager.
+	 * The expensive parts are done without holding the lock of the dirty state manager, which is shared by all
+	 * editors. Only the new state is published while holding that lock, after the description has been compared with
+	 * the one that is published at that time. If a newer state of this editor has already been published meanwhile, or
+	 * turned out not to need an announcement, the stale one is dropped.
+	 * 
 	 * @since 2.7
 	 */
 	public void announceDirtyState(XtextResource resource) {
 		if (resource == null || !dirtyResource.isInitialized())
 			return;
+		long start = System.nanoTime();
+		long announcement = announcementCounter.incrementAndGet();
+		boolean published = false;
+		boolean superseded = false;
 		ClientAwareDirtyResource clientAwareResource = delegatingClientAwareResource;
 		if (state != State.CLEAN || ((!resource.isTrackingModification() || resource.isModified()) && clientAwareResource.isDirty() && dirtyStateManager.manageDirtyState(clientAwareResource))) {
-			synchronized (dirtyStateManager) {
-				Manager resourceDescriptionManager = getResourceDescriptionManagerIfOwnLanguage(resource);
-				if (resourceDescriptionManager != null) {
-					final IResourceDescription newDescription = resourceDescriptionManager.getResourceDescription(resource);
-					if (state == State.SHOULD_UPDATE || haveEObjectDescriptionsChanged(newDescription, resourceDescriptionManager)) {
-						if(state == State.SHOULD_UPDATE) {
-							if(clientAwareResource.isDirty())
-								state = State.DIRTY;
-							else 
-								state = State.CLEAN;
-						}
-						dirtyResource.copyState(newDescription);
-						if (resoureStorageFacade != null && (resource instanceof StorageAwareResource)) {
-							try {
-								StorageAwareResource storageAwareResource = (StorageAwareResource) resource;
-								class MyByteArrayOutputStream extends ByteArrayOutputStream {
-									@Override
-									public synchronized byte[] toByteArray() {
-										return buf;
-									}
-									public int length() { 
-										return count;
-									}
-								}
-								final MyByteArrayOutputStream bout = new MyByteArrayOutputStream();
-								ResourceStorageWritable resourceOutputStream = resoureStorageFacade.createResourceStorageWritable(bout);
-								resourceOutputStream.writeResource(storageAwareResource);
-								dirtyResource.setResourceStorageLoadableProvider(new Provider<ResourceStorageLoadable>() {
-									@Override
-									public ResourceStorageLoadable get() {
-										return resoureStorageFacade.createResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray(), 0 , bout.length()));
-									}
-								});
-							} catch(IOException e) {
-								// something went wrong when writing the resource - stream's content is bogus and not attached to the dirty resource info
-								LOG.warn("Cannot persist storage for " + resource.getURI(), e);
+			Manager resourceDescriptionManager = getResourceDescriptionManagerIfOwnLanguage(resource);
+			if (resourceDescriptionManager != null) {
+				final IResourceDescription newDescription = resourceDescriptionManager.getResourceDescription(resource);
+				boolean changed = state == State.SHOULD_UPDATE || haveEObjectDescriptionsChanged(newDescription, resourceDescriptionManager);
+				Provider<ResourceStorageLoadable> storage = changed ? createResourceStorageLoadableProvider(resource) : null;
+				synchronized (dirtyStateManager) {
+					if (announcement > lastPublishedAnnouncement) {
+						// a concurrent announcement may have published another state since the check above
+						boolean stillChanged = state == State.SHOULD_UPDATE || haveEObjectDescriptionsChanged(newDescription, resourceDescriptionManager);
+						if (stillChanged) {
+							if (!changed)
+								storage = createResourceStorageLoadableProvider(resource);
+							if(state == State.SHOULD_UPDATE) {
+								if(clientAwareResource.isDirty())
+									state = State.DIRTY;
+								else 
+									state = State.CLEAN;
 							}
+							dirtyResource.copyState(newDescription);
+							if (storage != null)
+								dirtyResource.setResourceStorageLoadableProvider(storage);
+							dirtyStateManager.announceDirtyStateChanged(clientAwareResource);
+							published = true;
 						}
-						dirtyStateManager.announceDirtyStateChanged(clientAwareResource);
+						lastPublishedAnnouncement = announcement;
+					} else {
+						superseded = true;
+						announcementStatistics.superseded();
 					}
 				}
 			}
 		}
+		if (!published && !superseded) {
+			// older announcements that are still being computed must not publish their state anymore
+			synchronized (dirtyStateManager) {
+				lastPublishedAnnouncement = Math.max(lastPublishedAnnouncement, announcement);
+			}
+		}
+		long duration = System.nanoTime() - start;
+		announcementStatistics.record(duration, published);
+		if (published && LOG.isDebugEnabled()) {
+			LOG.debug("Announced dirty state of " + resource.getURI() + " in " + TimeUnit.NANOSECONDS.toMillis(duration) + "ms");
+		}
+	}
+	
+	/**
+	 * Serializes the given resource into memory.
+	 * 
+	 * @return a provider for the serialized resource or <code>null</code> if the resource cannot be serialized.
+	 * @since 2.13
+	 */
+	protected Provider<ResourceStorageLoadable> createResourceStorageLoadableProvider(XtextResource resource) {
+		if (resoureStorageFacade == null || !(resource instanceof StorageAwareResource))
+			return null;
+		try {
+			StorageAwareResource storageAwareResource = (StorageAwareResource) resource;
+			class MyByteArrayOutputStream extends ByteArrayOutputStream {
+				@Override
+				public synchronized byte[] toByteArray() {
+					return buf;
+				}
+				public int length() { 
+					return count;
+				}
+			}
+			final MyByteArrayOutputStream bout = new MyByteArrayOutputStream();
+			ResourceStorageWritable resourceOutputStream = resoureStorageFacade.createResourceStorageWritable(bout);
+			resourceOutputStream.writeResource(storageAwareResource);
+			return new Provider<ResourceStorageLoadable>() {
+				@Override
+				public ResourceStorageLoadable get() {
+					return resoureStorageFacade.createResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray(), 0 , bout.length()));
+				}
+			};
+		} catch(IOException e) {
+			// something went wrong when writing the resource - stream's content is bogus and not attached to the dirty resource info
+			LOG.warn("Cannot persist storage for " + resource.getURI(), e);
+			return null;
+		}
+	}
+	
+	/**
+	 * @return the latency of the dirty state announcements of this editor.
+	 * @since 2.13
+	 */
+	public AnnouncementStatistics getAnnouncementStatistics() {
+		return announcementStatistics;
 	}
 	
 	/**
@@ -7,14 +7,19 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.editor;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcorePackage;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IEObjectDescription;
@@ -26,7 +31,9 @@ import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
 import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
+import com.google.common.collect.Sets;
 
 /**
  * @author Sebastian Zarnekow - Initial contribution and API
@@ -36,24 +43,113 @@ public class DirtyStateManager extends AbstractResourceDescriptionChangeEventSou
 
 	private ConcurrentMap<URI, IDirtyResource> managedResources;
 	
+	/**
+	 * The exported objects of the announced dirty resources by resource URI. The objects are also indexed by their lower
+	 * case name and by their type and all its super types. The indexes are updated while holding the lock of
+	 * {@link #indexedObjects}.
+	 */
+	private final ConcurrentMap<URI, List<IEObjectDescription>> indexedObjects = new ConcurrentHashMap<URI, List<IEObjectDescription>>();
+	private final ConcurrentMap<QualifiedName, ConcurrentMap<URI, List<IEObjectDescription>>> objectsByName = new ConcurrentHashMap<QualifiedName, ConcurrentMap<URI, List<IEObjectDescription>>>();
+	private final ConcurrentMap<EClass, ConcurrentMap<URI, List<IEObjectDescription>>> objectsByType = new ConcurrentHashMap<EClass, ConcurrentMap<URI, List<IEObjectDescription>>>();
+	
+	/**
+	 * Managed resources that were not announced yet and are therefore queried directly.
+	 */
+	private final Set<URI> unindexedResources = Sets.newConcurrentHashSet();
+	
 	public DirtyStateManager() {
 		managedResources = new MapMaker().makeMap();
 	}
 	
 	@Override
 	public void announceDirtyStateChanged(IDirtyResource dirtyResource) {
-		// avoid putting a dirtyResource into the map that wasn't managed before
-		if (managedResources.replace(dirtyResource.getURI(), dirtyResource) != null) {
+		boolean replaced;
+		synchronized (indexedObjects) {
+			// avoid putting a dirtyResource into the map that wasn't managed before
+			replaced = managedResources.replace(dirtyResource.getURI(), dirtyResource) != null;
+			if (replaced) {
+				index(dirtyResource.getURI(), dirtyResource.getDescription());
+			}
+		}
+		if (replaced) {
 			notifyListeners(dirtyResource, true);
 		}
 	}
 
 	@Override
 	public void discardDirtyState(IDirtyResource dirtyResource) {
-		if (managedResources.remove(dirtyResource.getURI(), dirtyResource)) {
+		boolean removed;
+		synchronized (indexedObjects) {
+			removed = managedResources.remove(dirtyResource.getURI(), dirtyResource);
+			if (removed) {
+				unindex(dirtyResource.getURI());
+				unindexedResources.remove(dirtyResource.getURI());
+			}
+		}
+		if (removed) {
 			notifyListeners(dirtyResource, false);
 		}
 	}
+	
+	private void index(URI uri, IResourceDescription description) {
+		unindex(uri);
+		List<IEObjectDescription> objects = Lists.newArrayList(description.getExportedObjects());
+		indexedObjects.put(uri, objects);
+		for (IEObjectDescription object : objects) {
+			addToIndex(objectsByName, object.getName().toLowerCase(), uri, object);
+			EClass type = object.getEClass();
+			if (type != null) {
+				addToIndex(objectsByType, type, uri, object);
+				for (EClass superType : type.getEAllSuperTypes()) {
+					addToIndex(objectsByType, superType, uri, object);
+				}
+			}
+		}
+		unindexedResources.remove(uri);
+	}
+	
+	private void unindex(URI uri) {
+		List<IEObjectDescription> objects = indexedObjects.remove(uri);
+		if (objects != null) {
+			for (IEObjectDescription object : objects) {
+				removeFromIndex(objectsByName, object.getName().toLowerCase(), uri);
+				EClass type = object.getEClass();
+				if (type != null) {
+					removeFromIndex(objectsByType, type, uri);
+					for (EClass superType : type.getEAllSuperTypes()) {
+						removeFromIndex(objectsByType, superType, uri);
+					}
+				}
+			}
+		}
+	}
+	
+	private <K> void addToIndex(ConcurrentMap<K, ConcurrentMap<URI, List<IEObjectDescription>>> index, K key, URI uri, IEObjectDescription object) {
+		ConcurrentMap<URI, List<IEObjectDescription>> byResource = index.get(key);
+		if (byResource == null) {
+			byResource = new ConcurrentHashMap<URI, List<IEObjectDescription>>(4);
+			index.put(key, byResource);
+		}
+		List<IEObjectDescription> objects = byResource.get(uri);
+		if (objects == null) {
+			objects = Lists.newArrayListWithCapacity(2);
+		} else {
+			// readers may iterate the published list
+			objects = Lists.newArrayList(objects);
+		}
+		objects.add(object);
+		byResource.put(uri, Collections.unmodifiableList(objects));
+	}
+	
+	private <K> void removeFromIndex(ConcurrentMap<K, ConcurrentMap<URI, List<IEObjectDescription>>> index, K key, URI uri) {
+		ConcurrentMap<URI, List<IEObjectDescription>> byResource = index.get(key);
+		if (byResource != null) {
+			byResource.remove(uri);
+			if (byResource.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
 
 	protected void notifyListeners(final IDirtyResource dirtyResource, boolean managed) {
 		if (managed) {
@@ -106,7 +202,13 @@ public class DirtyStateManager extends AbstractResourceDescriptionChangeEventSou
 
 	@Override
 	public boolean manageDirtyState(IDirtyResource dirtyResource) {
-		IDirtyResource prevValue = managedResources.putIfAbsent(dirtyResource.getURI(), dirtyResource);
+		IDirtyResource prevValue;
+		synchronized (indexedObjects) {
+			prevValue = managedResources.putIfAbsent(dirtyResource.getURI(), dirtyResource);
+			if (prevValue == null) {
+				unindexedResources.add(dirtyResource.getURI());
+			}
+		}
 		return prevValue == null || prevValue == dirtyResource;
 	}
 	
@@ -223,14 +325,21 @@ public class DirtyStateManager extends AbstractResourceDescriptionChangeEventSou
 	
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjects(final EClass type, final QualifiedName name, final boolean ignoreCase) {
-		return Iterables.concat(Iterables.transform(managedResources.values(), new Function<IDirtyResource, Iterable<IEObjectDescription>>() {
-			@Override
-			public Iterable<IEObjectDescription> apply(IDirtyResource from) {
-				if (from != null)
-					return from.getDescription().getExportedObjects(type, name, ignoreCase);
-				return Collections.emptyList();
+		List<IEObjectDescription> result = Lists.newArrayList();
+		Map<URI, List<IEObjectDescription>> byResource = objectsByName.get(name.toLowerCase());
+		if (byResource != null) {
+			for (List<IEObjectDescription> objects : byResource.values()) {
+				for (IEObjectDescription object : objects) {
+					if ((ignoreCase || name.equals(object.getName())) && EcoreUtil2.isAssignableFrom(type, object.getEClass())) {
+						result.add(object);
+					}
+				}
 			}
-		}));
+		}
+		for (IDirtyResource dirtyResource : getUnindexedResources()) {
+			Iterables.addAll(result, dirtyResource.getDescription().getExportedObjects(type, name, ignoreCase));
+		}
+		return result;
 	}
 	
 	@Override
@@ -245,14 +354,35 @@ public class DirtyStateManager extends AbstractResourceDescriptionChangeEventSou
 	
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjectsByType(final EClass type) {
-		return Iterables.concat(Iterables.transform(managedResources.values(), new Function<IDirtyResource, Iterable<IEObjectDescription>>() {
-			@Override
-			public Iterable<IEObjectDescription> apply(IDirtyResource from) {
-				if (from != null)
-					return from.getDescription().getExportedObjectsByType(type);
-				return Collections.emptyList();
+		List<IEObjectDescription> result = Lists.newArrayList();
+		Collection<List<IEObjectDescription>> indexed;
+		if (type == EcorePackage.Literals.EOBJECT) {
+			indexed = indexedObjects.values();
+		} else {
+			Map<URI, List<IEObjectDescription>> byResource = objectsByType.get(type);
+			indexed = byResource != null ? byResource.values() : Collections.<List<IEObjectDescription>>emptyList();
+		}
+		for (List<IEObjectDescription> objects : indexed) {
+			result.addAll(objects);
+		}
+		for (IDirtyResource dirtyResource : getUnindexedResources()) {
+			Iterables.addAll(result, dirtyResource.getDescription().getExportedObjectsByType(type));
+		}
+		return result;
+	}
+	
+	private List<IDirtyResource> getUnindexedResources() {
+		if (unindexedResources.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<IDirtyResource> result = Lists.newArrayListWithCapacity(unindexedResources.size());
+		for (URI uri : unindexedResources) {
+			IDirtyResource dirtyResource = managedResources.get(uri);
+			if (dirtyResource != null) {
+				result.add(dirtyResource);
 			}
-		}));
+		}
+		return result;
 	}
 
 	/**
@@ -9,7 +9,9 @@ package org.eclipse.xtext.ui.editor.contentassist;
 
 import java.util.Collection;
 import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.log4j.Logger;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.templates.TemplateProposal;
@@ -21,6 +23,8 @@ import org.eclipse.xtext.util.concurrent.IUnitOfWork;
  */
 public class CompletionProposalComputer implements IUnitOfWork<ICompletionProposal[], XtextResource>, ICompletionProposalAcceptor, ITemplateAcceptor {
 
+	private static final Logger log = Logger.getLogger(CompletionProposalComputer.class);
+
 	public interface State {
 		ITemplateProposalProvider getTemplateProposalProvider();
 		IContentProposalProvider getContentProposalProvider();
@@ -35,30 +39,112 @@ public class CompletionProposalComputer implements IUnitOfWork<ICompletionPropos
 	
 	private final Collection<ICompletionProposal> proposals;
 	
+	private long timeBudget = -1;
+	
+	private int proposalBudget = -1;
+	
+	private long startTime;
+	
+	private long contextNanos;
+	
+	private long proposalNanos;
+	
+	private long templateNanos;
+	
 	public CompletionProposalComputer(State state, ITextViewer viewer, int offset) {
 		super();
 		this.proposals = new LinkedHashSet<ICompletionProposal>(30);
 		this.state = state;
 		this.viewer = viewer;
 		this.offset = offset;
+		this.startTime = System.nanoTime();
 	}
 
 	@Override
 	public ICompletionProposal[] exec(XtextResource resource) throws Exception {
+		startTime = System.nanoTime();
 		ICompletionProposalAcceptor proposalAcceptor = state.decorateAcceptor((ICompletionProposalAcceptor)this);
 		ContentAssistContext[] contexts = createContentAssistContexts(resource);
+		long contextsDone = System.nanoTime();
+		contextNanos = contextsDone - startTime;
 		for (ContentAssistContext context: contexts) {
 			if (proposalAcceptor.canAcceptMoreProposals())
 				state.getContentProposalProvider().createProposals(context, proposalAcceptor);
 		}
+		long proposalsDone = System.nanoTime();
+		proposalNanos = proposalsDone - contextsDone;
 		ITemplateAcceptor templateAcceptor = state.decorateAcceptor((ITemplateAcceptor) this);
 		for (ContentAssistContext context: contexts) {
 			if (templateAcceptor.canAcceptMoreTemplates() && context.getReplaceRegion().getOffset() >= 0)
 				state.getTemplateProposalProvider().createTemplates(context, templateAcceptor);
 			
 		}
+		templateNanos = System.nanoTime() - proposalsDone;
+		if (log.isDebugEnabled()) {
+			log.debug(proposals.size() + " proposals for " + contexts.length + " contexts: " 
+					+ TimeUnit.NANOSECONDS.toMillis(contextNanos) + "ms contexts, " 
+					+ TimeUnit.NANOSECONDS.toMillis(proposalNanos) + "ms proposals, " 
+					+ TimeUnit.NANOSECONDS.toMillis(templateNanos) + "ms templates" 
+					+ (isBudgetExhausted() ? ", budget exhausted" : ""));
+		}
 		return proposals.toArray(new ICompletionProposal[proposals.size()]);
 	}
+	
+	/**
+	 * Sets the time in milliseconds after which no more proposals and templates are accepted, once at least one
+	 * proposal was found. The contexts whose proposals were not computed in time are skipped. A negative value means
+	 * no limit, which is the default.
+	 * 
+	 * @since 2.13
+	 */
+	public void setTimeBudget(long timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+	
+	/**
+	 * Sets the maximum number of proposals and templates that are accepted. A negative value means no limit, which is
+	 * the default.
+	 * 
+	 * @since 2.13
+	 */
+	public void setProposalBudget(int proposalBudget) {
+		this.proposalBudget = proposalBudget;
+	}
+	
+	/**
+	 * @return <code>true</code> if the proposal budget or the time budget is used up.
+	 * @since 2.13
+	 */
+	protected boolean isBudgetExhausted() {
+		if (proposalBudget >= 0 && proposals.size() >= proposalBudget)
+			return true;
+		return timeBudget >= 0 && !proposals.isEmpty()
+				&& System.nanoTime() - startTime > TimeUnit.MILLISECONDS.toNanos(timeBudget);
+	}
+	
+	/**
+	 * @return the time in nanoseconds that the last execution spent creating the content assist contexts.
+	 * @since 2.13
+	 */
+	public long getContextNanos() {
+		return contextNanos;
+	}
+	
+	/**
+	 * @return the time in nanoseconds that the last execution spent computing the proposals.
+	 * @since 2.13
+	 */
+	public long getProposalNanos() {
+		return proposalNanos;
+	}
+	
+	/**
+	 * @return the time in nanoseconds that the last execution spent computing the templates.
+	 * @since 2.13
+	 */
+	public long getTemplateNanos() {
+		return templateNanos;
+	}
 
 	/**
 	 * @since 2.7
@@ -71,24 +157,26 @@ public class CompletionProposalComputer implements IUnitOfWork<ICompletionPropos
 	public void accept(ICompletionProposal proposal) {
 		if (proposal == null)
 			throw new NullPointerException("proposal may not be null");
-		proposals.add(proposal);
+		if (proposalBudget < 0 || proposals.size() < proposalBudget)
+			proposals.add(proposal);
 	}
 
 	@Override
 	public boolean canAcceptMoreProposals() {
-		return true;
+		return !isBudgetExhausted();
 	}
 
 	@Override
 	public void accept(TemplateProposal template) {
 		if (template == null)
 			throw new NullPointerException("template may not be null");
-		proposals.add(template);
+		if (proposalBudget < 0 || proposals.size() < proposalBudget)
+			proposals.add(template);
 	}
 
 	@Override
 	public boolean canAcceptMoreTemplates() {
-		return true;
+		return !isBudgetExhausted();
 	}
 
 }
@@ -96,6 +96,9 @@ public class DefaultContentAssistantFactory implements IContentAssistantFactory
 				assistant.setStatusLineVisible(true);
 				assistant.addCompletionListener((ICompletionListener) contentAssistProcessor);
 			}
+			if (contentAssistProcessor instanceof XtextContentAssistProcessor) {
+				assistant.addCompletionListener(((XtextContentAssistProcessor) contentAssistProcessor).getSessionListener());
+			}
 		}
 	}
 
@@ -89,7 +89,7 @@ public class RepeatedContentAssistProcessor extends XtextContentAssistProcessor
 	
 	@Override
 	protected CompletionProposalComputer createCompletionProposalComputer(ITextViewer viewer, int offset) {
-		return new CompletionProposalComputer(this, viewer, offset) {
+		return configureBudgets(new CompletionProposalComputer(this, viewer, offset) {
 			ContentAssistContext[] previouslyComputed;
 			@Override
 			protected ContentAssistContext[] createContentAssistContexts(XtextResource resource) {
@@ -98,7 +98,7 @@ public class RepeatedContentAssistProcessor extends XtextContentAssistProcessor
 				}
 				return previouslyComputed = super.createContentAssistContexts(resource);
 			}
-		};
+		});
 	}
 	
 	/**
@@ -7,9 +7,16 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.editor.contentassist;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ContentAssistEvent;
+import org.eclipse.jface.text.contentassist.ICompletionListener;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.contentassist.IContentAssistProcessor;
 import org.eclipse.jface.text.contentassist.IContextInformation;
@@ -30,6 +37,22 @@ public class XtextContentAssistProcessor implements IContentAssistProcessor, Com
 
 	public static final String ERROR_MESSAGE = "org.eclipse.xtext.ui.editor.XtextContentAssistProcessor.ERROR_MESSAGE";
 	
+	/**
+	 * The time in milliseconds after which content assist stops computing further proposals, see
+	 * {@link CompletionProposalComputer#setTimeBudget(long)}.
+	 * 
+	 * @since 2.13
+	 */
+	public static final String COMPLETION_TIME_BUDGET = "org.eclipse.xtext.ui.editor.XtextContentAssistProcessor.COMPLETION_TIME_BUDGET";
+	
+	/**
+	 * The maximum number of proposals that content assist computes, see
+	 * {@link CompletionProposalComputer#setProposalBudget(int)}.
+	 * 
+	 * @since 2.13
+	 */
+	public static final String COMPLETION_PROPOSAL_BUDGET = "org.eclipse.xtext.ui.editor.XtextContentAssistProcessor.COMPLETION_PROPOSAL_BUDGET";
+	
 	@Inject
 	private ContentAssistContext.Factory contextFactory;
 	
@@ -60,20 +83,181 @@ public class XtextContentAssistProcessor implements IContentAssistProcessor, Com
 	@Named(value=ERROR_MESSAGE)
 	private String errorMessage = null;
 	
+	@Inject(optional = true)
+	@Named(value=COMPLETION_TIME_BUDGET)
+	private int completionTimeBudget = -1;
+	
+	@Inject(optional = true)
+	@Named(value=COMPLETION_PROPOSAL_BUDGET)
+	private int completionProposalBudget = -1;
+	
+	/**
+	 * The proposals of the current content assist session, see {@link SessionCache}. Only accessed in the UI thread.
+	 */
+	private SessionCache sessionCache;
+	
+	private boolean sessionActive;
+	
+	/**
+	 * The proposals that were computed for an offset in a content assist session. They were filtered by the prefix up
+	 * to that offset, so they can only be reused for a prefix that extends it. As long as the document is only changed
+	 * by typing or deleting identifier characters after that offset, the proposals for another offset in this range
+	 * are the cached ones that still match their prefix. So JFace's recomputation while typing, or after a backspace
+	 * that deletes typed characters again, does not need to create the content assist contexts and query the scopes
+	 * again. Any change to the computed prefix drops the cache.
+	 * 
+	 * Only {@link ConfigurableCompletionProposal}s are cached, because their state can be restored for another offset.
+	 */
+	private static class SessionCache implements IDocumentListener {
+		private final IDocument document;
+		private final ConfigurableCompletionProposal[] proposals;
+		private final int[] replaceContextLengths;
+		private final int documentLength;
+		/** the offset the proposals were computed for, i.e. the end of the prefix that filtered them */
+		private final int offset;
+		/** the end of the text that was typed after the offset */
+		private int end;
+		private boolean valid = true;
+
+		private SessionCache(IDocument document, ConfigurableCompletionProposal[] proposals, int offset) {
+			this.document = document;
+			this.proposals = proposals;
+			this.replaceContextLengths = new int[proposals.length];
+			for (int i = 0; i < proposals.length; i++) {
+				replaceContextLengths[i] = proposals[i].getReplaceContextLength();
+			}
+			this.documentLength = document.getLength();
+			this.offset = offset;
+			this.end = offset;
+			document.addDocumentListener(this);
+		}
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		@Override
+		public void documentChanged(DocumentEvent event) {
+			String text = event.getText() == null ? "" : event.getText();
+			if (event.getOffset() >= offset && event.getOffset() + event.getLength() <= end && isIdentifier(text)) {
+				end += text.length() - event.getLength();
+			} else {
+				dispose();
+			}
+		}
+
+		private boolean isIdentifier(String text) {
+			for (int i = 0; i < text.length(); i++) {
+				if (!Character.isJavaIdentifierPart(text.charAt(i)))
+					return false;
+			}
+			return true;
+		}
+
+		private ICompletionProposal[] getProposals(IDocument document, int offset) {
+			if (!valid || this.document != document || offset < this.offset || offset > end)
+				return null;
+			int lengthDiff = document.getLength() - documentLength;
+			List<ICompletionProposal> result = new ArrayList<ICompletionProposal>(proposals.length);
+			for (int i = 0; i < proposals.length; i++) {
+				ConfigurableCompletionProposal proposal = proposals[i];
+				if (proposal.validate(document, offset, null)) {
+					proposal.setReplaceContextLength(replaceContextLengths[i] + lengthDiff);
+					result.add(proposal);
+				}
+			}
+			return result.toArray(new ICompletionProposal[result.size()]);
+		}
+
+		private void dispose() {
+			if (valid) {
+				valid = false;
+				document.removeDocumentListener(this);
+			}
+		}
+	}
+	
 	@Override
 	public ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int offset) {
 		if (contentProposalProvider == null)
 			return null;
 		
 		IXtextDocument document = (IXtextDocument) viewer.getDocument();
-		ICompletionProposal[] result = document.priorityReadOnly(createCompletionProposalComputer(viewer, offset));
+		ICompletionProposal[] result = sessionCache != null ? sessionCache.getProposals(document, offset) : null;
+		if (result == null) {
+			CompletionProposalComputer computer = createCompletionProposalComputer(viewer, offset);
+			result = document.priorityReadOnly(computer);
+			if (sessionActive && !computer.isBudgetExhausted())
+				cacheProposals(document, offset, result);
+		}
 		Arrays.sort(result, completionProposalComparator);
 		result = completionProposalPostProcessor.postProcess(result);
 		return result;
 	}
 
+	private void cacheProposals(IDocument document, int offset, ICompletionProposal[] proposals) {
+		disposeSessionCache();
+		if (proposals.length == 0)
+			return;
+		ConfigurableCompletionProposal[] cached = new ConfigurableCompletionProposal[proposals.length];
+		for (int i = 0; i < proposals.length; i++) {
+			if (!(proposals[i] instanceof ConfigurableCompletionProposal))
+				return;
+			cached[i] = (ConfigurableCompletionProposal) proposals[i];
+			if (cached[i].getReplacementOffset() > offset)
+				return;
+		}
+		sessionCache = new SessionCache(document, cached, offset);
+	}
+	
+	private void disposeSessionCache() {
+		if (sessionCache != null) {
+			sessionCache.dispose();
+			sessionCache = null;
+		}
+	}
+	
+	private final ICompletionListener sessionListener = new ICompletionListener() {
+		@Override
+		public void assistSessionStarted(ContentAssistEvent event) {
+			sessionActive = true;
+		}
+		
+		@Override
+		public void assistSessionEnded(ContentAssistEvent event) {
+			sessionActive = false;
+			disposeSessionCache();
+		}
+		
+		@Override
+		public void selectionChanged(ICompletionProposal proposal, boolean smartToggle) {
+		}
+	};
+	
+	/**
+	 * Returns the listener that tells this processor when a content assist session starts and ends. Proposals are only
+	 * reused within a session, so they are never reused if the listener is not registered with the assistant.
+	 * 
+	 * @since 2.13
+	 */
+	public ICompletionListener getSessionListener() {
+		return sessionListener;
+	}
+	
 	protected CompletionProposalComputer createCompletionProposalComputer(ITextViewer viewer, int offset) {
-		return new CompletionProposalComputer(this, viewer, offset);
+		return configureBudgets(new CompletionProposalComputer(this, viewer, offset));
+	}
+	
+	/**
+	 * Applies the configured {@link #COMPLETION_TIME_BUDGET time budget} and {@link #COMPLETION_PROPOSAL_BUDGET
+	 * proposal budget} to the given computer.
+	 * 
+	 * @since 2.13
+	 */
+	protected CompletionProposalComputer configureBudgets(CompletionProposalComputer computer) {
+		computer.setTimeBudget(completionTimeBudget);
+		computer.setProposalBudget(completionProposalBudget);
+		return computer;
 	}
 
 	@Override
@@ -13,6 +13,7 @@ import static com.google.common.collect.Maps.*;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,6 +38,7 @@ import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 
 import com.google.common.base.Predicate;
 import com.google.common.collect.ForwardingMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 
@@ -161,10 +163,11 @@ public class DefaultReferenceFinder extends ReferenceFinder implements org.eclip
 			ILocalResourceAccess localResourceAccess) {
 		TargetURIs targetURIs = converter.fromIterable(targetURIsAsSet);
 		if (!targetURIs.isEmpty()) {
-			subMonitor.setWorkRemaining(size(indexData.getAllResourceDescriptions()) / MONITOR_CHUNK_SIZE + 1);
+			Iterable<IResourceDescription> candidates = getCandidateResourceDescriptions(targetURIs);
+			subMonitor.setWorkRemaining(size(candidates) / MONITOR_CHUNK_SIZE + 1);
 			int i = 0;
 			IProgressMonitor useMe = subMonitor.newChild(1);
-			for (IResourceDescription resourceDescription : indexData.getAllResourceDescriptions()) {
+			for (IResourceDescription resourceDescription : candidates) {
 				IResourceServiceProvider serviceProvider = getServiceProviderRegistry().getResourceServiceProvider(resourceDescription.getURI());
 				if (serviceProvider != null) {
 					IReferenceFinder referenceFinder = serviceProvider.get(IReferenceFinder.class);
@@ -184,6 +187,32 @@ public class DefaultReferenceFinder extends ReferenceFinder implements org.eclip
 		}
 	}
 	
+	/**
+	 * Returns the descriptions of the resources that may contain references to the given targets. These are all
+	 * resources of the index unless it {@link IReferencingResourcesIndex knows} the referencing resources. In that case
+	 * only the referencing resources and the target resources themselves are returned.
+	 * 
+	 * @since 2.13
+	 */
+	protected Iterable<IResourceDescription> getCandidateResourceDescriptions(TargetURIs targetURIs) {
+		if (indexData instanceof IReferencingResourcesIndex) {
+			Collection<URI> targetResourceURIs = targetURIs.getTargetResourceURIs();
+			Set<URI> referencing = ((IReferencingResourcesIndex) indexData).getReferencingResources(targetResourceURIs);
+			if (referencing != null) {
+				Set<URI> candidateURIs = Sets.newLinkedHashSet(targetResourceURIs);
+				candidateURIs.addAll(referencing);
+				List<IResourceDescription> result = Lists.newArrayListWithCapacity(candidateURIs.size());
+				for (URI candidateURI : candidateURIs) {
+					IResourceDescription description = indexData.getResourceDescription(candidateURI);
+					if (description != null)
+						result.add(description);
+				}
+				return result;
+			}
+		}
+		return indexData.getAllResourceDescriptions();
+	}
+	
 	private static final int MONITOR_FIND_LOCAL_CHUNK_SIZE = 10;
 
 	protected void findLocalReferences(
@@ -7,19 +7,35 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.editor.findrefs;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.xtext.findReferences.IReferenceFinder.Acceptor;
+import org.eclipse.xtext.findReferences.TargetURIs;
 import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.service.OperationCanceledError;
 import org.eclipse.xtext.util.IAcceptor;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 
 /**
  * Implementation of the UI APIs for find references that delegates to the runtime
@@ -29,6 +45,26 @@ import com.google.inject.Inject;
  */
 public class DelegatingReferenceFinder implements IReferenceFinder, IReferenceFinderExtension1 {
 
+	/**
+	 * Binding key for a boolean that enables or disables the parallel search of {@link #findAllReferences}. The
+	 * search is sequential if the key is not bound.
+	 * 
+	 * @since 2.13
+	 */
+	public static final String PARALLEL_SEARCH = "org.eclipse.xtext.ui.editor.findrefs.parallelSearch";
+	
+	/**
+	 * The number of resources that are searched by one task of the parallel search.
+	 */
+	private static final int PARALLEL_SEARCH_CHUNK_SIZE = 100;
+	
+	@Inject(optional = true)
+	@Named(PARALLEL_SEARCH)
+	private boolean parallelSearch = false;
+	
+	@Inject(optional = true)
+	private ReferenceSearchExecutor searchExecutor;
+	
 	@Inject
 	private IResourceDescriptions indexData;
 	
@@ -56,10 +92,154 @@ public class DelegatingReferenceFinder implements IReferenceFinder, IReferenceFi
 		delegate.findReferences(converter.fromIterable(targetURIs), asSet, localResourceAccess, indexData, toAcceptor(acceptor), monitor);
 	}
 
+	/**
+	 * Only visits the resources that reference the targets if the index {@link IReferencingResourcesIndex knows} them.
+	 * Such an index is backed by the builder state, whose descriptions can be read concurrently, so large searches can
+	 * be {@link #isParallelSearch() spread} across the threads of the {@link ReferenceSearchExecutor}.
+	 */
 	@Override
 	public void findAllReferences(Iterable<URI> targetURIs, ILocalResourceAccess localResourceAccess,
 			IAcceptor<IReferenceDescription> acceptor, IProgressMonitor monitor) {
-		delegate.findAllReferences(converter.fromIterable(targetURIs), localResourceAccess, indexData, toAcceptor(acceptor), monitor);
+		TargetURIs converted = converter.fromIterable(targetURIs);
+		if (converted.isEmpty())
+			return;
+		Set<URI> candidates = getCandidateURIs(converted);
+		if (candidates == null) {
+			delegate.findAllReferences(converted, localResourceAccess, indexData, toAcceptor(acceptor), monitor);
+		} else if (isParallelSearch() && candidates.size() > PARALLEL_SEARCH_CHUNK_SIZE) {
+			findReferencesInParallel(converted, candidates, localResourceAccess, acceptor, monitor);
+		} else if (!candidates.isEmpty()) {
+			delegate.findReferences(converted, candidates, localResourceAccess, indexData, toAcceptor(acceptor), monitor);
+		}
+	}
+	
+	/**
+	 * @return whether searches with more than a few candidate resources are done in parallel.
+	 * @since 2.13
+	 */
+	protected boolean isParallelSearch() {
+		return parallelSearch && searchExecutor != null && searchExecutor.getThreadCount() > 1;
+	}
+	
+	/**
+	 * Searches the given candidates in chunks on the threads of the {@link ReferenceSearchExecutor}. The acceptor is
+	 * called as soon as a reference is found, but never concurrently. The target resources themselves are searched on
+	 * the calling thread, since the local resource access loads them into resource sets that are not thread safe.
+	 * 
+	 * @since 2.13
+	 */
+	protected void findReferencesInParallel(final TargetURIs targetURIs, Set<URI> candidates,
+			ILocalResourceAccess localResourceAccess, final IAcceptor<IReferenceDescription> acceptor,
+			IProgressMonitor progressMonitor) {
+		final IProgressMonitor monitor = progressMonitor != null ? progressMonitor : new NullProgressMonitor();
+		Set<URI> targetResources = Sets.newHashSet(targetURIs.getTargetResourceURIs());
+		Set<URI> localCandidates = Sets.newLinkedHashSet();
+		List<URI> indexedCandidates = Lists.newArrayListWithCapacity(candidates.size());
+		for (URI candidate : candidates) {
+			if (targetResources.contains(candidate))
+				localCandidates.add(candidate);
+			else
+				indexedCandidates.add(candidate);
+		}
+		final IAcceptor<IReferenceDescription> synchronizedAcceptor = new IAcceptor<IReferenceDescription>() {
+			@Override
+			public void accept(IReferenceDescription description) {
+				synchronized (this) {
+					acceptor.accept(description);
+				}
+			}
+		};
+		List<List<URI>> chunks = Lists.partition(indexedCandidates, PARALLEL_SEARCH_CHUNK_SIZE);
+		SubMonitor progress = SubMonitor.convert(monitor, chunks.size() + 1);
+		List<Future<?>> futures = Lists.newArrayListWithCapacity(chunks.size());
+		try {
+			for (final List<URI> chunk : chunks) {
+				futures.add(searchExecutor.getExecutor().submit(new Runnable() {
+					@Override
+					public void run() {
+						if (monitor.isCanceled())
+							return;
+						// the candidates do not contain a target, so their descriptions are sufficient
+						delegate.findReferences(targetURIs, Sets.newLinkedHashSet(chunk), null, indexData,
+								toAcceptor(synchronizedAcceptor), new CancelableProgressMonitor(monitor));
+					}
+				}));
+			}
+			if (!localCandidates.isEmpty()) {
+				delegate.findReferences(targetURIs, localCandidates, localResourceAccess, indexData,
+						toAcceptor(synchronizedAcceptor), progress.newChild(1));
+			}
+			for (Future<?> future : futures) {
+				waitFor(future, monitor);
+				progress.worked(1);
+			}
+		} finally {
+			for (Future<?> future : futures) {
+				future.cancel(false);
+			}
+		}
+	}
+	
+	private void waitFor(Future<?> future, IProgressMonitor monitor) {
+		while (true) {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+			try {
+				future.get(100, TimeUnit.MILLISECONDS);
+				return;
+			} catch (TimeoutException e) {
+				// check for cancellation again
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof OperationCanceledException || cause instanceof OperationCanceledError)
+					throw new OperationCanceledException();
+				Throwables.propagateIfPossible(cause);
+				throw new WrappedException((Exception) cause);
+			}
+		}
+	}
+	
+	/**
+	 * Reports the cancellation of the search to a worker without sharing the progress of the search, since a progress
+	 * monitor must not be used by several threads.
+	 */
+	private static class CancelableProgressMonitor extends NullProgressMonitor {
+		
+		private final IProgressMonitor delegate;
+		
+		private CancelableProgressMonitor(IProgressMonitor delegate) {
+			this.delegate = delegate;
+		}
+		
+		@Override
+		public boolean isCanceled() {
+			return delegate.isCanceled();
+		}
+	}
+	
+	/**
+	 * Returns the URIs of the indexed resources that may contain references to the given targets, i.e. the
+	 * referencing resources and the target resources themselves.
+	 * 
+	 * @return the candidates or <code>null</code> if the index does not know the referencing resources.
+	 * @since 2.13
+	 */
+	protected Set<URI> getCandidateURIs(TargetURIs targetURIs) {
+		if (!(indexData instanceof IReferencingResourcesIndex))
+			return null;
+		Collection<URI> targetResourceURIs = targetURIs.getTargetResourceURIs();
+		Set<URI> referencing = ((IReferencingResourcesIndex) indexData).getReferencingResources(targetResourceURIs);
+		if (referencing == null)
+			return null;
+		Set<URI> result = Sets.newLinkedHashSet();
+		for (URI candidate : Iterables.concat(targetResourceURIs, referencing)) {
+			if (indexData.getResourceDescription(candidate) != null)
+				result.add(candidate);
+		}
+		return result;
 	}
 	
 	protected Acceptor toAcceptor(IAcceptor<IReferenceDescription> acceptor) {
@@ -114,6 +294,24 @@ public class DelegatingReferenceFinder implements IReferenceFinder, IReferenceFi
 		this.indexData = indexData;
 	}
 	
+	/**
+	 * Public for testing purpose.
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 2.13
+	 */
+	public void setSearchExecutor(ReferenceSearchExecutor searchExecutor) {
+		this.searchExecutor = searchExecutor;
+	}
+	
+	/**
+	 * Public for testing purpose.
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 2.13
+	 */
+	public void setParallelSearch(boolean parallelSearch) {
+		this.parallelSearch = parallelSearch;
+	}
+	
 	/**
 	 * Public for testing purpose.
 	 * @noreference This method is not intended to be referenced by clients.
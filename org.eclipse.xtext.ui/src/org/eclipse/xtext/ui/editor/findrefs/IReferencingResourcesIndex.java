@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.findrefs;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+/**
+ * Implemented by {@link IResourceDescriptions} that know which of their resources reference a given resource. Reference
+ * searches use it to visit only those resources instead of all resources of the index.
+ *
+ * @since 2.13
+ */
+public interface IReferencingResourcesIndex {
+
+	/**
+	 * @param targetResourceURIs
+	 *            the URIs of the resources that contain the searched targets.
+	 * @return the URIs of all resources whose reference descriptions may point into one of the given resources. The
+	 *         result may contain more resources but must not miss one. The target resources themselves need not be
+	 *         included. <code>null</code> if the candidates are not known.
+	 */
+	Set<URI> getReferencingResources(Collection<URI> targetResourceURIs);
+
+}
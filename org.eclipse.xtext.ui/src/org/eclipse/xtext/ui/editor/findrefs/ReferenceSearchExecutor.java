@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.findrefs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import com.google.inject.Singleton;
+
+/**
+ * The executor of the parallel reference search of the {@link DelegatingReferenceFinder} and of the parallel reference
+ * updates of a rename refactoring. It does not own any threads: the shared injector binds it to the executor of the
+ * builder, otherwise the common fork join pool is used.
+ *
+ * @since 2.13
+ */
+@Singleton
+public class ReferenceSearchExecutor {
+
+	private final ExecutorService executor;
+
+	private final int threadCount;
+
+	public ReferenceSearchExecutor() {
+		this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+	}
+
+	/**
+	 * @param executor
+	 *            the executor that runs the search tasks. It is not shut down by this instance.
+	 * @param threadCount
+	 *            the number of tasks that the executor runs at the same time.
+	 */
+	public ReferenceSearchExecutor(ExecutorService executor, int threadCount) {
+		this.executor = executor;
+		this.threadCount = threadCount;
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+}
@@ -7,28 +7,59 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.editor.model;
 
+import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.TokenSource;
 import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.xtext.parser.antlr.Lexer;
 
 /**
- * The old version of the {@link DocumentTokenSource}. It assumes that all tokens before the damaged region can change
- * with a {@link DocumentEvent} therefore the entire document is being lexed. 
+ * The old version of the {@link DocumentTokenSource}. It assumes that the tokens before the damaged region can change
+ * with a {@link DocumentEvent}, because the lexer may have looked ahead into the changed region while it created them.
+ * 
+ * The lexer that is created by {@link #createTokenSource(String)} records how many characters it looks ahead beyond
+ * the end of a token. Lexing is restarted at the first token whose look ahead may reach the changed region. If the
+ * look ahead is not known, e.g. because a subclass creates its own token source, the entire document is being lexed.
  * 
  * @author koehnlein - Initial contribution and API
  * @since 2.4
  */
 public class BacktrackingLexerDocumentTokenSource extends DocumentTokenSource {
 
+	/**
+	 * A char stream that remembers the highest index the lexer has looked at.
+	 */
+	private static class LookAheadRecordingStream extends ANTLRStringStream {
+
+		private int maxIndex = -1;
+
+		private LookAheadRecordingStream(String input) {
+			super(input);
+		}
+
+		@Override
+		public int LA(int i) {
+			if (i > 0 && p + i - 1 > maxIndex)
+				maxIndex = p + i - 1;
+			return super.LA(i);
+		}
+	}
+
+	/**
+	 * The maximum number of characters that the lexer looked at beyond the end of a token. <code>-1</code> if it is
+	 * not known.
+	 */
+	private int maxLookAhead = -1;
+
 	/**
 	 * @since 2.4
 	 */
 	@Override
 	protected RepairEntryData getRepairEntryData(DocumentEvent e) throws Exception {
-		int tokenStartsAt = 0;
-		int tokenInfoIdx = 0;
-		TokenSource source = createTokenSource(e.fDocument.get());
+		int tokenInfoIdx = getRestartIndex(e);
+		int tokenStartsAt = getInternalTokenInfoList().getOffset(tokenInfoIdx);
+		TokenSource source = createTokenSource(e.fDocument, tokenStartsAt);
 		CommonToken token = (CommonToken) source.nextToken();
 		// find start idx
 		while (true) {
@@ -50,4 +81,42 @@ public class BacktrackingLexerDocumentTokenSource extends DocumentTokenSource {
 		return new RepairEntryData(tokenStartsAt, tokenInfoIdx, token, source);
 	}
 
+	/**
+	 * @return the index of the first token whose look ahead may have reached the offset of the event. All tokens
+	 *         before it are not affected by the event.
+	 * @since 2.13
+	 */
+	protected int getRestartIndex(DocumentEvent e) {
+		if (maxLookAhead < 0)
+			return 0;
+		return getInternalTokenInfoList().getIndexAtOffset(Math.max(0, e.fOffset - maxLookAhead));
+	}
+
+	/**
+	 * @since 2.13
+	 */
+	@Override
+	protected TokenSource createTokenSource(String string) {
+		final Lexer lexer = (Lexer) super.createTokenSource(string);
+		final LookAheadRecordingStream stream = new LookAheadRecordingStream(string);
+		lexer.setCharStream(stream);
+		return new TokenSource() {
+			@Override
+			public Token nextToken() {
+				Token token = lexer.nextToken();
+				if (token != Token.EOF_TOKEN) {
+					int lookAhead = stream.maxIndex - ((CommonToken) token).getStopIndex();
+					if (lookAhead > maxLookAhead)
+						maxLookAhead = lookAhead;
+				}
+				return token;
+			}
+
+			@Override
+			public String getSourceName() {
+				return lexer.getSourceName();
+			}
+		};
+	}
+
 }
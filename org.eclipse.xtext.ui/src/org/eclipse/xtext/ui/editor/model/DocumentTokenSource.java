@@ -16,14 +16,15 @@ import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.TokenSource;
 import org.apache.log4j.Logger;
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Region;
 import org.eclipse.xtext.ide.LexerIdeBindings;
 import org.eclipse.xtext.parser.antlr.Lexer;
 
 import com.google.common.collect.AbstractIterator;
-import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.name.Named;
@@ -133,10 +134,27 @@ public class DocumentTokenSource {
 
 		@Override
 		public Iterator<ILexerTokenRegion> iterator() {
+			return iterator(tokens.iterator(), 0);
+		}
+		
+		/**
+		 * @return an iterator that starts with the first token that ends at or after the given offset. Tokens before
+		 *         it are skipped without being visited if the tokens are indexed by offset.
+		 * @since 2.13
+		 */
+		public Iterator<ILexerTokenRegion> iterator(int offset) {
+			if (tokens instanceof TokenInfoList) {
+				TokenInfoList list = (TokenInfoList) tokens;
+				int index = list.getIndexAtOffset(offset);
+				return iterator(list.iterator(index), list.getOffset(index));
+			}
+			return iterator();
+		}
+		
+		private Iterator<ILexerTokenRegion> iterator(final Iterator<TokenInfo> infos, final int startOffset) {
 			return new AbstractIterator<ILexerTokenRegion>() {
 
-				private int offset = 0;
-				private Iterator<TokenInfo> infos = tokens.iterator();
+				private int offset = startOffset;
 
 				@Override
 				protected ILexerTokenRegion computeNext() {
@@ -191,10 +209,16 @@ public class DocumentTokenSource {
 	private static final Logger logger = Logger.getLogger(DocumentTokenSource.class);
 	
 	private boolean checkInvariant = false;
-	private List<TokenInfo> internalModifyableTokenInfos = Collections.emptyList();
+	private TokenInfoList internalModifyableTokenInfos = new TokenInfoList();
 	private List<TokenInfo> tokenInfos = Collections.emptyList();
 	private IRegion previousRegion;
 	private DocumentEvent previousEvent;
+	
+	/** the characters that were lexed for the current event */
+	private int relexedCharacters;
+	private int lastRelexedCharacters;
+	private long totalRelexedCharacters;
+	private int updateCount;
 
 	@Inject
 	@Named(LexerIdeBindings.HIGHLIGHTING)
@@ -213,8 +237,13 @@ public class DocumentTokenSource {
 	}
 
 	protected void setTokens(List<TokenInfo> infos) {
-		this.internalModifyableTokenInfos = infos;
-		this.tokenInfos = Collections.unmodifiableList(Lists.newArrayList(infos));
+		this.internalModifyableTokenInfos = asTokenInfoList(infos);
+		// shares the unchanged chunks with the previous snapshot
+		this.tokenInfos = internalModifyableTokenInfos.snapshot();
+	}
+	
+	private TokenInfoList asTokenInfoList(List<TokenInfo> infos) {
+		return infos instanceof TokenInfoList ? (TokenInfoList) infos : new TokenInfoList(infos);
 	}
 	
 	/**
@@ -223,14 +252,47 @@ public class DocumentTokenSource {
 	protected List<TokenInfo> getInternalModifyableTokenInfos() {
 		return internalModifyableTokenInfos;
 	}
+	
+	/**
+	 * @return the same list as {@link #getInternalModifyableTokenInfos()}, which allows to find tokens by offset.
+	 * @since 2.13
+	 */
+	protected TokenInfoList getInternalTokenInfoList() {
+		return internalModifyableTokenInfos;
+	}
+	
+	/**
+	 * @return the number of characters that were lexed to compute the last damaged region.
+	 * @since 2.13
+	 */
+	public int getLastRelexedCharacters() {
+		return lastRelexedCharacters;
+	}
+	
+	/**
+	 * @return the number of characters that were lexed to compute all damaged regions so far.
+	 * @since 2.13
+	 */
+	public long getTotalRelexedCharacters() {
+		return totalRelexedCharacters;
+	}
+	
+	/**
+	 * @return the number of damaged regions that were computed so far.
+	 * @since 2.13
+	 */
+	public int getUpdateCount() {
+		return updateCount;
+	}
 
 	protected List<TokenInfo> createTokenInfos(String string) {
-		List<TokenInfo> result = Lists.newArrayListWithExpectedSize(string.length() / 3);
+		List<TokenInfo> result = new TokenInfoList();
 		TokenSource source = createTokenSource(string);
 		CommonToken token = (CommonToken) source.nextToken();
 		while (token != Token.EOF_TOKEN) {
 			TokenInfo info = createTokenInfo(token);
 			result.add(info);
+			relexedCharacters += info.getLength();
 			token = (CommonToken) source.nextToken();
 		}
 		return result;
@@ -264,6 +326,20 @@ public class DocumentTokenSource {
 	}
 
 	protected IRegion computeDamageRegion(final DocumentEvent e) {
+		relexedCharacters = 0;
+		try {
+			return doComputeDamageRegion(e);
+		} finally {
+			lastRelexedCharacters = relexedCharacters;
+			totalRelexedCharacters += relexedCharacters;
+			updateCount++;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Relexed " + relexedCharacters + " of " + e.fDocument.getLength() + " characters");
+			}
+		}
+	}
+
+	private IRegion doComputeDamageRegion(final DocumentEvent e) {
 		// empty document -> no dirty region
 		if (e.getDocument().getLength() == 0) {
 			setTokens(createTokenInfos(e.fDocument.get()));
@@ -321,7 +397,7 @@ public class DocumentTokenSource {
 			return new Region(regionOffset, regionLength);
 		} catch(Exception exc) {
 			logger.error("Error computing damaged region", exc);
-			internalModifyableTokenInfos = createTokenInfos(e.fDocument.get());
+			internalModifyableTokenInfos = asTokenInfoList(createTokenInfos(e.fDocument.get()));
 			return new Region(0, e.fDocument.getLength());
 		} finally {
 			setTokens(internalModifyableTokenInfos);
@@ -332,23 +408,31 @@ public class DocumentTokenSource {
 	 * @since 2.4
 	 */
 	protected RepairEntryData getRepairEntryData(DocumentEvent e) throws Exception {
-		int tokenStartsAt = 0;
-		int tokenInfoIdx = 0;
-		for(tokenInfoIdx = 0; tokenInfoIdx< getInternalModifyableTokenInfos().size(); ++tokenInfoIdx) {
-			TokenInfo oldToken = getInternalModifyableTokenInfos().get(tokenInfoIdx);
-			if(tokenStartsAt <= e.getOffset() && tokenStartsAt + oldToken.getLength() >= e.getOffset())
-				break;
-			tokenStartsAt += oldToken.getLength();
-		}
-		final TokenSource delegate = createTokenSource(e.fDocument.get(tokenStartsAt, e.fDocument.getLength() - tokenStartsAt));
-		final int offset = tokenStartsAt;
-		TokenSource source = new TokenSource() {
+		// the first token that ends at or after the offset of the event
+		int tokenInfoIdx = internalModifyableTokenInfos.getIndexAtOffset(e.getOffset());
+		int tokenStartsAt = internalModifyableTokenInfos.getOffset(tokenInfoIdx);
+		TokenSource source = createTokenSource(e.fDocument, tokenStartsAt);
+		final CommonToken token = (CommonToken) source.nextToken();
+		return new RepairEntryData(tokenStartsAt, tokenInfoIdx, token, source);
+	}
+	
+	/**
+	 * Lexes the given document from the given offset, which has to be the start of a token. The start and stop
+	 * indexes of the returned tokens are offsets in the document.
+	 * 
+	 * @since 2.13
+	 */
+	protected TokenSource createTokenSource(IDocument document, final int offset) throws BadLocationException {
+		final TokenSource delegate = createTokenSource(document.get(offset, document.getLength() - offset));
+		return new TokenSource() {
 			@Override
 			public Token nextToken() {
 				CommonToken commonToken = (CommonToken) delegate.nextToken();
 				commonToken.setText(commonToken.getText());
 				commonToken.setStartIndex(commonToken.getStartIndex()+offset);
 				commonToken.setStopIndex(commonToken.getStopIndex()+offset);
+				if (commonToken != Token.EOF_TOKEN)
+					relexedCharacters += commonToken.getStopIndex() - commonToken.getStartIndex() + 1;
 				return commonToken;
 			}
 
@@ -357,8 +441,6 @@ public class DocumentTokenSource {
 				return delegate.getSourceName();
 			}
 		};
-		final CommonToken token = (CommonToken) source.nextToken();
-		return new RepairEntryData(offset, tokenInfoIdx, token, source);
 	}
 	
 	/**
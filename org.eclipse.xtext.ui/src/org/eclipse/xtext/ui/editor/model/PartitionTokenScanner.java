@@ -16,6 +16,7 @@ import org.eclipse.jface.text.TextUtilities;
 import org.eclipse.jface.text.rules.IPartitionTokenScanner;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.jface.text.rules.Token;
+import org.eclipse.xtext.ui.editor.model.DocumentTokenSource.IRegionIterable;
 
 import com.google.common.collect.AbstractIterator;
 import com.google.inject.Inject;
@@ -40,7 +41,12 @@ public class PartitionTokenScanner implements IPartitionTokenScanner {
 
 		protected RangedIterator(Iterable<ILexerTokenRegion> base, IRegion overlapRegion) {
 			this.overlapRegion = overlapRegion;
-			this.delegate = base.iterator();
+			if (base instanceof IRegionIterable) {
+				// tokens that end before the region cannot overlap it
+				this.delegate = ((IRegionIterable) base).iterator(overlapRegion.getOffset());
+			} else {
+				this.delegate = base.iterator();
+			}
 		}
 		
 		@Override
@@ -0,0 +1,425 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import org.eclipse.xtext.ui.editor.model.DocumentTokenSource.TokenInfo;
+
+/**
+ * The token infos of a document, stored in chunks of bounded size. The index and the offset of the first token of each
+ * chunk are cached, so the token at a given index or offset is found by a binary search over the chunks. Inserting or
+ * removing a token only shifts the tokens of its chunk.
+ *
+ * A {@link #snapshot() snapshot} shares the chunks with the list it was taken from. Chunks that are shared with a
+ * snapshot are copied before they are modified, so a snapshot never changes and can be read by other threads.
+ *
+ * @since 2.13
+ */
+public class TokenInfoList extends AbstractList<TokenInfo> implements RandomAccess {
+
+	private static final int CHUNK_SIZE = 256;
+
+	private static class Chunk {
+		private final TokenInfo[] tokens;
+		private int size;
+		/** the sum of the lengths of the tokens */
+		private int length;
+		/** whether the chunk is referenced by a snapshot */
+		private boolean shared;
+
+		private Chunk() {
+			this.tokens = new TokenInfo[CHUNK_SIZE];
+		}
+
+		private Chunk copy() {
+			Chunk result = new Chunk();
+			System.arraycopy(tokens, 0, result.tokens, 0, size);
+			result.size = size;
+			result.length = length;
+			return result;
+		}
+
+		private void insert(int index, TokenInfo token) {
+			System.arraycopy(tokens, index, tokens, index + 1, size - index);
+			tokens[index] = token;
+			size++;
+			length += token.getLength();
+		}
+
+		private void remove(int index, int count) {
+			for (int i = index; i < index + count; i++) {
+				length -= tokens[i].getLength();
+			}
+			System.arraycopy(tokens, index + count, tokens, index, size - index - count);
+			Arrays.fill(tokens, size - count, size, null);
+			size -= count;
+		}
+
+		private void append(Chunk other) {
+			System.arraycopy(other.tokens, 0, tokens, size, other.size);
+			size += other.size;
+			length += other.length;
+		}
+	}
+
+	private Chunk[] chunks;
+
+	private int chunkCount;
+
+	/** the index of the first token of each chunk */
+	private int[] firstIndex;
+
+	/** the offset of the first token of each chunk */
+	private int[] firstOffset;
+
+	/** the number of chunks whose first index and first offset are up to date */
+	private int validChunks;
+
+	private int size;
+
+	private final boolean readOnly;
+
+	public TokenInfoList() {
+		this.chunks = new Chunk[4];
+		this.firstIndex = new int[4];
+		this.firstOffset = new int[4];
+		this.readOnly = false;
+	}
+
+	public TokenInfoList(Collection<? extends TokenInfo> tokens) {
+		this();
+		addAll(tokens);
+	}
+
+	private TokenInfoList(TokenInfoList original) {
+		this.chunks = Arrays.copyOf(original.chunks, Math.max(1, original.chunkCount));
+		this.chunkCount = original.chunkCount;
+		this.firstIndex = new int[chunks.length];
+		this.firstOffset = new int[chunks.length];
+		this.size = original.size;
+		this.readOnly = true;
+		// computed eagerly, a snapshot is not modified after it has been published
+		validate();
+	}
+
+	/**
+	 * @return an unmodifiable list with the current tokens. Later changes of this list are not visible in the
+	 *         snapshot.
+	 */
+	public TokenInfoList snapshot() {
+		if (readOnly) {
+			return this;
+		}
+		for (int i = 0; i < chunkCount; i++) {
+			chunks[i].shared = true;
+		}
+		return new TokenInfoList(this);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public TokenInfo get(int index) {
+		checkIndex(index, size);
+		int chunk = getChunkOfIndex(index);
+		return chunks[chunk].tokens[index - firstIndex[chunk]];
+	}
+
+	@Override
+	public TokenInfo set(int index, TokenInfo token) {
+		checkWritable();
+		checkIndex(index, size);
+		int chunk = getChunkOfIndex(index);
+		Chunk writable = getWritableChunk(chunk);
+		int position = index - firstIndex[chunk];
+		TokenInfo result = writable.tokens[position];
+		writable.tokens[position] = token;
+		writable.length += token.getLength() - result.getLength();
+		invalidate(chunk + 1);
+		return result;
+	}
+
+	@Override
+	public void add(int index, TokenInfo token) {
+		checkWritable();
+		checkIndex(index, size + 1);
+		int chunk;
+		int position;
+		if (index == size) {
+			chunk = chunkCount - 1;
+			if (chunk < 0 || chunks[chunk].size == CHUNK_SIZE) {
+				insertChunk(++chunk, new Chunk());
+			}
+			position = chunks[chunk].size;
+		} else {
+			chunk = getChunkOfIndex(index);
+			position = index - firstIndex[chunk];
+			if (chunks[chunk].size == CHUNK_SIZE) {
+				split(chunk);
+				int half = chunks[chunk].size;
+				if (position > half) {
+					chunk++;
+					position -= half;
+				}
+			}
+		}
+		getWritableChunk(chunk).insert(position, token);
+		size++;
+		modCount++;
+		invalidate(chunk + 1);
+	}
+
+	@Override
+	public TokenInfo remove(int index) {
+		checkWritable();
+		checkIndex(index, size);
+		int chunk = getChunkOfIndex(index);
+		int position = index - firstIndex[chunk];
+		Chunk writable = getWritableChunk(chunk);
+		TokenInfo result = writable.tokens[position];
+		writable.remove(position, 1);
+		size--;
+		modCount++;
+		if (writable.size == 0) {
+			removeChunk(chunk);
+		} else {
+			mergeWithNext(chunk);
+		}
+		invalidate(chunk);
+		return result;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		checkWritable();
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("from: " + fromIndex + ", to: " + toIndex + ", size: " + size);
+		if (fromIndex == toIndex)
+			return;
+		int first = getChunkOfIndex(fromIndex);
+		int chunk = first;
+		int position = fromIndex - firstIndex[chunk];
+		int count = toIndex - fromIndex;
+		size -= count;
+		modCount++;
+		while (count > 0) {
+			int removed = Math.min(count, chunks[chunk].size - position);
+			if (position == 0 && removed == chunks[chunk].size) {
+				removeChunk(chunk);
+			} else {
+				getWritableChunk(chunk).remove(position, removed);
+				chunk++;
+				position = 0;
+			}
+			count -= removed;
+		}
+		if (first < chunkCount) {
+			mergeWithNext(first);
+		}
+		invalidate(first);
+	}
+
+	@Override
+	public Iterator<TokenInfo> iterator() {
+		return iterator(0);
+	}
+
+	/**
+	 * @return an iterator over the tokens from the given index to the end of the list.
+	 */
+	public Iterator<TokenInfo> iterator(int index) {
+		checkIndex(index, size + 1);
+		final int firstChunk = index == size ? chunkCount : getChunkOfIndex(index);
+		final int firstPosition = index == size ? 0 : index - firstIndex[firstChunk];
+		return new Iterator<TokenInfo>() {
+			private final int expectedModCount = modCount;
+			private int chunk = firstChunk;
+			private int position = firstPosition;
+
+			@Override
+			public boolean hasNext() {
+				return chunk < chunkCount && position < chunks[chunk].size;
+			}
+
+			@Override
+			public TokenInfo next() {
+				if (expectedModCount != modCount)
+					throw new ConcurrentModificationException();
+				if (!hasNext())
+					throw new NoSuchElementException();
+				TokenInfo result = chunks[chunk].tokens[position++];
+				if (position == chunks[chunk].size) {
+					chunk++;
+					position = 0;
+				}
+				return result;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * @return the index of the first token that ends at or after the given offset, or the {@link #size()} if there
+	 *         is no such token.
+	 */
+	public int getIndexAtOffset(int offset) {
+		validate();
+		int low = 0;
+		int high = chunkCount - 1;
+		int chunk = chunkCount;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (firstOffset[mid] + chunks[mid].length >= offset) {
+				chunk = mid;
+				high = mid - 1;
+			} else {
+				low = mid + 1;
+			}
+		}
+		if (chunk == chunkCount) {
+			return size;
+		}
+		Chunk found = chunks[chunk];
+		int end = firstOffset[chunk];
+		for (int i = 0; i < found.size; i++) {
+			end += found.tokens[i].getLength();
+			if (end >= offset) {
+				return firstIndex[chunk] + i;
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	/**
+	 * @return the offset of the token at the given index. The offset of the index {@link #size()} is the length of
+	 *         all tokens.
+	 */
+	public int getOffset(int index) {
+		checkIndex(index, size + 1);
+		if (index == size) {
+			if (chunkCount == 0)
+				return 0;
+			validate();
+			return firstOffset[chunkCount - 1] + chunks[chunkCount - 1].length;
+		}
+		int chunk = getChunkOfIndex(index);
+		Chunk found = chunks[chunk];
+		int result = firstOffset[chunk];
+		for (int i = 0, position = index - firstIndex[chunk]; i < position; i++) {
+			result += found.tokens[i].getLength();
+		}
+		return result;
+	}
+
+	private int getChunkOfIndex(int index) {
+		validate();
+		int low = 0;
+		int high = chunkCount - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (firstIndex[mid] <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private void validate() {
+		for (int i = validChunks; i < chunkCount; i++) {
+			if (i == 0) {
+				firstIndex[i] = 0;
+				firstOffset[i] = 0;
+			} else {
+				firstIndex[i] = firstIndex[i - 1] + chunks[i - 1].size;
+				firstOffset[i] = firstOffset[i - 1] + chunks[i - 1].length;
+			}
+		}
+		validChunks = chunkCount;
+	}
+
+	private void invalidate(int chunk) {
+		if (chunk < validChunks) {
+			validChunks = chunk;
+		}
+	}
+
+	private Chunk getWritableChunk(int chunk) {
+		Chunk result = chunks[chunk];
+		if (result.shared) {
+			result = result.copy();
+			chunks[chunk] = result;
+		}
+		return result;
+	}
+
+	private void split(int chunk) {
+		Chunk first = getWritableChunk(chunk);
+		Chunk second = new Chunk();
+		int half = first.size / 2;
+		for (int i = half; i < first.size; i++) {
+			second.tokens[second.size++] = first.tokens[i];
+			second.length += first.tokens[i].getLength();
+		}
+		first.remove(half, first.size - half);
+		insertChunk(chunk + 1, second);
+	}
+
+	private void mergeWithNext(int chunk) {
+		if (chunk + 1 < chunkCount && chunks[chunk].size < CHUNK_SIZE / 4
+				&& chunks[chunk].size + chunks[chunk + 1].size <= CHUNK_SIZE) {
+			getWritableChunk(chunk).append(chunks[chunk + 1]);
+			removeChunk(chunk + 1);
+		}
+	}
+
+	private void insertChunk(int index, Chunk chunk) {
+		if (chunkCount == chunks.length) {
+			int capacity = chunks.length * 2;
+			chunks = Arrays.copyOf(chunks, capacity);
+			firstIndex = Arrays.copyOf(firstIndex, capacity);
+			firstOffset = Arrays.copyOf(firstOffset, capacity);
+		}
+		System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+		chunks[index] = chunk;
+		chunkCount++;
+		invalidate(index);
+	}
+
+	private void removeChunk(int index) {
+		System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+		chunks[--chunkCount] = null;
+		invalidate(index);
+	}
+
+	private void checkWritable() {
+		if (readOnly)
+			throw new UnsupportedOperationException("A snapshot cannot be modified");
+	}
+
+	private void checkIndex(int index, int limit) {
+		if (index < 0 || index >= limit)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+}
@@ -17,6 +17,7 @@ import java.util.Map;
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
@@ -38,9 +39,14 @@ import org.eclipse.xtext.service.OperationCanceledManager;
 import org.eclipse.xtext.ui.editor.XtextEditor;
 import org.eclipse.xtext.ui.editor.model.IXtextDocument;
 import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.IResourceScopeCache;
 import org.eclipse.xtext.util.ITextRegion;
 import org.eclipse.xtext.util.concurrent.CancelableUnitOfWork;
 
+import com.google.common.base.Predicates;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
@@ -75,6 +81,11 @@ public class DefaultOccurrenceComputer implements IOccurrenceComputer {
 	@Inject
 	private OperationCanceledManager operationCanceledManager;
 	
+	@Inject
+	private IResourceScopeCache cache;
+	
+	private static final String LOCAL_REFERENCES_CACHE_KEY = DefaultOccurrenceComputer.class.getName() + ".localReferences";
+	
 	protected void addOccurrenceAnnotation(String type, IDocument document, ITextRegion textRegion,
 			Map<Annotation, Position> annotationMap) {
 		try {
@@ -88,10 +99,27 @@ public class DefaultOccurrenceComputer implements IOccurrenceComputer {
 		}
 	}
 	
-	private static class EObjectReferenceAndIndex {
+	/**
+	 * A local reference of the resource.
+	 * 
+	 * @since 2.13
+	 */
+	protected static class EObjectReferenceAndIndex {
 		EObject source;
 		EReference reference;
 		int idx;
+		
+		public EObject getSource() {
+			return source;
+		}
+		
+		public EReference getReference() {
+			return reference;
+		}
+		
+		public int getIndex() {
+			return idx;
+		}
 	}
 
 	@Override
@@ -107,37 +135,18 @@ public class DefaultOccurrenceComputer implements IOccurrenceComputer {
 					if(resource != null) {
 						EObject target = eObjectAtOffsetHelper.resolveElementAt(resource, selection.getOffset());
 						if (target != null && ! target.eIsProxy()) {
-							final List<EObjectReferenceAndIndex> references = newArrayList();
-							IReferenceFinder.Acceptor acceptor = new IReferenceFinder.Acceptor() {
-								@Override
-								public void accept(IReferenceDescription reference) {
-									throw new UnsupportedOperationException("Local references are announced per object");
-								}
-
-								@Override
-								public void accept(EObject source, URI sourceURI, EReference eReference, int index,
-										EObject targetOrProxy, URI targetURI) {
-									EObjectReferenceAndIndex acceptMe = new EObjectReferenceAndIndex();
-									acceptMe.source = source;
-									acceptMe.reference = eReference;
-									acceptMe.idx = index;
-									references.add(acceptMe);
-								}
-							};
-							Iterable<URI> targetURIs = getTargetURIs(target);
-							if (!(targetURIs instanceof TargetURIs)) {
-								TargetURIs result = targetURIsProvider.get();
-								result.addAllURIs(targetURIs);
-								targetURIs = result;
-							}
 							IProgressMonitor localMonitor = new NullProgressMonitor() {
 								@Override
 								public boolean isCanceled() {
 									return monitor.isCanceled() || cancelIndicator.isCanceled();
 								}
 							};
-							referenceFinder.findReferences((TargetURIs) targetURIs, resource, acceptor, localMonitor);
+							ListMultimap<URI, EObjectReferenceAndIndex> localReferences = getLocalReferences(resource, localMonitor);
 							operationCanceledManager.checkCanceled(cancelIndicator);
+							List<EObjectReferenceAndIndex> references = newArrayList();
+							for (URI targetURI : Sets.newLinkedHashSet(getTargetURIs(target))) {
+								references.addAll(localReferences.get(targetURI));
+							}
 							Map<Annotation, Position> result = newHashMapWithExpectedSize(references.size() + 1);
 							if (target.eResource() == resource) {
 								if (!references.isEmpty() || canBeReferencedLocally(target)) {
@@ -168,6 +177,44 @@ public class DefaultOccurrenceComputer implements IOccurrenceComputer {
 		}
 	}
 
+	/**
+	 * Returns all local references of the resource by the URI of their target. The references are collected once per
+	 * state of the resource and cached until the resource changes, so moving the caret only looks up the references
+	 * of the selected element.
+	 * 
+	 * @since 2.13
+	 */
+	protected ListMultimap<URI, EObjectReferenceAndIndex> getLocalReferences(final XtextResource resource,
+			final IProgressMonitor monitor) {
+		return cache.get(LOCAL_REFERENCES_CACHE_KEY, resource, new Provider<ListMultimap<URI, EObjectReferenceAndIndex>>() {
+			@Override
+			public ListMultimap<URI, EObjectReferenceAndIndex> get() {
+				final ListMultimap<URI, EObjectReferenceAndIndex> result = ArrayListMultimap.create();
+				IReferenceFinder.Acceptor acceptor = new IReferenceFinder.Acceptor() {
+					@Override
+					public void accept(IReferenceDescription reference) {
+						throw new UnsupportedOperationException("Local references are announced per object");
+					}
+
+					@Override
+					public void accept(EObject source, URI sourceURI, EReference eReference, int index,
+							EObject targetOrProxy, URI targetURI) {
+						EObjectReferenceAndIndex acceptMe = new EObjectReferenceAndIndex();
+						acceptMe.source = source;
+						acceptMe.reference = eReference;
+						acceptMe.idx = index;
+						result.put(targetURI, acceptMe);
+					}
+				};
+				referenceFinder.findReferences(Predicates.<URI>alwaysTrue(), resource, acceptor, monitor);
+				// a canceled search must not be cached
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+				return result;
+			}
+		});
+	}
+
 	/**
 	 * @since 2.3
 	 */
@@ -8,6 +8,7 @@
 package org.eclipse.xtext.ui.editor.outline.impl;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -21,10 +22,14 @@ import org.eclipse.xtext.ui.editor.outline.IOutlineNode;
 import org.eclipse.xtext.ui.editor.outline.IOutlineTreeProvider;
 import org.eclipse.xtext.ui.util.DisplayRunnableWithResult;
 import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.Tuples;
 import org.eclipse.xtext.util.concurrent.CancelableUnitOfWork;
 
 import com.google.common.base.Predicate;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
 public class OutlineRefreshJob extends Job {
@@ -36,6 +41,12 @@ public class OutlineRefreshJob extends Job {
 	@Inject
 	private IOutlineNodeComparer nodeComparer;
 	
+	/**
+	 * The former expanded and selected nodes by their {@link #getNodeKey(IOutlineNode) key} while a refresh restores
+	 * them. The job is never run concurrently.
+	 */
+	private final Map<Iterable<IOutlineNode>, ListMultimap<Object, IOutlineNode>> formerNodesByKey = Maps.newIdentityHashMap();
+	
 	public OutlineRefreshJob() {
 		super("Refreshing Outline");
 	}
@@ -90,7 +101,13 @@ public class OutlineRefreshJob extends Job {
 			@Override
 			public IOutlineNode exec(XtextResource resource, CancelIndicator cancelIndicator) throws Exception {
 				IOutlineNode rootNode = createModel(treeProvider, cancelIndicator);
-				restoreChildrenSelectionAndExpansion(rootNode, resource, formerState, newState, cancelIndicator);
+				indexFormerNodes(formerState.getExpandedNodes());
+				indexFormerNodes(formerState.getSelectedNodes());
+				try {
+					restoreChildrenSelectionAndExpansion(rootNode, resource, formerState, newState, cancelIndicator);
+				} finally {
+					formerNodesByKey.clear();
+				}
 				return rootNode;
 			}
 
@@ -131,7 +148,40 @@ public class OutlineRefreshJob extends Job {
 		}
 	}
 	
+	private void indexFormerNodes(Iterable<IOutlineNode> nodes) {
+		ListMultimap<Object, IOutlineNode> nodesByKey = ArrayListMultimap.create();
+		for (IOutlineNode node : nodes) {
+			nodesByKey.put(getNodeKey(node), node);
+		}
+		formerNodesByKey.put(nodes, nodesByKey);
+	}
+	
+	/**
+	 * Returns a key that is the same for all nodes that are equal according to the {@link IOutlineNodeComparer}. While
+	 * the expansion and the selection are restored, a node is only compared with the former nodes that have the same
+	 * key. If the comparer is not the default one, the key is <code>null</code> for all nodes and every former node is
+	 * compared.
+	 * 
+	 * @since 2.13
+	 */
+	protected Object getNodeKey(IOutlineNode node) {
+		if (nodeComparer.getClass() != IOutlineNodeComparer.Default.class)
+			return null;
+		int depth = 0;
+		for (IOutlineNode parent = node.getParent(); parent != null; parent = parent.getParent())
+			depth++;
+		return Tuples.create(node.getClass(), String.valueOf(node.getText()), depth);
+	}
+	
 	protected boolean containsUsingComparer(Iterable<IOutlineNode> list, final IOutlineNode node) {
+		ListMultimap<Object, IOutlineNode> nodesByKey = formerNodesByKey.get(list);
+		if (nodesByKey != null) {
+			for (IOutlineNode nodeFromList : nodesByKey.get(getNodeKey(node))) {
+				if (nodeComparer.equals(node, nodeFromList))
+					return true;
+			}
+			return false;
+		}
 		return Iterables.any(list, new Predicate<IOutlineNode>() {
 			@Override
 			public boolean apply(IOutlineNode nodeFromList) {
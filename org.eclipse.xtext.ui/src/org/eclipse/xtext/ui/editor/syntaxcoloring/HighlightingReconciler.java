@@ -10,6 +10,7 @@ package org.eclipse.xtext.ui.editor.syntaxcoloring;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -17,9 +18,17 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextInputListener;
+import org.eclipse.jface.text.ITextListener;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.TextEvent;
 import org.eclipse.jface.text.TextPresentation;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.events.ControlAdapter;
+import org.eclipse.swt.events.ControlEvent;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.IWorkbenchPartSite;
@@ -34,6 +43,8 @@ import org.eclipse.xtext.ui.editor.model.IXtextModelListener;
 import org.eclipse.xtext.ui.editor.model.IXtextModelListenerExtension;
 import org.eclipse.xtext.ui.editor.model.XtextDocument;
 import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.Pair;
+import org.eclipse.xtext.util.Tuples;
 import org.eclipse.xtext.util.concurrent.CancelableUnitOfWork;
 
 import com.google.common.collect.Maps;
@@ -62,6 +73,39 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 	private XtextSourceViewer sourceViewer;
 	/** The highlighting presenter */
 	private HighlightingPresenter presenter;
+	
+	/**
+	 * The maximum number of added and removed positions that are presented at once. Larger updates present the
+	 * visible positions first and the others in chunks of this size.
+	 * 
+	 * @since 2.13
+	 */
+	protected static final int CHUNK_SIZE = 1000;
+	
+	/** The document range that is visible in the source viewer, updated in the UI thread */
+	private volatile IRegion visibleRegion;
+	
+	/**
+	 * Updates the visible region when the viewer scrolls, when the text changes and when the viewer is resized.
+	 */
+	private class VisibleRegionTracker extends ControlAdapter implements IViewportListener, ITextListener {
+		@Override
+		public void viewportChanged(int verticalOffset) {
+			updateVisibleRegion();
+		}
+
+		@Override
+		public void textChanged(TextEvent event) {
+			updateVisibleRegion();
+		}
+
+		@Override
+		public void controlResized(ControlEvent e) {
+			updateVisibleRegion();
+		}
+	}
+	
+	private final VisibleRegionTracker visibleRegionTracker = new VisibleRegionTracker();
 
 	/** Background job's added highlighted positions */
 	private final List<AttributedPosition> addedPositions = new ArrayList<AttributedPosition>();
@@ -119,6 +163,10 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 	 * @since 3.2
 	 */
 	private boolean reconciling = false;
+	/**
+	 * Incremented by each reconciliation, so the chunks of an outdated one are not presented anymore.
+	 */
+	private final AtomicInteger reconcileCount = new AtomicInteger();
 
 	/**
 	 * Start reconciling positions.
@@ -226,6 +274,150 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 		});
 	}
 	
+	/**
+	 * Presents the added and removed positions in the visible region first, so they are shown before the other
+	 * positions are processed. The other positions are presented in chunks of {@link #CHUNK_SIZE} in the order of their
+	 * offsets. Only the first chunk is posted to the UI thread right away, each chunk posts the next one when it is
+	 * done, so the UI thread is not blocked by a single large update. If the reconciliation is canceled while the
+	 * chunks are computed or a newer reconciliation has started in the meantime, the remaining positions keep their
+	 * former highlighting until the next reconciliation presents them.
+	 */
+	private void updatePresentationInChunks(HighlightingPresenter highlightingPresenter, XtextResource resource,
+			CancelIndicator cancelIndicator) {
+		int reconcile = reconcileCount.get();
+		List<Pair<List<AttributedPosition>, List<AttributedPosition>>> chunks = splitIntoChunks(addedPositions,
+				removedPositions, visibleRegion);
+		List<Runnable> updates = new ArrayList<Runnable>(chunks.size());
+		for (Pair<List<AttributedPosition>, List<AttributedPosition>> chunk : chunks) {
+			List<AttributedPosition> added = chunk.getFirst();
+			List<AttributedPosition> removed = chunk.getSecond();
+			if (added.isEmpty() && removed.isEmpty())
+				continue;
+			if (highlightingPresenter.isCanceled())
+				return;
+			checkCanceled(cancelIndicator);
+			TextPresentation textPresentation = highlightingPresenter.createPresentation(added, removed);
+			Runnable update = highlightingPresenter.createUpdateRunnable(textPresentation, added, removed);
+			if (update == null)
+				return;
+			updates.add(update);
+		}
+		if (updates.isEmpty())
+			return;
+		Display display = getDisplay();
+		if (display == null)
+			return;
+		XtextResourceSet resourceSet = (XtextResourceSet) resource.getResourceSet();
+		display.asyncExec(new ChunkedPresentation(display, updates, reconcile, resourceSet));
+	}
+	
+	/**
+	 * Runs the updates of the chunks one after the other in the UI thread. Each run presents a single chunk and posts
+	 * the next one, so other events are processed in between. Stops as soon as the reconciliation is outdated.
+	 */
+	private class ChunkedPresentation implements Runnable {
+		private final Display display;
+		private final List<Runnable> updates;
+		private final int reconcile;
+		private final XtextResourceSet resourceSet;
+		private final int modificationStamp;
+		private int next = 0;
+
+		private ChunkedPresentation(Display display, List<Runnable> updates, int reconcile,
+				XtextResourceSet resourceSet) {
+			this.display = display;
+			this.updates = updates;
+			this.reconcile = reconcile;
+			this.resourceSet = resourceSet;
+			this.modificationStamp = resourceSet.getModificationStamp();
+		}
+
+		@Override
+		public void run() {
+			// never apply outdated highlighting
+			if (sourceViewer == null || reconcile != reconcileCount.get()
+					|| modificationStamp != resourceSet.getModificationStamp())
+				return;
+			updates.get(next++).run();
+			if (next < updates.size() && !display.isDisposed())
+				display.asyncExec(this);
+		}
+	}
+	
+	/**
+	 * Splits the added and removed positions into the chunks that are presented one after the other. The first chunk
+	 * holds the positions that intersect the visible region, no matter how many they are. The other chunks hold at
+	 * most {@link #CHUNK_SIZE} positions each in the order of their offsets.
+	 * 
+	 * @param added
+	 *            the added positions, sorted by offset.
+	 * @param removed
+	 *            the removed positions, sorted by offset.
+	 * @param visible
+	 *            the visible region of the source viewer or <code>null</code> if it is not known.
+	 * @return the added and removed positions of each chunk.
+	 * @since 2.13
+	 */
+	protected List<Pair<List<AttributedPosition>, List<AttributedPosition>>> splitIntoChunks(
+			List<AttributedPosition> added, List<AttributedPosition> removed, IRegion visible) {
+		List<Pair<List<AttributedPosition>, List<AttributedPosition>>> result = new ArrayList<Pair<List<AttributedPosition>, List<AttributedPosition>>>();
+		if (visible != null) {
+			List<AttributedPosition> visibleAdded = new ArrayList<AttributedPosition>();
+			List<AttributedPosition> otherAdded = new ArrayList<AttributedPosition>(added.size());
+			splitByRegion(added, visible, visibleAdded, otherAdded);
+			List<AttributedPosition> visibleRemoved = new ArrayList<AttributedPosition>();
+			List<AttributedPosition> otherRemoved = new ArrayList<AttributedPosition>(removed.size());
+			splitByRegion(removed, visible, visibleRemoved, otherRemoved);
+			if (!visibleAdded.isEmpty() || !visibleRemoved.isEmpty())
+				result.add(Tuples.<List<AttributedPosition>, List<AttributedPosition>>create(visibleAdded, visibleRemoved));
+			added = otherAdded;
+			removed = otherRemoved;
+		}
+		int i = 0;
+		int j = 0;
+		while (i < added.size() || j < removed.size()) {
+			List<AttributedPosition> chunkAdded = new ArrayList<AttributedPosition>();
+			List<AttributedPosition> chunkRemoved = new ArrayList<AttributedPosition>();
+			while ((i < added.size() || j < removed.size()) && chunkAdded.size() + chunkRemoved.size() < CHUNK_SIZE) {
+				if (j >= removed.size() || i < added.size() && added.get(i).getOffset() <= removed.get(j).getOffset())
+					chunkAdded.add(added.get(i++));
+				else
+					chunkRemoved.add(removed.get(j++));
+			}
+			result.add(Tuples.<List<AttributedPosition>, List<AttributedPosition>>create(chunkAdded, chunkRemoved));
+		}
+		return result;
+	}
+	
+	private void splitByRegion(List<AttributedPosition> positions, IRegion region, List<AttributedPosition> inside,
+			List<AttributedPosition> outside) {
+		int start = region.getOffset();
+		int end = start + region.getLength();
+		for (int i = 0, n = positions.size(); i < n; i++) {
+			AttributedPosition position = positions.get(i);
+			if (position.getOffset() <= end && position.getOffset() + position.getLength() >= start)
+				inside.add(position);
+			else
+				outside.add(position);
+		}
+	}
+	
+	/**
+	 * Remembers the visible document range of the source viewer. Must be called in the UI thread, i.e. when the viewer
+	 * scrolls, is resized or shows a changed text, since the reconciler runs in the background and cannot ask the
+	 * widget itself.
+	 */
+	private void updateVisibleRegion() {
+		XtextSourceViewer mySourceViewer = sourceViewer;
+		if (mySourceViewer == null || mySourceViewer.getDocument() == null) {
+			visibleRegion = null;
+			return;
+		}
+		int start = mySourceViewer.getTopIndexStartOffset();
+		int end = mySourceViewer.getBottomIndexEndOffset();
+		visibleRegion = end >= start ? new Region(start, end - start) : null;
+	}
+	
 	private Display getDisplay() {
 		XtextEditor editor = this.editor;
 		if (editor == null){
@@ -278,6 +470,13 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 				editor.getDocument().addModelListener(this);
 
 			sourceViewer.addTextInputListener(this);
+			sourceViewer.addViewportListener(visibleRegionTracker);
+			sourceViewer.addTextListener(visibleRegionTracker);
+			StyledText textWidget = sourceViewer.getTextWidget();
+			if (textWidget != null)
+				textWidget.addControlListener(visibleRegionTracker);
+			if (Display.getCurrent() != null)
+				updateVisibleRegion();
 		}
 		refresh();
 	}
@@ -296,6 +495,12 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 				sourceViewer.removeTextInputListener(this);
 			}
 		}
+		sourceViewer.removeViewportListener(visibleRegionTracker);
+		sourceViewer.removeTextListener(visibleRegionTracker);
+		StyledText textWidget = sourceViewer.getTextWidget();
+		if (textWidget != null && !textWidget.isDisposed())
+			textWidget.removeControlListener(visibleRegionTracker);
+		visibleRegion = null;
 		editor = null;
 		sourceViewer = null;
 		presenter = null;
@@ -316,6 +521,8 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 	@Override
 	public void inputDocumentChanged(IDocument oldInput, IDocument newInput) {
 		if (newInput != null) {
+			if (Display.getCurrent() != null)
+				updateVisibleRegion();
 			refresh();
 			((IXtextDocument) newInput).addModelListener(this);
 		}
@@ -382,6 +589,7 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 			if (reconciling)
 				return;
 			reconciling = true;
+			reconcileCount.incrementAndGet();
 		}
 		final HighlightingPresenter highlightingPresenter = presenter;
 		try {
@@ -404,6 +612,10 @@ public class HighlightingReconciler implements ITextInputListener, IXtextModelLi
 			if (highlightingPresenter.isCanceled())		
 				return;
 			checkCanceled(cancelIndicator);
+			if (addedPositions.size() + removedPositions.size() > CHUNK_SIZE) {
+				updatePresentationInChunks(highlightingPresenter, resource, cancelIndicator);
+				return;
+			}
 			final TextPresentation textPresentation = highlightingPresenter.createPresentation(addedPositions, removedPositions);
 			
 			if (highlightingPresenter.isCanceled())		
@@ -18,6 +18,7 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.ui.actions.WorkspaceModifyOperation;
 import org.eclipse.xtext.ui.validation.MarkerTypeProvider;
 import org.eclipse.xtext.validation.Issue;
@@ -29,7 +30,6 @@ import com.google.common.collect.ImmutableList;
  */
 public class AddMarkersOperation extends WorkspaceModifyOperation {
 
-	@SuppressWarnings("unused")
 	private final static Logger log = Logger.getLogger(AddMarkersOperation.class);
 
 	private final List<Issue> issues;
@@ -88,19 +88,41 @@ public class AddMarkersOperation extends WorkspaceModifyOperation {
 		return markerIds;
 	}
 	
+	/**
+	 * @since 2.13
+	 */
+	protected MarkerReconciler createMarkerReconciler() {
+		return new MarkerReconciler(markerCreator, markerTypeProvider);
+	}
+	
 	@Override
 	protected void execute(final IProgressMonitor monitor) throws CoreException, InvocationTargetException,
 			InterruptedException {
 		if (!resource.exists())
 			return;
+		List<Issue> newIssues = issues;
 		if (deleteMarkers) {
-			for(String markerId: getMarkerIds()) {
-				resource.deleteMarkers(markerId, true, IResource.DEPTH_INFINITE);	
+			MarkerReconciler reconciler = createMarkerReconciler();
+			if (reconciler.isApplicable()) {
+				// keep the markers that did not change instead of deleting and recreating all of them
+				try {
+					MarkerReconciler.Result result = reconciler.reconcile(resource, issues, getMarkerIds(),
+							IResource.DEPTH_INFINITE, monitor);
+					if (log.isDebugEnabled())
+						log.debug("Markers of " + resource.getFullPath() + ": " + result);
+					newIssues = result.getNewIssues();
+				} catch (OperationCanceledException e) {
+					throw new InterruptedException();
+				}
+			} else {
+				for(String markerId: getMarkerIds()) {
+					resource.deleteMarkers(markerId, true, IResource.DEPTH_INFINITE);	
+				}
 			}
 		}
-		if (!issues.isEmpty()) {
+		if (!newIssues.isEmpty()) {
 			// update
-			for (Issue issue : issues) {
+			for (Issue issue : newIssues) {
 				if (monitor.isCanceled())
 					throw new InterruptedException();
 				markerCreator.createMarker(issue, resource, markerTypeProvider.getMarkerType(issue));
@@ -7,6 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.ui.editor.validation;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -35,28 +38,57 @@ public class MarkerCreator {
 	 * @since 2.0
 	 */
 	protected void setMarkerAttributes(Issue issue, IResource resource, IMarker marker) throws CoreException {
+		Map<String, Object> attributes = getMarkerAttributes(issue, resource);
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			// the marker is new, so there is nothing to remove
+			if (attribute.getValue() != null)
+				marker.setAttribute(attribute.getKey(), attribute.getValue());
+		}
+	}
+
+	/**
+	 * Computes the attributes of the marker for the given issue. Subclasses that add or change attributes should
+	 * override this method instead of {@link #setMarkerAttributes(Issue, IResource, IMarker)}, so the
+	 * {@link MarkerReconciler} can compare them with existing markers.
+	 * 
+	 * @return the attributes by name, a <code>null</code> value denotes an attribute that is not set. Attributes that
+	 *         are only set for some issues are contained with a <code>null</code> value for the others, so they are
+	 *         removed from a reused marker.
+	 * @since 2.13
+	 */
+	public Map<String, Object> getMarkerAttributes(Issue issue, IResource resource) {
+		Map<String, Object> attributes = new LinkedHashMap<String, Object>();
 		String lineNR = "";
 		if (issue.getLineNumber() != null) {
 			lineNR = "line: " + issue.getLineNumber() + " ";
 		}
-		marker.setAttribute(IMarker.LOCATION, lineNR + resource.getFullPath().toString());
-		marker.setAttribute(Issue.CODE_KEY, issue.getCode());		
-		marker.setAttribute(IMarker.SEVERITY, getSeverity(issue));
-		marker.setAttribute(IMarker.CHAR_START, issue.getOffset());
+		attributes.put(IMarker.LOCATION, lineNR + resource.getFullPath().toString());
+		attributes.put(Issue.CODE_KEY, issue.getCode());		
+		attributes.put(IMarker.SEVERITY, getSeverity(issue));
+		attributes.put(IMarker.CHAR_START, issue.getOffset());
 		if(issue.getOffset() != null && issue.getLength() != null)
-			marker.setAttribute(IMarker.CHAR_END, issue.getOffset()+issue.getLength());
-		marker.setAttribute(IMarker.LINE_NUMBER, issue.getLineNumber());
-		marker.setAttribute(Issue.COLUMN_KEY, issue.getColumn());
-		marker.setAttribute(IMarker.MESSAGE, issue.getMessage());
+			attributes.put(IMarker.CHAR_END, issue.getOffset()+issue.getLength());
+		else
+			attributes.put(IMarker.CHAR_END, null);
+		attributes.put(IMarker.LINE_NUMBER, issue.getLineNumber());
+		attributes.put(Issue.COLUMN_KEY, issue.getColumn());
+		attributes.put(IMarker.MESSAGE, issue.getMessage());
 
 		if (issue.getUriToProblem()!=null) 
-			marker.setAttribute(Issue.URI_KEY, issue.getUriToProblem().toString());
+			attributes.put(Issue.URI_KEY, issue.getUriToProblem().toString());
+		else
+			attributes.put(Issue.URI_KEY, null);
 		if(issue.getData() != null && issue.getData().length > 0) {
-			marker.setAttribute(Issue.DATA_KEY, Strings.pack(issue.getData()));
+			attributes.put(Issue.DATA_KEY, Strings.pack(issue.getData()));
+		} else {
+			attributes.put(Issue.DATA_KEY, null);
 		}
 		if (resolutionProvider != null && resolutionProvider.hasResolutionFor(issue.getCode())) {
-			marker.setAttribute(FIXABLE_KEY, true);
+			attributes.put(FIXABLE_KEY, true);
+		} else {
+			attributes.put(FIXABLE_KEY, null);
 		}
+		return attributes;
 	}
 
 	private Object getSeverity(Issue issue) {
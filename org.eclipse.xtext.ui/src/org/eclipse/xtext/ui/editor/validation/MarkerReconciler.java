@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.editor.validation;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.xtext.ui.validation.MarkerTypeProvider;
+import org.eclipse.xtext.validation.Issue;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Brings the markers of a resource in line with a list of issues. Existing markers are matched with the issues by
+ * their type, code, severity, offset, length and message. Matched markers are kept and only their attributes are
+ * updated if necessary, markers without an issue are deleted. The issues without a marker are returned, so the caller
+ * can create their markers.
+ *
+ * The attributes of an issue are the ones that {@link MarkerCreator#getMarkerAttributes(Issue, IResource)} computes.
+ * A marker creator that overrides {@link MarkerCreator#setMarkerAttributes(Issue, IResource, IMarker)} or
+ * {@link MarkerCreator#createMarker(Issue, IResource, String)} may set other attributes, so the reconciler is not
+ * {@link #isApplicable() applicable} then and the caller has to replace all markers.
+ *
+ * @since 2.13
+ */
+public class MarkerReconciler {
+
+	private static final List<String> KEY_ATTRIBUTES = Arrays.asList(Issue.CODE_KEY, IMarker.SEVERITY,
+			IMarker.CHAR_START, IMarker.CHAR_END, IMarker.MESSAGE);
+
+	public static class Result {
+		private final List<Issue> newIssues;
+		private final int unchanged;
+		private final int updated;
+		private final int deleted;
+
+		protected Result(List<Issue> newIssues, int unchanged, int updated, int deleted) {
+			this.newIssues = newIssues;
+			this.unchanged = unchanged;
+			this.updated = updated;
+			this.deleted = deleted;
+		}
+
+		/**
+		 * @return the issues that have no marker yet.
+		 */
+		public List<Issue> getNewIssues() {
+			return newIssues;
+		}
+
+		/**
+		 * @return the number of markers that were already up to date.
+		 */
+		public int getUnchanged() {
+			return unchanged;
+		}
+
+		/**
+		 * @return the number of markers whose attributes were updated.
+		 */
+		public int getUpdated() {
+			return updated;
+		}
+
+		/**
+		 * @return the number of markers that were deleted.
+		 */
+		public int getDeleted() {
+			return deleted;
+		}
+
+		@Override
+		public String toString() {
+			return newIssues.size() + " new, " + unchanged + " unchanged, " + updated + " updated, " + deleted + " deleted";
+		}
+	}
+
+	private final MarkerCreator markerCreator;
+
+	private final MarkerTypeProvider markerTypeProvider;
+
+	public MarkerReconciler(MarkerCreator markerCreator, MarkerTypeProvider markerTypeProvider) {
+		this.markerCreator = markerCreator;
+		this.markerTypeProvider = markerTypeProvider;
+	}
+
+	/**
+	 * @return <code>false</code> if the marker creator overrides
+	 *         {@link MarkerCreator#setMarkerAttributes(Issue, IResource, IMarker)} or
+	 *         {@link MarkerCreator#createMarker(Issue, IResource, String)}.
+	 */
+	public boolean isApplicable() {
+		for (Class<?> type = markerCreator.getClass(); type != MarkerCreator.class; type = type.getSuperclass()) {
+			if (declares(type, "setMarkerAttributes", Issue.class, IResource.class, IMarker.class)
+					|| declares(type, "createMarker", Issue.class, IResource.class, String.class)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean declares(Class<?> type, String name, Class<?>... parameterTypes) {
+		try {
+			type.getDeclaredMethod(name, parameterTypes);
+			return true;
+		} catch (NoSuchMethodException e) {
+			// not overridden by this type
+			return false;
+		}
+	}
+
+	/**
+	 * @param markerTypes
+	 *            the types of the existing markers that are reconciled, including their subtypes.
+	 * @param depth
+	 *            the depth of the existing markers that are reconciled, see {@link IResource#findMarkers}.
+	 */
+	public Result reconcile(IResource resource, List<Issue> issues, Collection<String> markerTypes, int depth,
+			IProgressMonitor monitor) throws CoreException, OperationCanceledException {
+		ListMultimap<List<Object>, IMarker> existing = ArrayListMultimap.create();
+		Set<Long> seen = Sets.newHashSet();
+		for (String markerType : markerTypes) {
+			for (IMarker marker : resource.findMarkers(markerType, true, depth)) {
+				if (seen.add(marker.getId())) {
+					existing.put(getKey(marker.getResource(), marker.getType(), marker.getAttributes()), marker);
+				}
+			}
+		}
+		List<Issue> newIssues = Lists.newArrayList();
+		int unchanged = 0;
+		int updated = 0;
+		for (Issue issue : issues) {
+			if (monitor.isCanceled())
+				throw new OperationCanceledException();
+			String markerType = markerTypeProvider.getMarkerType(issue);
+			Map<String, Object> attributes = getAttributes(issue, resource, markerType);
+			List<IMarker> candidates = existing.get(getKey(resource, markerType, attributes));
+			if (candidates.isEmpty()) {
+				newIssues.add(issue);
+			} else {
+				IMarker marker = candidates.remove(candidates.size() - 1);
+				if (updateAttributes(marker, attributes)) {
+					updated++;
+				} else {
+					unchanged++;
+				}
+			}
+		}
+		Collection<IMarker> obsolete = existing.values();
+		int deleted = obsolete.size();
+		if (deleted != 0) {
+			resource.getWorkspace().deleteMarkers(obsolete.toArray(new IMarker[deleted]));
+		}
+		return new Result(newIssues, unchanged, updated, deleted);
+	}
+
+	protected List<Object> getKey(IResource resource, String markerType, Map<?, ?> attributes) {
+		List<Object> result = Lists.newArrayListWithCapacity(KEY_ATTRIBUTES.size() + 2);
+		result.add(resource);
+		result.add(markerType);
+		for (String attribute : KEY_ATTRIBUTES) {
+			result.add(attributes == null ? null : attributes.get(attribute));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the attributes that the marker creator would set for the given issue, <code>null</code> values denote
+	 *         attributes that are removed.
+	 */
+	protected Map<String, Object> getAttributes(Issue issue, IResource resource, String markerType) throws CoreException {
+		return markerCreator.getMarkerAttributes(issue, resource);
+	}
+
+	/**
+	 * @return <code>true</code> if the marker was changed.
+	 */
+	protected boolean updateAttributes(IMarker marker, Map<String, Object> attributes) throws CoreException {
+		List<String> names = Lists.newArrayList();
+		List<Object> values = Lists.newArrayList();
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			if (!Objects.equal(attribute.getValue(), marker.getAttribute(attribute.getKey()))) {
+				names.add(attribute.getKey());
+				values.add(attribute.getValue());
+			}
+		}
+		if (names.isEmpty()) {
+			return false;
+		}
+		marker.setAttributes(names.toArray(new String[names.size()]), values.toArray());
+		return true;
+	}
+
+}
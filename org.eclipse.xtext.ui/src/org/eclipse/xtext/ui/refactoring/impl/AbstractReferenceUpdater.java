@@ -8,49 +8,88 @@
 package org.eclipse.xtext.ui.refactoring.impl;
 
 import static com.google.common.collect.Lists.*;
+import static com.google.common.collect.Maps.*;
 import static com.google.common.collect.Sets.*;
 import static org.eclipse.ltk.core.refactoring.RefactoringStatus.*;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.text.edits.TextEdit;
 import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.ui.editor.findrefs.ReferenceSearchExecutor;
 import org.eclipse.xtext.ui.refactoring.ElementRenameArguments;
 import org.eclipse.xtext.ui.refactoring.IRefactoringUpdateAcceptor;
+import org.eclipse.xtext.ui.refactoring.IRenameStrategy;
 import org.eclipse.xtext.ui.refactoring.IReferenceUpdater;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.name.Named;
 
 /**
  * Abstract base class to update the references to renamed elements.
  * 
  * Sorts all references by project and uses a separate resource set for each project to assert proper initialization.
  * Updates are performed in clusters of 20 (default) referring resources. 
+ * If {@link #REFERENCE_UPDATE_THREADS} is bound, the referring resources of a project are loaded and resolved by
+ * several tasks of the {@link ReferenceSearchExecutor shared executor}, which also compute their text edits
+ * concurrently if the {@link #isConcurrentEditComputation(IRenameStrategy) rename strategy allows it}.
  * 
  * @author Jan Koehnlein - Initial contribution and API
  * @author Holger Schill
  */
 public abstract class AbstractReferenceUpdater implements IReferenceUpdater {
 
+	/**
+	 * The number of threads that load and resolve the referring resources of a project and compute their text edits, an
+	 * int. The default 1 processes them in sequence.
+	 * 
+	 * @since 2.13
+	 */
+	public static final String REFERENCE_UPDATE_THREADS = "org.eclipse.xtext.ui.refactoring.referenceUpdateThreads";
+
 	@Inject
 	private ReferenceDescriptionSorter sorter;
 
 	@Inject
 	private RefactoringResourceSetProvider resourceSetProvider;
 
+	@Inject
+	private Provider<StatusWrapper> statusWrapperProvider;
+
+	@Inject
+	private ReferenceSearchExecutor executor;
+
+	@Inject(optional = true)
+	@Named(REFERENCE_UPDATE_THREADS)
+	private int threadCount = 1;
+
 	@Override
 	public void createReferenceUpdates(ElementRenameArguments elementRenameArguments,
 			Iterable<IReferenceDescription> referenceDescriptions, IRefactoringUpdateAcceptor updateAcceptor,
@@ -77,8 +116,125 @@ public abstract class AbstractReferenceUpdater implements IReferenceUpdater {
 					.get(project));
 			ResourceSet resourceSet = resourceSetProvider.get(project);
 			StatusWrapper status = updateAcceptor.getRefactoringStatus();
-			createClusteredReferenceUpdates(elementRenameArguments, resource2references, resourceSet, updateAcceptor,
-					status, allProjectsProgress.newChild(1));
+			int threads = Math.min(getThreadCount(), resource2references.keySet().size() / Math.max(1, getClusterSize()));
+			if (threads > 1) {
+				createParallelReferenceUpdates(elementRenameArguments, resource2references, project, resourceSet,
+						resourceSetProvider, updateAcceptor, threads, allProjectsProgress.newChild(1));
+			} else {
+				createClusteredReferenceUpdates(elementRenameArguments, resource2references, resourceSet, updateAcceptor,
+						status, allProjectsProgress.newChild(1));
+			}
+		}
+	}
+
+	/**
+	 * @return the number of threads that load and resolve the referring resources of a project. Projects with less
+	 *         than one {@link #getClusterSize() cluster} per thread use fewer threads.
+	 * @since 2.13
+	 */
+	protected int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Splits the referring resources into one slice per thread. Each slice is
+	 * {@link #createClusteredReferenceUpdates(ElementRenameArguments, Multimap, ResourceSet, IRefactoringUpdateAcceptor, StatusWrapper, IProgressMonitor)
+	 * processed} by a task of the {@link ReferenceSearchExecutor shared executor} in its own resource set with its own
+	 * status, the first one in the given resource set. The updates of the slices are recorded and passed to the update
+	 * acceptor in the order of the slices once all of them are done, so the result does not depend on the scheduling of
+	 * the tasks.
+	 * 
+	 * The documents of the referring resources are obtained in the calling thread before the slices start, since the
+	 * document provider may have to wait for the display thread, which might be the calling thread.
+	 * 
+	 * The slices apply the declaration change in their own resource sets and compute the text edits of their clusters
+	 * concurrently, unless the {@link #isConcurrentEditComputation(IRenameStrategy) rename strategy does not allow it}.
+	 * In that case only loading the referring resources and resolving their references runs concurrently, and the
+	 * declaration change is applied, the text edits are computed and the change is reverted by one slice at a time.
+	 * 
+	 * @since 2.13
+	 */
+	protected void createParallelReferenceUpdates(final ElementRenameArguments elementRenameArguments,
+			Multimap<URI, IReferenceDescription> resource2references, IProject project, ResourceSet resourceSet,
+			RefactoringResourceSetProvider resourceSetProvider, IRefactoringUpdateAcceptor updateAcceptor, int threads,
+			IProgressMonitor monitor) {
+		final SubMonitor progress = SubMonitor.convert(monitor, threads);
+		RefactoringResourceSetProvider sliceResourceSetProvider = resourceSetProvider instanceof CachingResourceSetProvider
+				? ((CachingResourceSetProvider) resourceSetProvider).getDelegate() : resourceSetProvider;
+		List<URI> referringResourceURIs = newArrayList(resource2references.keySet());
+		Collections.sort(referringResourceURIs, new Comparator<URI>() {
+			@Override
+			public int compare(URI o1, URI o2) {
+				return o1.toString().compareTo(o2.toString());
+			}
+		});
+		final IProgressMonitor sliceMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || progress.isCanceled();
+			}
+		};
+		// the slices must not ask the document provider, it may sync with a display thread that waits for them
+		Map<URI, IRefactoringDocument> documents = newHashMap();
+		for (URI referringResourceURI : referringResourceURIs) {
+			documents.put(referringResourceURI, updateAcceptor.getDocument(referringResourceURI));
+		}
+		List<RecordingUpdateAcceptor> acceptors = newArrayList();
+		List<Callable<Void>> slices = newArrayList();
+		for (int i = 0; i < threads; i++) {
+			final Multimap<URI, IReferenceDescription> slice = LinkedHashMultimap.create();
+			for (URI referringResourceURI : referringResourceURIs.subList(i * referringResourceURIs.size() / threads,
+					(i + 1) * referringResourceURIs.size() / threads)) {
+				slice.putAll(referringResourceURI, resource2references.get(referringResourceURI));
+			}
+			final ResourceSet sliceResourceSet = i == 0 ? resourceSet : sliceResourceSetProvider.get(project);
+			final RecordingUpdateAcceptor acceptor = new RecordingUpdateAcceptor(updateAcceptor, documents,
+					statusWrapperProvider.get());
+			acceptors.add(acceptor);
+			slices.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					createClusteredReferenceUpdates(elementRenameArguments, slice, sliceResourceSet, acceptor,
+							acceptor.getRefactoringStatus(), sliceMonitor);
+					return null;
+				}
+			});
+		}
+		List<Future<Void>> futures = newArrayList();
+		try {
+			for (Callable<Void> slice : slices) {
+				futures.add(executor.getExecutor().submit(slice));
+			}
+			for (Future<Void> future : futures) {
+				while (true) {
+					if (progress.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					try {
+						future.get(100, TimeUnit.MILLISECONDS);
+						break;
+					} catch (TimeoutException e) {
+						// check for cancellation and wait again
+					}
+				}
+				progress.worked(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			Throwables.propagateIfPossible(cause);
+			throw new WrappedException((Exception) cause);
+		} finally {
+			// the executor is shared, so stop the remaining slices instead of the executor
+			sliceMonitor.setCanceled(true);
+			for (Future<Void> future : futures) {
+				future.cancel(false);
+			}
+		}
+		for (RecordingUpdateAcceptor acceptor : acceptors) {
+			acceptor.replay();
 		}
 	}
 
@@ -144,17 +300,44 @@ public abstract class AbstractReferenceUpdater implements IReferenceUpdater {
 			URI unresolvableReferringResource = unresolvableReference.getSourceEObjectUri().trimFragment();
 			resource2references.remove(unresolvableReferringResource, unresolvableReference);
 		}
-		elementRenameArguments.getRenameStrategy().applyDeclarationChange(elementRenameArguments.getNewName(),
-				resourceSet);
-		if (progress.isCanceled()) {
+		IRenameStrategy renameStrategy = elementRenameArguments.getRenameStrategy();
+		if (isConcurrentEditComputation(renameStrategy)) {
+			createReferenceUpdatesWithDeclarationChange(elementRenameArguments, resource2references, resourceSet,
+					updateAcceptor, progress.newChild(20));
+		} else {
+			// the strategy keeps the state of the applied change, so the edits of parallel slices are computed in sequence
+			synchronized (renameStrategy) {
+				createReferenceUpdatesWithDeclarationChange(elementRenameArguments, resource2references, resourceSet,
+						updateAcceptor, progress.newChild(20));
+			}
+		}
+	}
+
+	private void createReferenceUpdatesWithDeclarationChange(ElementRenameArguments elementRenameArguments,
+			Multimap<URI, IReferenceDescription> resource2references, ResourceSet resourceSet,
+			IRefactoringUpdateAcceptor updateAcceptor, IProgressMonitor monitor) {
+		IRenameStrategy renameStrategy = elementRenameArguments.getRenameStrategy();
+		renameStrategy.applyDeclarationChange(elementRenameArguments.getNewName(), resourceSet);
+		if (monitor.isCanceled()) {
 			throw new OperationCanceledException();
 		}
-		createReferenceUpdates(elementRenameArguments, resource2references, resourceSet, updateAcceptor,
-				progress.newChild(20));
-		if (progress.isCanceled()) {
+		createReferenceUpdates(elementRenameArguments, resource2references, resourceSet, updateAcceptor, monitor);
+		if (monitor.isCanceled()) {
 			throw new OperationCanceledException();
 		}
-		elementRenameArguments.getRenameStrategy().revertDeclarationChange(resourceSet);
+		renameStrategy.revertDeclarationChange(resourceSet);
+	}
+
+	/**
+	 * Whether parallel slices may apply and revert the declaration change of the given strategy in their resource sets
+	 * at the same time. The state of an {@link AbstractRenameStrategy} only depends on the URI of the target element and
+	 * the new name, which are the same for all slices. Other strategies may keep the state of the resource set that the
+	 * change was applied to, so their edits are computed by one slice at a time.
+	 * 
+	 * @since 2.13
+	 */
+	protected boolean isConcurrentEditComputation(IRenameStrategy renameStrategy) {
+		return renameStrategy instanceof AbstractRenameStrategy;
 	}
 
 	protected List<IReferenceDescription> resolveReferenceProxies(ResourceSet resourceSet,
@@ -213,6 +396,74 @@ public abstract class AbstractReferenceUpdater implements IReferenceUpdater {
 			Multimap<URI, IReferenceDescription> resource2references, ResourceSet resourceSet,
 			IRefactoringUpdateAcceptor updateAcceptor, IProgressMonitor monitor);
 
+	/**
+	 * Records the updates and the status of one slice of a parallel update until they are passed to the update acceptor
+	 * of the refactoring. The documents of the referring resources are obtained from that acceptor in advance. Other
+	 * documents and the composite change are obtained from it on demand, so the recorded updates are only part of the
+	 * change once they are {@link #replay() replayed}.
+	 */
+	private static class RecordingUpdateAcceptor implements IRefactoringUpdateAcceptor {
+
+		private final IRefactoringUpdateAcceptor delegate;
+
+		private final Map<URI, IRefactoringDocument> documents;
+
+		private final StatusWrapper status;
+
+		private final Multimap<URI, TextEdit> textEdits = LinkedHashMultimap.create();
+
+		private final Multimap<URI, Change> changes = LinkedHashMultimap.create();
+
+		RecordingUpdateAcceptor(IRefactoringUpdateAcceptor delegate, Map<URI, IRefactoringDocument> documents,
+				StatusWrapper status) {
+			this.delegate = delegate;
+			this.documents = documents;
+			this.status = status;
+		}
+
+		@Override
+		public void accept(URI resourceURI, TextEdit textEdit) {
+			textEdits.put(resourceURI, textEdit);
+		}
+
+		@Override
+		public void accept(URI resourceURI, Change change) {
+			changes.put(resourceURI, change);
+		}
+
+		@Override
+		public StatusWrapper getRefactoringStatus() {
+			return status;
+		}
+
+		@Override
+		public IRefactoringDocument getDocument(URI resourceURI) {
+			IRefactoringDocument document = documents.get(resourceURI.trimFragment());
+			if (document != null)
+				return document;
+			synchronized (delegate) {
+				return delegate.getDocument(resourceURI);
+			}
+		}
+
+		@Override
+		public Change createCompositeChange(String name, IProgressMonitor monitor) {
+			synchronized (delegate) {
+				return delegate.createCompositeChange(name, monitor);
+			}
+		}
+
+		void replay() {
+			for (Map.Entry<URI, TextEdit> textEdit : textEdits.entries()) {
+				delegate.accept(textEdit.getKey(), textEdit.getValue());
+			}
+			for (Map.Entry<URI, Change> change : changes.entries()) {
+				delegate.accept(change.getKey(), change.getValue());
+			}
+			delegate.getRefactoringStatus().merge(status);
+		}
+	}
+
 	protected boolean loadTargetResources(ResourceSet resourceSet, ElementRenameArguments elementRenameArguments,
 			StatusWrapper status, IProgressMonitor monitor) {
 		boolean isSuccess = true;
@@ -35,4 +35,12 @@ public class CachingResourceSetProvider extends RefactoringResourceSetProvider {
 		resourceSets.put(project, result);
 		return result;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return the provider of the cached resource sets.
+	 * @since 2.13
+	 */
+	public RefactoringResourceSetProvider getDelegate() {
+		return delegate;
+	}
+}
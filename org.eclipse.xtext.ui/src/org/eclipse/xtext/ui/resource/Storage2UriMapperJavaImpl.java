@@ -75,6 +75,11 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 		public final Object modificationStamp;
 		public Map<String, IPackageFragmentRoot> associatedRoots;
 		public Map<URI, IStorage> uri2Storage = newLinkedHashMap();
+		
+		/**
+		 * The inverse of {@link #uri2Storage} and the map it was computed from.
+		 */
+		private volatile Pair<Map<URI, IStorage>, Map<IStorage, URI>> storage2Uri;
 
 		public PackageFragmentRootData(Object modificationStamp) {
 			this.modificationStamp = modificationStamp;
@@ -101,6 +106,26 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 			}
 			return IterableExtensions.head(roots.values()).getPath();
 		}
+		
+		/**
+		 * @return the URI of the given storage or <code>null</code> if it is not contained in {@link #uri2Storage}.
+		 * @since 2.13
+		 */
+		public URI getUri(IStorage storage) {
+			Map<URI, IStorage> current = uri2Storage;
+			Pair<Map<URI, IStorage>, Map<IStorage, URI>> inverse = storage2Uri;
+			if (inverse == null || inverse.getFirst() != current) {
+				Map<IStorage, URI> map = newHashMapWithExpectedSize(current.size());
+				for (Map.Entry<URI, IStorage> entry : current.entrySet()) {
+					if (!map.containsKey(entry.getValue())) {
+						map.put(entry.getValue(), entry.getKey());
+					}
+				}
+				inverse = Tuples.create(current, map);
+				storage2Uri = inverse;
+			}
+			return inverse.getSecond().get(storage);
+		}
 
 		public void addRoot(IPackageFragmentRoot root) {
 			if (root != null) {
@@ -176,7 +201,12 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 		this.host = host;
 	}
 	
-	private Map<String, PackageFragmentRootData> cachedPackageFragmentRootData = newLinkedHashMap();
+	/**
+	 * Writers synchronize on the map and keep {@link #cachedDataByPrefix} in sync.
+	 */
+	private Map<String, PackageFragmentRootData> cachedPackageFragmentRootData = newConcurrentMap();
+	
+	private final UriPrefixTrie<PackageFragmentRootData> cachedDataByPrefix = new UriPrefixTrie<PackageFragmentRootData>();
 	
 	/**
 	 * Rejects Java output folders when traversing a project.
@@ -244,17 +274,26 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 					data.addRoot(root);
 					return data;
 				} else {
-					cachedPackageFragmentRootData.remove(path);
+					removeCachedData(path);
 				}
 			}
 		}
 		PackageFragmentRootData data = initializeData(root);
 		synchronized (cachedPackageFragmentRootData) {
+			removeCachedData(path);
 			cachedPackageFragmentRootData.put(path, data);
+			cachedDataByPrefix.put(data.uriPrefix, data);
 		}
 		return data;
 	}
 	
+	private void removeCachedData(String path) {
+		PackageFragmentRootData removed = cachedPackageFragmentRootData.remove(path);
+		if (removed != null) {
+			cachedDataByPrefix.remove(removed.uriPrefix, removed);
+		}
+	}
+	
 	private boolean isUpToDate(PackageFragmentRootData data, IPackageFragmentRoot root) {
 		return Objects.equal(data.modificationStamp, computeModificationStamp(root));
 	}
@@ -343,24 +382,14 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 	@Override
 	public Iterable<Pair<IStorage, IProject>> getStorages(/* @NonNull */ URI uri) {
 		List<Pair<IStorage, IProject>> result = newArrayListWithCapacity(1);
-		List<PackageFragmentRootData> packageFragmentRootDatas;
-		synchronized(cachedPackageFragmentRootData) {
-			packageFragmentRootDatas = newArrayList(cachedPackageFragmentRootData.values());
-		}
-		Iterator<PackageFragmentRootData> iterator = packageFragmentRootDatas.iterator();
-		while (iterator.hasNext()) {
-			PackageFragmentRootData data = iterator.next();
+		for (PackageFragmentRootData data : cachedDataByPrefix.getMatches(uri)) {
 			if (data.exists()) {
-				if (data.uriPrefix == null || uri.toString().startsWith(data.uriPrefix.toString())) {
-					IStorage storage = data.uri2Storage.get(uri);
-					if (storage != null) {
-						for (IPackageFragmentRoot root : data.associatedRoots.values()) {
-							result.add(Tuples.create(storage, root.getJavaProject().getProject()));
-						}
+				IStorage storage = data.uri2Storage.get(uri);
+				if (storage != null) {
+					for (IPackageFragmentRoot root : data.associatedRoots.values()) {
+						result.add(Tuples.create(storage, root.getJavaProject().getProject()));
 					}
 				}
-			} else {
-				iterator.remove();
 			}
 		}
 		if (result.isEmpty() && uri.isArchive()) {
@@ -369,16 +398,16 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 			URI archiveURI = URI.createURI(authority);
 			if (archiveURI.isFile() || archiveURI.isPlatformResource()) {
 				IPath archivePath = new Path(archiveURI.isPlatformResource()? archiveURI.toPlatformString(true): archiveURI.toFileString());
-				for (PackageFragmentRootData data : packageFragmentRootDatas) {
-					if (data.uriPrefix != null && archivePath.equals(data.getPath())) {
-						// prefixes have an empty last segment.
-						URI prefix = data.uriPrefix.lastSegment().length()==0 ? data.uriPrefix.trimSegments(1) : data.uriPrefix;
-						URI expectedURI = prefix.appendSegments(uri.segments());
-						IStorage storage = data.uri2Storage.get(expectedURI);
-						if (storage != null) {
-							for (IPackageFragmentRoot root : data.associatedRoots.values()) {
-								result.add(Tuples.create(storage, root.getJavaProject().getProject()));
-							}
+				// the cache is keyed by the path of the package fragment roots
+				PackageFragmentRootData data = cachedPackageFragmentRootData.get(archivePath.toString());
+				if (data != null && data.exists() && data.uriPrefix != null && archivePath.equals(data.getPath())) {
+					// prefixes have an empty last segment.
+					URI prefix = data.uriPrefix.lastSegment().length()==0 ? data.uriPrefix.trimSegments(1) : data.uriPrefix;
+					URI expectedURI = prefix.appendSegments(uri.segments());
+					IStorage storage = data.uri2Storage.get(expectedURI);
+					if (storage != null) {
+						for (IPackageFragmentRoot root : data.associatedRoots.values()) {
+							result.add(Tuples.create(storage, root.getJavaProject().getProject()));
 						}
 					}
 				}
@@ -395,10 +424,16 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 		if (storage instanceof IJarEntryResource) {
 			final IJarEntryResource casted = (IJarEntryResource) storage;
 			IPackageFragmentRoot packageFragmentRoot = casted.getPackageFragmentRoot();
-			Map<URI, IStorage> data = getAllEntries(packageFragmentRoot);
-			for (Map.Entry<URI, IStorage> entry : data.entrySet()) {
-				if (entry.getValue().equals(casted))
-					return entry.getKey();
+			if (packageFragmentRoot.exists() && (packageFragmentRoot.isArchive() || packageFragmentRoot.isExternal())) {
+				URI uri = getCachedData(packageFragmentRoot).getUri(casted);
+				if (uri != null)
+					return uri;
+			} else {
+				Map<URI, IStorage> data = getAllEntries(packageFragmentRoot);
+				for (Map.Entry<URI, IStorage> entry : data.entrySet()) {
+					if (entry.getValue().equals(casted))
+						return entry.getKey();
+				}
 			}
 			if (packageFragmentRoot.exists() && packageFragmentRoot.isArchive()) {
 				IPath jarPath = packageFragmentRoot.getPath();
@@ -521,7 +556,11 @@ public class Storage2UriMapperJavaImpl implements IStorage2UriMapperJdtExtension
 		}
 		if(!toBeRemoved.isEmpty()) {
 			synchronized (cachedPackageFragmentRootData) {
-				cachedPackageFragmentRootData.values().removeAll(toBeRemoved);
+				for (PackageFragmentRootData data : toBeRemoved) {
+					if (cachedPackageFragmentRootData.values().remove(data)) {
+						cachedDataByPrefix.remove(data.uriPrefix, data);
+					}
+				}
 			}
 		}
 	}
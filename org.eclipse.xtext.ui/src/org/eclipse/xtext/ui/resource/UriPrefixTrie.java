@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.emf.common.util.URI;
+
+/**
+ * Associates values with URI prefixes and answers all values whose prefix matches a given URI in time proportional to
+ * the number of segments of that URI. A prefix matches a URI if the string representation of the URI starts with the
+ * string representation of the prefix. A <code>null</code> prefix matches all URIs.
+ *
+ * Prefixes that end with a path separator are stored in a trie of URI segments. Other prefixes are compared one by one.
+ * Readers do not lock, writers are synchronized.
+ *
+ * @since 2.13
+ */
+public class UriPrefixTrie<T> {
+
+	private static class Node<T> {
+		private final ConcurrentMap<String, Node<T>> children = new ConcurrentHashMap<String, Node<T>>();
+		private volatile List<T> values = Collections.emptyList();
+	}
+
+	private final Node<T> root = new Node<T>();
+
+	private volatile List<Entry<T>> unstructured = Collections.emptyList();
+
+	private static class Entry<T> {
+		private final String prefix;
+		private final T value;
+
+		private Entry(String prefix, T value) {
+			this.prefix = prefix;
+			this.value = value;
+		}
+	}
+
+	public synchronized void put(URI prefix, T value) {
+		List<String> keys = getPrefixKeys(prefix);
+		if (keys == null) {
+			List<Entry<T>> copy = new ArrayList<Entry<T>>(unstructured);
+			copy.add(new Entry<T>(prefix.toString(), value));
+			unstructured = copy;
+			return;
+		}
+		Node<T> node = root;
+		for (String key : keys) {
+			Node<T> child = node.children.get(key);
+			if (child == null) {
+				child = new Node<T>();
+				node.children.put(key, child);
+			}
+			node = child;
+		}
+		List<T> copy = new ArrayList<T>(node.values);
+		copy.add(value);
+		node.values = copy;
+	}
+
+	/**
+	 * Removes the given value from the given prefix. Values are compared by identity.
+	 */
+	public synchronized void remove(URI prefix, T value) {
+		List<String> keys = getPrefixKeys(prefix);
+		if (keys == null) {
+			List<Entry<T>> copy = new ArrayList<Entry<T>>(unstructured.size());
+			for (Entry<T> entry : unstructured) {
+				if (entry.value != value || !entry.prefix.equals(prefix.toString())) {
+					copy.add(entry);
+				}
+			}
+			unstructured = copy;
+			return;
+		}
+		remove(root, keys, 0, value);
+	}
+
+	private boolean remove(Node<T> node, List<String> keys, int index, T value) {
+		if (index == keys.size()) {
+			List<T> copy = new ArrayList<T>(node.values.size());
+			for (T existing : node.values) {
+				if (existing != value) {
+					copy.add(existing);
+				}
+			}
+			node.values = copy.isEmpty() ? Collections.<T> emptyList() : copy;
+		} else {
+			String key = keys.get(index);
+			Node<T> child = node.children.get(key);
+			if (child != null && remove(child, keys, index + 1, value)) {
+				node.children.remove(key);
+			}
+		}
+		return node.values.isEmpty() && node.children.isEmpty();
+	}
+
+	/**
+	 * @return the values of all prefixes that match the given URI, shorter prefixes first.
+	 */
+	public List<T> getMatches(URI uri) {
+		List<T> result = new ArrayList<T>(root.values);
+		if (isStructured(uri)) {
+			Node<T> node = root.children.get(getHead(uri));
+			int segmentCount = uri.segmentCount();
+			// a prefix has a trailing separator, so the URI needs at least one more segment
+			for (int i = 0; node != null && i < segmentCount; i++) {
+				result.addAll(node.values);
+				node = node.children.get(uri.segment(i));
+			}
+		}
+		List<Entry<T>> unstructured = this.unstructured;
+		if (!unstructured.isEmpty()) {
+			String string = uri.toString();
+			for (Entry<T> entry : unstructured) {
+				if (string.startsWith(entry.prefix)) {
+					result.add(entry.value);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the keys of the trie nodes for the given prefix or <code>null</code> if the prefix cannot be stored
+	 *         in the trie.
+	 */
+	private List<String> getPrefixKeys(URI prefix) {
+		if (prefix == null) {
+			return Collections.emptyList();
+		}
+		if (!isStructured(prefix) || prefix.hasQuery() || prefix.hasFragment() || !prefix.hasTrailingPathSeparator()) {
+			return null;
+		}
+		String[] segments = prefix.segments();
+		List<String> result = new ArrayList<String>(segments.length);
+		result.add(getHead(prefix));
+		// the last segment of a prefix with a trailing separator is empty
+		for (int i = 0; i < segments.length - 1; i++) {
+			result.add(segments[i]);
+		}
+		return result;
+	}
+
+	private boolean isStructured(URI uri) {
+		return uri.isHierarchical() && uri.hasAbsolutePath();
+	}
+
+	private String getHead(URI uri) {
+		StringBuilder result = new StringBuilder();
+		result.append(uri.scheme()).append(':');
+		if (uri.hasAuthority()) {
+			result.append("//").append(uri.authority());
+		}
+		if (uri.hasDevice()) {
+			result.append('/').append(uri.device());
+		}
+		return result.toString();
+	}
+
+}
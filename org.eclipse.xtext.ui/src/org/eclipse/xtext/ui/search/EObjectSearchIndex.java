@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2017 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ui.search;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.ui.dialogs.SearchPattern;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * An index over the names that {@link IXtextEObjectSearch.Default} matches, i.e. the qualified names of all exported
+ * objects and their last segments after each {@link IXtextSearchFilter.Registry#allNamespaceDelimiters() namespace
+ * delimiter}. The lower case names are kept in a sorted array, so the candidates for a prefix are found by a binary
+ * search instead of matching every exported object.
+ *
+ * The index is built on first use and kept in a soft reference. Resources that changed since are tracked from the
+ * change events of the resource descriptions, their entries are skipped and their current exported objects are
+ * matched directly. The index is rebuilt when too many resources have changed.
+ *
+ * @since 2.13
+ */
+@Singleton
+public class EObjectSearchIndex implements IResourceDescription.Event.Listener {
+
+	/** the number of changed resources that causes the names to be built again */
+	protected static final int MAX_CHANGED_RESOURCES = 1000;
+
+	private static class Names {
+		private final String[] keys;
+		private final IEObjectDescription[] objects;
+		private final Collection<String> namespaceDelimiters;
+
+		private Names(String[] keys, IEObjectDescription[] objects, Collection<String> namespaceDelimiters) {
+			this.keys = keys;
+			this.objects = objects;
+			this.namespaceDelimiters = namespaceDelimiters;
+		}
+
+		/**
+		 * @return the index of the first key that is not less than the given one.
+		 */
+		private int lowerBound(String key) {
+			int low = 0;
+			int high = keys.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (keys[mid].compareTo(key) < 0)
+					low = mid + 1;
+				else
+					high = mid;
+			}
+			return low;
+		}
+	}
+
+	private final IResourceDescriptions resourceDescriptions;
+
+	private SoftReference<Names> names = new SoftReference<Names>(null);
+
+	/** the resources that changed since the names were built */
+	private Set<URI> changedResources = Sets.newHashSet();
+
+	@Inject
+	public EObjectSearchIndex(IResourceDescriptions resourceDescriptions) {
+		this.resourceDescriptions = resourceDescriptions;
+		if (resourceDescriptions instanceof IResourceDescription.Event.Source)
+			((IResourceDescription.Event.Source) resourceDescriptions).addListener(this);
+	}
+
+	public IResourceDescriptions getResourceDescriptions() {
+		return resourceDescriptions;
+	}
+
+	/**
+	 * @return whether the index is kept up to date by change events.
+	 */
+	public boolean isAvailable() {
+		return resourceDescriptions instanceof IResourceDescription.Event.Source;
+	}
+
+	@Override
+	public synchronized void descriptionsChanged(IResourceDescription.Event event) {
+		if (names.get() == null)
+			return;
+		for (IResourceDescription.Delta delta : event.getDeltas()) {
+			changedResources.add(delta.getUri());
+		}
+		if (changedResources.size() > MAX_CHANGED_RESOURCES)
+			clear();
+	}
+
+	private void clear() {
+		names = new SoftReference<Names>(null);
+		changedResources = Sets.newHashSet();
+	}
+
+	/**
+	 * @return all exported objects that may match the given pattern, a superset of the objects whose qualified name or
+	 *         last segment after a namespace delimiter matches the pattern. Each object is returned once.
+	 */
+	public Iterable<IEObjectDescription> getCandidates(SearchPattern searchPattern) {
+		String prefix = getPrefix(searchPattern);
+		if (prefix == null || prefix.isEmpty() || !isAvailable())
+			return null;
+		Collection<String> namespaceDelimiters = ImmutableList.copyOf(IXtextSearchFilter.Registry.allNamespaceDelimiters());
+		final Names currentNames;
+		final Set<URI> changed;
+		synchronized (this) {
+			Names existing = names.get();
+			if (existing == null || !existing.namespaceDelimiters.equals(namespaceDelimiters)) {
+				clear();
+				existing = createNames(namespaceDelimiters);
+				names = new SoftReference<Names>(existing);
+			}
+			currentNames = existing;
+			changed = changedResources.isEmpty() ? Collections.<URI> emptySet() : Sets.newHashSet(changedResources);
+		}
+		Iterable<IEObjectDescription> unchanged = getCandidates(currentNames, prefix, changed);
+		if (changed.isEmpty())
+			return unchanged;
+		List<Iterable<IEObjectDescription>> changedObjects = Lists.newArrayList();
+		for (URI uri : changed) {
+			IResourceDescription description = resourceDescriptions.getResourceDescription(uri);
+			if (description != null)
+				changedObjects.add(description.getExportedObjects());
+		}
+		return Iterables.concat(unchanged, Iterables.concat(changedObjects));
+	}
+
+	private Iterable<IEObjectDescription> getCandidates(final Names names, final String prefix, final Set<URI> changed) {
+		return new Iterable<IEObjectDescription>() {
+			@Override
+			public Iterator<IEObjectDescription> iterator() {
+				return new AbstractIterator<IEObjectDescription>() {
+					private int index = names.lowerBound(prefix);
+					private final Set<IEObjectDescription> seen = Sets.newIdentityHashSet();
+
+					@Override
+					protected IEObjectDescription computeNext() {
+						while (index < names.keys.length && names.keys[index].startsWith(prefix)) {
+							IEObjectDescription candidate = names.objects[index++];
+							if (seen.add(candidate)
+									&& (changed.isEmpty() || !changed.contains(candidate.getEObjectURI().trimFragment())))
+								return candidate;
+						}
+						return endOfData();
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * @return the lower case prefix that all names matching the given pattern start with, ignoring the case.
+	 *         <code>null</code> if there is no such prefix. The keys are lower cased with {@link #toLowerCase(String)}
+	 *         as well.
+	 */
+	protected String getPrefix(SearchPattern searchPattern) {
+		String pattern = searchPattern.getPattern();
+		if (pattern == null || pattern.indexOf('\\') != -1)
+			return null;
+		switch (searchPattern.getMatchRule()) {
+			case SearchPattern.RULE_EXACT_MATCH:
+			case SearchPattern.RULE_PREFIX_MATCH:
+				return toLowerCase(pattern);
+			case SearchPattern.RULE_PATTERN_MATCH:
+				int wildcard = 0;
+				while (wildcard < pattern.length() && pattern.charAt(wildcard) != '*' && pattern.charAt(wildcard) != '?')
+					wildcard++;
+				return toLowerCase(pattern.substring(0, wildcard));
+			case SearchPattern.RULE_CAMELCASE_MATCH:
+				// camel case matches and their prefix fallback start with the first character
+				return pattern.isEmpty() ? null : toLowerCase(pattern.substring(0, 1));
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Lower cases independently of the default locale, which could map the same character differently for the
+	 * pattern and the names, e.g. the upper case I in a Turkish locale.
+	 */
+	protected String toLowerCase(String name) {
+		return name.toLowerCase(Locale.ENGLISH);
+	}
+
+	private Names createNames(Collection<String> namespaceDelimiters) {
+		List<String> keys = Lists.newArrayList();
+		List<IEObjectDescription> objects = Lists.newArrayList();
+		for (IResourceDescription resourceDescription : resourceDescriptions.getAllResourceDescriptions()) {
+			for (IEObjectDescription object : resourceDescription.getExportedObjects()) {
+				if (object.getQualifiedName() == null)
+					continue;
+				String qualifiedName = object.getQualifiedName().toString();
+				keys.add(toLowerCase(qualifiedName));
+				objects.add(object);
+				for (String namespaceDelimiter : namespaceDelimiters) {
+					int index = qualifiedName.lastIndexOf(namespaceDelimiter);
+					if (index != -1) {
+						keys.add(toLowerCase(qualifiedName.substring(index + 1)));
+						objects.add(object);
+					}
+				}
+			}
+		}
+		final String[] keyArray = keys.toArray(new String[keys.size()]);
+		Integer[] order = new Integer[keyArray.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return keyArray[o1].compareTo(keyArray[o2]);
+			}
+		});
+		String[] sortedKeys = new String[order.length];
+		IEObjectDescription[] sortedObjects = new IEObjectDescription[order.length];
+		for (int i = 0; i < order.length; i++) {
+			sortedKeys[i] = keyArray[order[i]];
+			sortedObjects[i] = objects.get(order[i]);
+		}
+		return new Names(sortedKeys, sortedObjects, namespaceDelimiters);
+	}
+
+}
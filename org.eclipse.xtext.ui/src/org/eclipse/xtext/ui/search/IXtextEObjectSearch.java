@@ -32,9 +32,40 @@ public interface IXtextEObjectSearch {
 		@Inject
 		private IResourceDescriptions resourceDescriptions;
 
+		@Inject(optional = true)
+		private EObjectSearchIndex searchIndex;
+
 		@Override
 		public Iterable<IEObjectDescription> findMatches(final String searchPattern, final String typeSearchPattern) {
-			return Iterables.filter(getSearchScope(), getSearchPredicate(searchPattern, typeSearchPattern));
+			return Iterables.filter(getSearchScope(searchPattern), getSearchPredicate(searchPattern, typeSearchPattern));
+		}
+
+		/**
+		 * @return the candidates for the given pattern, narrowed by the {@link EObjectSearchIndex} if it is
+		 *         {@link #isUseSearchIndex() used}, or else the complete {@link #getSearchScope() search scope}.
+		 * @since 2.13
+		 */
+		protected Iterable<IEObjectDescription> getSearchScope(String stringPattern) {
+			if (isUseSearchIndex()) {
+				SearchPattern searchPattern = new SearchPattern();
+				searchPattern.setPattern(stringPattern);
+				Iterable<IEObjectDescription> candidates = searchIndex.getCandidates(searchPattern);
+				if (candidates != null)
+					return candidates;
+			}
+			return getSearchScope();
+		}
+
+		/**
+		 * The index covers all exported objects of the injected resource descriptions and the names matched by
+		 * {@link #isNameMatches(SearchPattern, IEObjectDescription, Collection)}. Subclasses that change the
+		 * {@link #getSearchScope() scope} or the name matching don't use it unless they override this method.
+		 * 
+		 * @since 2.13
+		 */
+		protected boolean isUseSearchIndex() {
+			return getClass() == Default.class && searchIndex != null
+					&& searchIndex.getResourceDescriptions() == getResourceDescriptions();
 		}
 
 		protected Predicate<IEObjectDescription> getSearchPredicate(final String stringPattern,
@@ -11,17 +11,22 @@ import java.util.List;
 
 import org.apache.log4j.Logger;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.service.OperationCanceledError;
+import org.eclipse.xtext.ui.MarkerTypes;
 import org.eclipse.xtext.ui.editor.validation.MarkerCreator;
+import org.eclipse.xtext.ui.editor.validation.MarkerReconciler;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.validation.CheckMode;
+import org.eclipse.xtext.validation.CheckType;
 import org.eclipse.xtext.validation.IResourceValidator;
 import org.eclipse.xtext.validation.Issue;
 
+import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 
 /**
@@ -61,7 +66,17 @@ public class DefaultResourceUIValidatorExtension extends MarkerEraser implements
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
-			deleteMarkers(file, mode, monitor);
+			MarkerReconciler reconciler = createMarkerReconciler();
+			if (reconciler.isApplicable()) {
+				// keep the markers that did not change instead of deleting and recreating all of them
+				MarkerReconciler.Result result = reconciler.reconcile(file, list, getMarkerTypes(mode), IResource.DEPTH_ZERO,
+						monitor);
+				if (log.isDebugEnabled())
+					log.debug("Markers of " + file.getFullPath() + ": " + result);
+				list = result.getNewIssues();
+			} else {
+				deleteMarkers(file, mode, monitor);
+			}
 			if (monitor.isCanceled()) {
 				throw new OperationCanceledException();
 			}
@@ -73,6 +88,27 @@ public class DefaultResourceUIValidatorExtension extends MarkerEraser implements
 		}
 	}
 
+	/**
+	 * @since 2.13
+	 */
+	protected MarkerReconciler createMarkerReconciler() {
+		return new MarkerReconciler(markerCreator, markerTypeProvider);
+	}
+
+	/**
+	 * @return the types of the markers that are replaced when the given mode is validated.
+	 * @since 2.13
+	 */
+	protected List<String> getMarkerTypes(CheckMode mode) {
+		List<String> result = Lists.newArrayList();
+		for (CheckType checkType : CheckType.values()) {
+			if (mode.shouldCheck(checkType)) {
+				result.add(MarkerTypes.forCheckType(checkType));
+			}
+		}
+		return result;
+	}
+
 	protected void createMarkers(IFile file, List<Issue> list, IProgressMonitor monitor) throws CoreException {
 		for (Issue issue : list) {
 			markerCreator.createMarker(issue, file, markerTypeProvider.getMarkerType(issue));